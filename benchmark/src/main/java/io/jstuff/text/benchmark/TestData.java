@@ -0,0 +1,91 @@
+/*
+ * @(#) TestData.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.benchmark;
+
+/**
+ * Test data for the benchmarks.  The text consists of a number of records, each on a separate line, containing fields
+ * typical of a log file or CSV-like format.
+ *
+ * @author  Peter Wall
+ */
+public enum TestData {
+
+    SHORT(1),
+    MEDIUM(64),
+    LARGE(65536);
+
+    private final int records;
+
+    TestData(int records) {
+        this.records = records;
+    }
+
+    /**
+     * Get the number of records.
+     *
+     * @return      the number of records
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * Create the text for this size of test data.  Each record is approximately 80 characters, so the {@code LARGE}
+     * text will be roughly 5 megabytes.
+     *
+     * @return      the text
+     */
+    public String createText() {
+        StringBuilder sb = new StringBuilder(records * 80);
+        for (int i = 0; i < records; i++) {
+            sb.append("id=");
+            appendPadded(sb, i * 7919 % 1000000, 6);
+            sb.append(",ts=");
+            sb.append(1729252800000L + i * 1013L);
+            sb.append(",span=");
+            String hex = Long.toHexString(0x1A2B3C4D5E6F7081L + i * 0x9E3779B97F4A7C15L);
+            for (int j = hex.length(); j < 16; j++)
+                sb.append('0');
+            sb.append(hex);
+            sb.append(",name=");
+            sb.append(names[i % names.length]);
+            sb.append("----    end\n");
+        }
+        return sb.toString();
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        String s = String.valueOf(value);
+        for (int i = s.length(); i < width; i++)
+            sb.append('0');
+        sb.append(s);
+    }
+
+    private static final String[] names = {
+            "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel"
+    };
+
+}
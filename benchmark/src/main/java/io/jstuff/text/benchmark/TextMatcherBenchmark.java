@@ -0,0 +1,748 @@
+/*
+ * @(#) TextMatcherBenchmark.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jstuff.text.ByteMatcher;
+import io.jstuff.text.CharClass;
+import io.jstuff.text.CharPredicate;
+import io.jstuff.text.KeywordSet;
+import io.jstuff.text.MappedFileMatcher;
+import io.jstuff.text.NumberResult;
+import io.jstuff.text.RegularPattern;
+import io.jstuff.text.SearchPattern;
+import io.jstuff.text.StreamMatcher;
+import io.jstuff.text.TextMatcher;
+import io.jstuff.text.TextPattern;
+
+/**
+ * Benchmarks for the main {@link TextMatcher} match, skip and get operations.  Each benchmark operation processes every
+ * record in the test data, so the scores for the different data sizes are not directly comparable; to compare releases,
+ * run the same benchmark with the same data size against each version.
+ *
+ * <p>To include allocation rates, run with the GC profiler:</p>
+ * <pre>
+ *     java -jar target/benchmarks.jar -prof gc
+ * </pre>
+ *
+ * @author  Peter Wall
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TextMatcherBenchmark {
+
+    private static final int ID_OFFSET = 3;
+    private static final int ID_LENGTH = 6;
+    private static final int TS_OFFSET = 13;
+    private static final int TS_LENGTH = 13;
+    private static final int SPAN_OFFSET = 32;
+    private static final int SPAN_LENGTH = 16;
+    private static final int NAME_OFFSET = 54;
+
+    private static final CharPredicate letter = ch -> ch >= 'a' && ch <= 'z';
+    private static final CharClass letterClass = CharClass.range('a', 'z');
+    private static final SearchPattern endPattern = new SearchPattern("----    end");
+    private static final KeywordSet nameKeywords = new KeywordSet("alpha", "bravo", "charlie", "delta", "echo",
+            "foxtrot", "golf", "hotel", "india", "juliett", "kilo", "lima", "mike", "november", "oscar", "papa");
+    private static final TextPattern recordPattern = TextPattern.sequence(TextPattern.of("id="),
+            TextPattern.capture(TextPattern.dec(6, 6)), TextPattern.of(",ts="), TextPattern.capture(TextPattern.dec()),
+            TextPattern.of(",span="), TextPattern.capture(TextPattern.hex(16, 16)), TextPattern.of(",name="),
+            TextPattern.capture(TextPattern.seq(letterClass)));
+    private static final TextPattern generatedRecordPattern = recordPattern.withGeneratedCode();
+    private static final RegularPattern regularRecordPattern = new RegularPattern(TextPattern.sequence(
+            TextPattern.of("id="), TextPattern.dec(6, 6), TextPattern.of(",ts="), TextPattern.dec(),
+            TextPattern.of(",span="), TextPattern.hex(16, 16), TextPattern.of(",name="),
+            TextPattern.seq(letterClass)));
+    private static final Pattern recordRegex =
+            Pattern.compile("id=([0-9]{6}),ts=([0-9]+),span=([0-9a-fA-F]{16}),name=([a-z]+)");
+    private static final String[] names = { "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+            "india", "juliett", "kilo", "lima", "mike", "november", "oscar", "papa" };
+    private static final Map<String, Integer> nameMap = new HashMap<>();
+    private static final Map<TextMatcher.CharSeq, Integer> nameCharSeqMap = new HashMap<>();
+
+    static {
+        for (int i = 0; i < names.length; i++) {
+            nameMap.put(names[i], i);
+            nameCharSeqMap.put(new TextMatcher.CharSeq(names[i]), i);
+        }
+    }
+
+    @Param({ "SHORT", "MEDIUM", "LARGE" })
+    public TestData data;
+
+    private String text;
+    private char[] chars;
+    private StringBuilder builder;
+    private byte[] bytes;
+    private ByteBuffer directBuffer;
+    private Path file;
+    private int[] recordStarts;
+    private String decimals;
+    private String uuids;
+    private String timestamps;
+    private int[] errorOffsets;
+
+    @Setup
+    public void setup() throws IOException {
+        text = data.createText();
+        chars = text.toCharArray();
+        builder = new StringBuilder(text);
+        bytes = text.getBytes(StandardCharsets.UTF_8);
+        directBuffer = ByteBuffer.allocateDirect(bytes.length);
+        directBuffer.put(bytes);
+        directBuffer.flip();
+        file = Files.createTempFile("benchmark", ".txt");
+        Files.write(file, bytes);
+        recordStarts = new int[data.getRecords()];
+        int n = 0;
+        for (int i = 0; i < text.length(); i = text.indexOf('\n', i) + 1)
+            recordStarts[n++] = i;
+        Random random = new Random(data.getRecords());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < data.getRecords(); i++)
+            sb.append(random.nextDouble() * 1000.0).append(',');
+        decimals = sb.toString();
+        sb.setLength(0);
+        for (int i = 0; i < data.getRecords(); i++)
+            sb.append(new UUID(random.nextLong(), random.nextLong())).append(',');
+        uuids = sb.toString();
+        sb.setLength(0);
+        for (int i = 0; i < data.getRecords(); i++)
+            sb.append(Instant.ofEpochMilli(1700000000000L + random.nextInt(Integer.MAX_VALUE))).append(',');
+        timestamps = sb.toString();
+        errorOffsets = new int[64];
+        for (int i = 0; i < errorOffsets.length; i++)
+            errorOffsets[i] = random.nextInt(text.length());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int matchCharSequence() {
+        TextMatcher tm = new TextMatcher(text);
+        int count = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart);
+            if (tm.match("id="))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchSeq() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letter))
+                total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchSeqCharClass() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letterClass))
+                total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void matchSeqGetResult(Blackhole blackhole) {
+        TextMatcher tm = new TextMatcher(text);
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letterClass))
+                blackhole.consume(tm.getResult());
+        }
+    }
+
+    @Benchmark
+    public void matchSeqGetResultInterned(Blackhole blackhole) {
+        TextMatcher tm = new TextMatcher(text);
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letterClass))
+                blackhole.consume(tm.getResultInterned());
+        }
+    }
+
+    @Benchmark
+    public int matchRecordCalls() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart);
+            if (tm.match("id=") && tm.matchDec(6, 6) && tm.match(",ts=") && tm.matchDec() && tm.match(",span=") &&
+                    tm.matchHex(16, 16) && tm.match(",name=") && tm.matchSeq(letterClass))
+                total += tm.getIndex() - recordStart;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchRecordTextPattern() {
+        TextMatcher tm = new TextMatcher(text);
+        int[] captures = new int[recordPattern.getCaptureCount() * 2];
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart);
+            if (tm.match(recordPattern, captures))
+                total += captures[7] - recordStart;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchRecordGeneratedPattern() {
+        TextMatcher tm = new TextMatcher(text);
+        int[] captures = new int[generatedRecordPattern.getCaptureCount() * 2];
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart);
+            if (tm.match(generatedRecordPattern, captures))
+                total += captures[7] - recordStart;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchRecordRegularPattern() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart);
+            if (tm.match(regularRecordPattern))
+                total += tm.getIndex() - recordStart;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchRecordRegex() {
+        Matcher matcher = recordRegex.matcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            matcher.region(recordStart, text.length());
+            if (matcher.lookingAt())
+                total += matcher.end(4) - recordStart;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int getLineColumn() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int errorOffset : errorOffsets)
+            total += tm.getLine(errorOffset) + tm.getColumn(errorOffset);
+        return total;
+    }
+
+    @Benchmark
+    public int getLineColumnRescan() {
+        int total = 0;
+        for (int errorOffset : errorOffsets) {
+            int line = 1;
+            int lineStart = 0;
+            for (int i = 0; i < errorOffset; i++) {
+                if (text.charAt(i) == '\n') {
+                    line++;
+                    lineStart = i + 1;
+                }
+            }
+            total += line + errorOffset - lineStart + 1;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchSeqMapLookup() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letterClass)) {
+                Integer value = nameMap.get(tm.getResult());
+                if (value != null)
+                    total += value;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchSeqMapLookupCharSeq() {
+        TextMatcher tm = new TextMatcher(text);
+        TextMatcher.CharSeq key = new TextMatcher.CharSeq();
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letterClass)) {
+                Integer value = nameCharSeqMap.get(tm.getResultCharSeq(key));
+                if (value != null)
+                    total += value;
+            }
+        }
+        return total;
+    }
+    @Benchmark
+    public int matchSeqHashedMapLookupCharSeq() {
+        TextMatcher tm = new TextMatcher(text);
+        TextMatcher.CharSeq key = new TextMatcher.CharSeq();
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeqHashed(letterClass)) {
+                Integer value = nameCharSeqMap.get(tm.getResultCharSeq(key));
+                if (value != null)
+                    total += value;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchOneOf() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            total += tm.matchOneOf(nameKeywords);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchDec() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + TS_OFFSET);
+            if (tm.matchDec())
+                total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchDecGetResultLong() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + TS_OFFSET);
+            if (tm.matchDec())
+                total += tm.getResultLong();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchLong() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + TS_OFFSET);
+            if (tm.matchLong())
+                total += tm.getMatchedLong();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchDecCharArray() {
+        TextMatcher tm = new TextMatcher(chars, 0, chars.length);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + TS_OFFSET);
+            if (tm.matchDec())
+                total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchDecMixedTypes() {
+        // the same call sites used with String, char[] and StringBuilder text
+        TextMatcher[] matchers = { new TextMatcher(text), new TextMatcher(chars, 0, chars.length),
+                new TextMatcher(builder) };
+        int total = 0;
+        for (TextMatcher tm : matchers) {
+            for (int recordStart : recordStarts) {
+                tm.setIndex(recordStart + TS_OFFSET);
+                if (tm.matchDec())
+                    total += tm.getResultLength();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int matchHex() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + SPAN_OFFSET);
+            if (tm.matchHex())
+                total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchHexGetResultHexLong() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + SPAN_OFFSET);
+            if (tm.matchHex())
+                total ^= tm.getResultHexLong();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchHexLong() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + SPAN_OFFSET);
+            if (tm.matchHexLong())
+                total ^= tm.getMatchedLong();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int skipToChar() {
+        TextMatcher tm = new TextMatcher(text);
+        int count = 0;
+        while (!tm.isAtEnd()) {
+            tm.skipTo('\n');
+            if (tm.match('\n'))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int skip() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            tm.skipTo('-');
+            tm.skip('-');
+            total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int skipCharArray() {
+        TextMatcher tm = new TextMatcher(chars, 0, chars.length);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            tm.skipTo('-');
+            tm.skip('-');
+            total += tm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int skipToCharCharArray() {
+        TextMatcher tm = new TextMatcher(chars, 0, chars.length);
+        int count = 0;
+        while (!tm.isAtEnd()) {
+            tm.skipTo('\n');
+            if (tm.match('\n'))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int skipNonASCII() {
+        TextMatcher tm = new TextMatcher(text);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart);
+            tm.skip('\u2192'); // outside the Character cache, so would allocate if boxed
+            total += tm.getIndex();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int skipToCharSequence() {
+        TextMatcher tm = new TextMatcher(text);
+        int count = 0;
+        while (!tm.isAtEnd()) {
+            tm.skipTo("----    end");
+            if (tm.match("----    end"))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int skipToSearchPattern() {
+        TextMatcher tm = new TextMatcher(text);
+        int count = 0;
+        while (!tm.isAtEnd()) {
+            tm.skipTo(endPattern);
+            if (tm.match("----    end"))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long getInt() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            int from = recordStart + ID_OFFSET;
+            total += tm.getInt(from, from + ID_LENGTH);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long getLong() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            int from = recordStart + TS_OFFSET;
+            total += tm.getLong(from, from + TS_LENGTH);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long tryGetLong() {
+        TextMatcher tm = new TextMatcher(text);
+        NumberResult result = new NumberResult();
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            int from = recordStart + TS_OFFSET;
+            if (tm.tryGetLong(from, from + TS_LENGTH, false, result))
+                total += result.getLong();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long getHexLong() {
+        TextMatcher tm = new TextMatcher(text);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            int from = recordStart + SPAN_OFFSET;
+            total ^= tm.getHexLong(from, from + SPAN_LENGTH);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void getResultCharSeq(Blackhole blackhole) {
+        TextMatcher tm = new TextMatcher(text);
+        for (int recordStart : recordStarts) {
+            tm.setIndex(recordStart + NAME_OFFSET);
+            if (tm.matchSeq(letter))
+                blackhole.consume(tm.getResultCharSeq());
+        }
+    }
+
+    @Benchmark
+    public int matchDecBytes() {
+        ByteMatcher bm = new ByteMatcher(bytes);
+        int total = 0;
+        for (int recordStart : recordStarts) {
+            bm.setIndex(recordStart + TS_OFFSET);
+            if (bm.matchDec())
+                total += bm.getResultLength();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int skipToCharDirectBuffer() {
+        ByteMatcher bm = new ByteMatcher(directBuffer);
+        int count = 0;
+        while (!bm.isAtEnd()) {
+            bm.skipTo('\n');
+            if (bm.match('\n'))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long getLongBytes() {
+        ByteMatcher bm = new ByteMatcher(bytes);
+        long total = 0;
+        for (int recordStart : recordStarts) {
+            int from = recordStart + TS_OFFSET;
+            total += bm.getLong(from, from + TS_LENGTH, false);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int skipToCharMappedFile() throws IOException {
+        try (MappedFileMatcher mfm = new MappedFileMatcher(file)) {
+            int count = 0;
+            while (!mfm.isAtEnd()) {
+                mfm.skipTo('\n');
+                if (mfm.match('\n'))
+                    count++;
+            }
+            return count;
+        }
+    }
+
+    @Benchmark
+    public int skipToCharStream() {
+        StreamMatcher sm = new StreamMatcher(new StringReader(text));
+        int count = 0;
+        while (!sm.isAtEnd()) {
+            sm.skipTo('\n');
+            if (sm.match('\n'))
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public double matchDecimal() {
+        TextMatcher tm = new TextMatcher(decimals);
+        double total = 0;
+        while (tm.matchDecimal()) {
+            total += tm.getResultDouble();
+            tm.match(',');
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double matchDecimalParseDouble() {
+        TextMatcher tm = new TextMatcher(decimals);
+        double total = 0;
+        while (tm.matchDecimal()) {
+            total += Double.parseDouble(tm.getResult());
+            tm.match(',');
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchUUID() {
+        TextMatcher tm = new TextMatcher(uuids);
+        long total = 0;
+        while (tm.matchUUID()) {
+            total ^= tm.getResultUUID().getLeastSignificantBits();
+            tm.match(',');
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchUUIDFromString() {
+        TextMatcher tm = new TextMatcher(uuids);
+        long total = 0;
+        while (tm.matchUUID()) {
+            total ^= UUID.fromString(tm.getResult()).getLeastSignificantBits();
+            tm.match(',');
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchIsoDateTime() {
+        TextMatcher tm = new TextMatcher(timestamps);
+        long total = 0;
+        while (tm.matchIsoDateTime()) {
+            total += tm.getResultEpochMillis();
+            tm.match(',');
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long matchIsoDateTimeInstantParse() {
+        TextMatcher tm = new TextMatcher(timestamps);
+        long total = 0;
+        while (tm.matchIsoDateTime()) {
+            total += Instant.parse(tm.getResult()).toEpochMilli();
+            tm.match(',');
+        }
+        return total;
+    }
+
+}
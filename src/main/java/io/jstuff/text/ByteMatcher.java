@@ -0,0 +1,791 @@
+/*
+ * @(#) ByteMatcher.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A byte matching class to help with parsing ASCII or UTF-8 data, without first decoding the data to a {@link String}.
+ * It provides the same functions as {@link TextMatcher}, but operating on a {@code byte} array or a {@link ByteBuffer}
+ * (which may be a direct buffer).
+ *
+ * <p>Bytes are compared with characters by treating each byte as an unsigned value, so that ASCII characters match
+ * their single-byte UTF-8 encoding; bytes that form part of a multi-byte UTF-8 sequence (values 0x80 and above) will
+ * never match an ASCII character.  {@link CharPredicate} tests are applied to each byte in the same way.  When a match
+ * result is required as a {@link String}, the bytes are decoded as UTF-8.</p>
+ *
+ * <p>The characters to be matched or skipped must be ASCII; the functions that take a target character or string will
+ * throw an {@link IllegalArgumentException} if given a non-ASCII character, since it would otherwise be compared with a
+ * single byte (so that, for example, {@code 'é'} would match the ISO 8859-1 byte 0xE9 but never its UTF-8 encoding).</p>
+ *
+ * <p>A {@code byte} array, or a {@link ByteBuffer} backed by an accessible array, is read directly from the array; only
+ * a direct or read-only {@link ByteBuffer} is read using the buffer functions.</p>
+ *
+ * @author  Peter Wall
+ */
+public class ByteMatcher {
+
+    private ByteBuffer buffer;
+    private byte[] array;
+    private int arrayOffset;
+    private int arrayLength;
+    private int length;
+    private int start;
+    private int index;
+    private final DigitConverter.Source source = i -> byteAt((int)i);
+
+    /**
+     * Construct a {@code ByteMatcher} with the specified {@code byte} array.
+     *
+     * @param   bytes       the array
+     * @throws  NullPointerException    if the array is {@code null}
+     */
+    public ByteMatcher(byte[] bytes) {
+        if (bytes == null)
+            throw new NullPointerException("ByteMatcher data must not be null");
+        setArray(bytes, 0, bytes.length, 0, bytes.length);
+    }
+
+    /**
+     * Construct a {@code ByteMatcher} to match a region of a {@code byte} array.  The start index and the current index
+     * will be set to the start of the region, and the end of the region will be treated as the end of the data.  Offsets
+     * remain relative to the start of the array.
+     *
+     * @param   bytes       the array
+     * @param   from        the start offset of the region
+     * @param   to          the end offset of the region (exclusive)
+     * @throws  NullPointerException        if the array is {@code null}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the start
+     *                                      offset, or the end offset is greater than the length of the array
+     */
+    public ByteMatcher(byte[] bytes, int from, int to) {
+        reset(bytes, from, to);
+    }
+
+    /**
+     * Construct a {@code ByteMatcher} to match the bytes of a {@link ByteBuffer} between the position and the limit.
+     * Offsets are relative to the start of the buffer (as for the absolute {@link ByteBuffer#get(int)} function), and the
+     * position and limit of the buffer are not modified.
+     *
+     * @param   buffer      the {@link ByteBuffer}
+     * @throws  NullPointerException    if the buffer is {@code null}
+     */
+    public ByteMatcher(ByteBuffer buffer) {
+        reset(buffer);
+    }
+
+    /**
+     * Reset the {@code ByteMatcher} to match a region of a new {@code byte} array.
+     *
+     * @param   bytes       the array
+     * @param   from        the start offset of the region
+     * @param   to          the end offset of the region (exclusive)
+     * @throws  NullPointerException        if the array is {@code null}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the start
+     *                                      offset, or the end offset is greater than the length of the array
+     */
+    public void reset(byte[] bytes, int from, int to) {
+        if (bytes == null)
+            throw new NullPointerException("ByteMatcher data must not be null");
+        if (from < 0 || to > bytes.length || to < from)
+            throw new IndexOutOfBoundsException(String.valueOf(from) + ':' + to);
+        setArray(bytes, 0, bytes.length, from, to);
+    }
+
+    /**
+     * Reset the {@code ByteMatcher} to match the bytes of a new {@link ByteBuffer} between the position and the limit.
+     *
+     * @param   buffer      the {@link ByteBuffer}
+     * @throws  NullPointerException    if the buffer is {@code null}
+     */
+    public void reset(ByteBuffer buffer) {
+        if (buffer == null)
+            throw new NullPointerException("ByteMatcher data must not be null");
+        if (buffer.hasArray()) {
+            // match directly from the array behind the buffer
+            setArray(buffer.array(), buffer.arrayOffset(), buffer.limit(), buffer.position(), buffer.limit());
+            this.buffer = buffer;
+        }
+        else {
+            this.buffer = buffer;
+            array = null;
+            setRegion(buffer.position(), buffer.limit());
+        }
+    }
+
+    /**
+     * Get the underlying {@link ByteBuffer}.  If the data was supplied as a {@code byte} array, a {@link ByteBuffer}
+     * wrapping the array will be created on the first call.
+     *
+     * @return      the {@link ByteBuffer}
+     */
+    public ByteBuffer getBuffer() {
+        ByteBuffer buffer = this.buffer;
+        if (buffer == null) {
+            buffer = ByteBuffer.wrap(array);
+            this.buffer = buffer;
+        }
+        return buffer;
+    }
+
+    /**
+     * Get the byte at the nominated index, as an unsigned value.
+     *
+     * @param   index       the index
+     * @return              the byte at that index (0 - 255)
+     * @throws  IndexOutOfBoundsException   if the index is invalid
+     */
+    public int getByte(int index) {
+        return byteAt(index);
+    }
+
+    /**
+     * Get the length of the data (or the end offset of the region, if the {@code ByteMatcher} was created to match a
+     * region of an array or buffer).
+     *
+     * @return              the data length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get the start index (the index of the start of the last matched sequence).
+     *
+     * @return              the start index
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Set the start index.  If the current index is less than the new start index, make them equal.
+     *
+     * @param   start       the new start index
+     * @throws  IndexOutOfBoundsException   if the new start index is less than 0 or greater than the data length
+     */
+    public void setStart(int start) {
+        if (start < 0 || start > length)
+            throw new IndexOutOfBoundsException(String.valueOf(start));
+        this.start = start;
+        if (index < start)
+            index = start;
+    }
+
+    /**
+     * Get the current index (the offset within the data).
+     *
+     * @return              the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the current index.  If the new current index is less than the start index, make them equal.
+     *
+     * @param   index       the new current index
+     * @throws  IndexOutOfBoundsException   if the new current index is less than 0 or greater than the data length
+     */
+    public void setIndex(int index) {
+        if (index < 0 || index > length)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        this.index = index;
+        if (index < start)
+            start = index;
+    }
+
+    /**
+     * Test whether the {@code ByteMatcher} object is exhausted (the index has reached the end of the data).
+     *
+     * @return          {@code true} if the index has reached the end of the data
+     */
+    public boolean isAtEnd() {
+        return index >= length;
+    }
+
+    /**
+     * Undo the effect of the last match operation.
+     */
+    public void revert() {
+        index = start;
+    }
+
+    /**
+     * Match the current byte against a given character.  Following a successful match the start index will point to the
+     * matched byte and the index will be incremented past it.
+     *
+     * @param   ch      the character to match against
+     * @return          {@code true} if the byte matches the given character
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public boolean match(char ch) {
+        checkASCII(ch);
+        if (index >= length || byteAt(index) != ch)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index against a given {@link CharSequence} ({@link String}, {@link StringBuilder} etc.).
+     * Following a successful match the start index will point to the first byte of the matched sequence and the index
+     * will be incremented past it.
+     *
+     * @param target    the target {@link CharSequence}
+     * @return          {@code true} if the bytes at the index match the target
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public boolean match(CharSequence target) {
+        checkASCII(target);
+        int len = target.length();
+        if (index + len > length)
+            return false;
+        int i = index;
+        for (int j = 0; j < len; j++)
+            if (byteAt(i++) != target.charAt(j))
+                return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the current byte using the specified comparison function.  Following a successful match the start index will
+     * point to the matched byte and the index will be incremented past it.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the byte matches using the comparison function
+     */
+    public boolean match(CharPredicate comparison) {
+        if (index >= length || !comparison.test((char)byteAt(index)))
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the current byte against any of the characters in a given {@link String}.  Following a successful match the
+     * start index will point to the matched byte and the index will be incremented past it.
+     *
+     * @param   any     the characters to match against (as a {@link String})
+     * @return          {@code true} if the byte at the index matches any of the characters in the string
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public boolean matchAny(String any) {
+        checkASCII(any);
+        if (index >= length)
+            return false;
+        if (any.indexOf(byteAt(index)) < 0)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a given minimum number of bytes and an
+     * optional maximum.  To match a fixed number of bytes, the maximum and minimum should be set to the same value.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of bytes for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the bytes at the index satisfy the comparison function (subject to the
+     *                      specified minimum and maximum number of bytes)
+     */
+    public boolean matchSeq(int maxChars, int minChars, CharPredicate comparison) {
+        int i = index;
+        int stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
+        while (i < stopper && comparison.test((char)byteAt(i)))
+            i++;
+        if (i - index < minChars)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a minimum of 1 byte and an optional
+     * maximum.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more bytes at the index satisfy the comparison function (subject to
+     *                      the specified maximum number of bytes)
+     */
+    public boolean matchSeq(int maxChars, CharPredicate comparison) {
+        return matchSeq(maxChars, 1, comparison);
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a minimum of 1 byte and no maximum.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more bytes at the index satisfy the comparison function
+     */
+    public boolean matchSeq(CharPredicate comparison) {
+        return matchSeq(0, 1, comparison);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a given minimum number of digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              {@code true} if the bytes at the index are decimal digits (subject to the specified minimum
+     *                      and maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if one or more bytes at the index are decimal digits (subject to the specified
+     *                      maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              {@code true} if one or more bytes at the index are decimal digits
+     */
+    public boolean matchDec() {
+        return matchSeq(0, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a given minimum number of digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              {@code true} if the bytes at the index are hexadecimal digits (subject to the specified
+     *                      minimum and maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if one or more bytes at the index are hexadecimal digits (subject to the
+     *                      specified maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              {@code true} if one or more bytes at the index are hexadecimal digits
+     */
+    public boolean matchHex() {
+        return matchSeq(0, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as a continuation using the specified comparison function, with a given minimum
+     * number of bytes and an optional maximum, but do not set the start index on success, and on fail, set the index
+     * back to the start index (as if the original match had failed).
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of bytes for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the bytes at the index satisfy the comparison function (subject to the
+     *                      specified minimum and maximum number of bytes)
+     */
+    public boolean matchContinue(int maxChars, int minChars, CharPredicate comparison) {
+        int i = index;
+        int stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
+        while (i < stopper && comparison.test((char)byteAt(i)))
+            i++;
+        if (i - index < minChars) {
+            index = start;
+            return false;
+        }
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index as a continuation using the specified comparison function, with no minimum number of
+     * bytes and an optional maximum.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail)
+     */
+    public boolean matchContinue(int maxChars, CharPredicate comparison) {
+        return matchContinue(maxChars, 0, comparison);
+    }
+
+    /**
+     * Match the bytes at the index as a continuation using the specified comparison function, with no minimum or
+     * maximum number of bytes.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail)
+     */
+    public boolean matchContinue(CharPredicate comparison) {
+        return matchContinue(0, 0, comparison);
+    }
+
+    /**
+     * Increment the index past any bytes matching any of the characters in a given string.
+     *
+     * @param   any     the characters to be skipped, as a {@link String}
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public void skipAny(String any) {
+        checkASCII(any);
+        start = index;
+        while (index < length && any.indexOf(byteAt(index)) >= 0)
+            index++;
+    }
+
+    /**
+     * Increment the index past any instances of the given character.
+     *
+     * @param   ch      the character to be skipped
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public void skip(char ch) {
+        checkASCII(ch);
+        int i = index;
+        start = i;
+        while (i < length && byteAt(i) == ch)
+            i++;
+        index = i;
+    }
+
+    /**
+     * Increment the index past any bytes matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     */
+    public void skip(CharPredicate comparison) {
+        start = index;
+        while (index < length && comparison.test((char)byteAt(index)))
+            index++;
+    }
+
+    /**
+     * Increment the index to the next instance of the given character, or to end of the data if character not found.
+     *
+     * @param   ch      the character to be skipped to
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public void skipTo(char ch) {
+        checkASCII(ch);
+        int i = index;
+        start = i;
+        while (i < length && byteAt(i) != ch)
+            i++;
+        index = i;
+    }
+
+    /**
+     * Increment the index to the next instance of the given {@link CharSequence}, or to end of the data if target not
+     * found.
+     *
+     * @param   target  the string to be skipped to
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public void skipTo(CharSequence target) {
+        checkASCII(target);
+        start = index;
+        int targetLength = target.length();
+        if (targetLength == 0)
+            return;
+        char firstChar = target.charAt(0);
+        int stopper = length - targetLength;
+        outer: while (index <= stopper) {
+            if (byteAt(index) == firstChar) {
+                for (int j = 1; j < targetLength; j++)
+                    if (byteAt(index + j) != target.charAt(j)) {
+                        index++;
+                        continue outer;
+                    }
+                return;
+            }
+            index++;
+        }
+        index = length;
+    }
+
+    /**
+     * Increment the index directly to the end of the data.
+     */
+    public void skipToEnd() {
+        start = index;
+        index = length;
+    }
+
+    /**
+     * Increment the index by a fixed amount.
+     *
+     * @param   n       the number of bytes to skip (must be positive)
+     * @throws  IllegalArgumentException if the increment is negative
+     * @throws  IndexOutOfBoundsException if the incremented index is beyond end of data
+     */
+    public void skipFixed(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException(String.valueOf(n));
+        int newIndex = index + n;
+        if (newIndex > length)
+            throw new IndexOutOfBoundsException(String.valueOf(newIndex));
+        start = index;
+        index = newIndex;
+    }
+
+    /**
+     * Get a {@link String} from the data, decoding the bytes as UTF-8.
+     *
+     * @param   start   the start offset
+     * @param   end     the end offset (exclusive)
+     * @return          the {@link String}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the
+     *                                      start offset, or the end offset is greater than the length
+     */
+    public String getString(int start, int end) {
+        if (start < 0 || end > length || end < start)
+            throw new IndexOutOfBoundsException(String.valueOf(start) + ':' + end);
+        if (array != null)
+            return new String(array, arrayOffset + start, end - start, StandardCharsets.UTF_8);
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++)
+            bytes[i - start] = buffer.get(i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}, decoding the bytes as UTF-8.
+     *
+     * @return          the result of the last match
+     */
+    public String getResult() {
+        return getString(start, index);
+    }
+
+    /**
+     * Get the first byte of the result of the last match operation as a character.
+     *
+     * @return          the first byte of the result of the last match
+     * @throws  IndexOutOfBoundsException if the start index at or beyond the end of the data
+     */
+    public char getResultChar() {
+        return (char)byteAt(start);
+    }
+
+    /**
+     * Get the length in bytes of the result of the last match operation.
+     *
+     * @return          the length of the result of the last match
+     */
+    public int getResultLength() {
+        return index - start;
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @return          the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt() {
+        return getInt(start, index, false);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt(boolean negative) {
+        return getInt(start, index, negative);
+    }
+
+    /**
+     * Get a signed {@code int} from the data.
+     *
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the {@code int}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code int}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the data
+     */
+    public int getInt(int from, int to, boolean negative) {
+        return (int)DigitConverter.convertDec(source, from, to, negative, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @return          the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong() {
+        return getLong(start, index, false);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong(boolean negative) {
+        return getLong(start, index, negative);
+    }
+
+    /**
+     * Get a signed {@code long} from the data.
+     *
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the {@code long}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code long}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the data
+     */
+    public long getLong(int from, int to, boolean negative) {
+        return DigitConverter.convertDec(source, from, to, negative, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code int}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultHexInt() {
+        return getHexInt(start, index);
+    }
+
+    /**
+     * Get an unsigned {@code int} from the data, treating the digits as hexadecimal.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the hexadecimal {@code int}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code int}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the data
+     */
+    public int getHexInt(int from, int to) {
+        return (int)DigitConverter.convertHex(source, from, to, 32);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code long}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultHexLong() {
+        return getHexLong(start, index);
+    }
+
+    /**
+     * Get an unsigned {@code long} from the data, treating the digits as hexadecimal.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the hexadecimal {@code long}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code long}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the data
+     */
+    public long getHexLong(int from, int to) {
+        return DigitConverter.convertHex(source, from, to, 64);
+    }
+
+    /**
+     * Check that a character to be compared with bytes is ASCII.
+     *
+     * @param   ch      the character
+     * @return          the character
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    static char checkASCII(char ch) {
+        if (ch >= 0x80)
+            throw new IllegalArgumentException("Non-ASCII character can not be matched against bytes: " + ch);
+        return ch;
+    }
+
+    /**
+     * Check that all the characters of a {@link CharSequence} to be compared with bytes are ASCII.
+     *
+     * @param   chars   the {@link CharSequence}
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    static void checkASCII(CharSequence chars) {
+        for (int i = 0, n = chars.length(); i < n; i++)
+            checkASCII(chars.charAt(i));
+    }
+
+    /**
+     * Get the byte at the given offset as an unsigned value, accessing the array directly where possible, so that the
+     * call sites in the match functions do not become polymorphic when the {@code ByteMatcher} is used with both arrays
+     * and direct buffers.
+     */
+    private int byteAt(int i) {
+        byte[] array = this.array;
+        if (array != null) {
+            if (i < 0 || i >= arrayLength)
+                throw new IndexOutOfBoundsException(String.valueOf(i));
+            return array[arrayOffset + i] & 0xFF;
+        }
+        return buffer.get(i) & 0xFF;
+    }
+
+    private void setArray(byte[] array, int offset, int arrayLength, int from, int to) {
+        // a ByteBuffer wrapping the array is created only when required (see getBuffer())
+        buffer = null;
+        this.array = array;
+        arrayOffset = offset;
+        this.arrayLength = arrayLength;
+        setRegion(from, to);
+    }
+
+    private void setRegion(int from, int to) {
+        length = to;
+        start = from;
+        index = from;
+    }
+
+}
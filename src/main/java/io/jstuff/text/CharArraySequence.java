@@ -0,0 +1,108 @@
+/*
+ * @(#) CharArraySequence.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * A {@link CharSequence} view of a region of a {@code char} array, used by {@link TextMatcher} when an array (or an
+ * array-backed {@link java.nio.CharBuffer}) is to be passed to a function requiring a {@link CharSequence}.  The array
+ * is not copied, so any changes to the array will be reflected in the view.  The view may be re-pointed to a different
+ * array, so that a {@link TextMatcher} that is reset for each of a series of arrays does not need a new view for each.
+ *
+ * @author  Peter Wall
+ */
+final class CharArraySequence implements CharSequence {
+
+    private char[] array;
+    private int offset;
+    private int length;
+
+    /**
+     * Construct a {@code CharArraySequence} with the given array, offset and length.  (Package-local constructor limits
+     * access to this package, and removes necessity to validate parameters.)
+     *
+     * @param   array   the array
+     * @param   offset  the offset within the array of the first character
+     * @param   length  the number of characters
+     */
+    CharArraySequence(char[] array, int offset, int length) {
+        set(array, offset, length);
+    }
+
+    /**
+     * Re-point the {@code CharArraySequence} to the given array, offset and length.
+     *
+     * @param   array   the array
+     * @param   offset  the offset within the array of the first character
+     * @param   length  the number of characters
+     */
+    void set(char[] array, int offset, int length) {
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        return array[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkBounds(start, end);
+        return new CharArraySequence(array, offset + start, end - start);
+    }
+
+    /**
+     * Create a {@link String} from a range of the array.
+     *
+     * @param   start   the start index
+     * @param   end     the end index (exclusive)
+     * @return          the {@link String}
+     * @throws  StringIndexOutOfBoundsException if the start or end index is invalid
+     */
+    String substring(int start, int end) {
+        checkBounds(start, end);
+        return new String(array, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(array, offset, length);
+    }
+
+    private void checkBounds(int start, int end) {
+        if (start < 0 || end > length || end < start)
+            throw new StringIndexOutOfBoundsException(String.valueOf(start) + ':' + end);
+    }
+
+}
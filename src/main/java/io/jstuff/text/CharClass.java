@@ -0,0 +1,342 @@
+/*
+ * @(#) CharClass.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link CharPredicate} representing a fixed set of characters.  ASCII characters are tested using a 128-bit bitmap,
+ * and other characters are tested using a sorted table of character ranges.
+ *
+ * <p>Unlike the default functions of {@link CharPredicate}, the {@code negate}, {@code and} and {@code or} functions of
+ * {@code CharClass}, when combining with another {@code CharClass}, create a new {@code CharClass} with the combined set
+ * of characters, rather than a chain of predicates.  This means that a test of a complex combination is no more
+ * expensive than a test of a simple one.</p>
+ *
+ * @author  Peter Wall
+ */
+public class CharClass implements CharPredicate {
+
+    private static final char[] noRanges = new char[0];
+
+    /** An empty {@code CharClass}. */
+    public static final CharClass NONE = new CharClass(0, 0, noRanges);
+
+    /** A {@code CharClass} containing all characters. */
+    public static final CharClass ALL = new CharClass(-1, -1, new char[] { 0x80, 0xFFFF });
+
+    /** A {@code CharClass} containing the decimal digits. */
+    public static final CharClass DIGITS = range('0', '9');
+
+    /** A {@code CharClass} containing the hexadecimal digits (upper and lower case). */
+    public static final CharClass HEX_DIGITS = range('0', '9').or(range('A', 'F')).or(range('a', 'f'));
+
+    private final long low;
+    private final long high;
+    private final char[] ranges;
+
+    private CharClass(long low, long high, char[] ranges) {
+        this.low = low;
+        this.high = high;
+        this.ranges = ranges;
+    }
+
+    /**
+     * Create a {@code CharClass} containing the characters in a {@link CharSequence}.
+     *
+     * @param   chars   the characters
+     * @return          the {@code CharClass}
+     */
+    public static CharClass of(CharSequence chars) {
+        long low = 0;
+        long high = 0;
+        char[] ranges = noRanges;
+        for (int i = 0, n = chars.length(); i < n; i++) {
+            char ch = chars.charAt(i);
+            if (ch < 64)
+                low |= 1L << ch;
+            else if (ch < 128)
+                high |= 1L << ch;
+            else
+                ranges = union(ranges, new char[] { ch, ch });
+        }
+        return new CharClass(low, high, ranges);
+    }
+
+    /**
+     * Create a {@code CharClass} containing a range of characters.
+     *
+     * @param   from    the first character of the range
+     * @param   to      the last character of the range (inclusive)
+     * @return          the {@code CharClass}
+     * @throws  IllegalArgumentException    if the last character is less than the first
+     */
+    public static CharClass range(char from, char to) {
+        if (to < from)
+            throw new IllegalArgumentException("CharClass range invalid: " + (int)from + ".." + (int)to);
+        long low = 0;
+        long high = 0;
+        for (int ch = from; ch <= to && ch < 128; ch++) {
+            if (ch < 64)
+                low |= 1L << ch;
+            else
+                high |= 1L << ch;
+        }
+        char[] ranges = to < 128 ? noRanges : new char[] { (char)Math.max(from, 128), to };
+        return new CharClass(low, high, ranges);
+    }
+
+    /**
+     * Create a {@code CharClass} containing all the characters for which a {@link CharPredicate} returns {@code true}.
+     * This involves testing every possible {@code char} value, so it should be used only for predicates that are to be
+     * used repeatedly.
+     *
+     * @param   predicate   the {@link CharPredicate}
+     * @return              the {@code CharClass}
+     */
+    public static CharClass of(CharPredicate predicate) {
+        if (predicate instanceof CharClass)
+            return (CharClass)predicate;
+        long low = 0;
+        long high = 0;
+        for (int ch = 0; ch < 128; ch++) {
+            if (predicate.test((char)ch)) {
+                if (ch < 64)
+                    low |= 1L << ch;
+                else
+                    high |= 1L << ch;
+            }
+        }
+        char[] buffer = new char[16];
+        int n = 0;
+        int rangeStart = -1;
+        for (int ch = 128; ch <= 0x10000; ch++) {
+            boolean included = ch < 0x10000 && predicate.test((char)ch);
+            if (included) {
+                if (rangeStart < 0)
+                    rangeStart = ch;
+            }
+            else if (rangeStart >= 0) {
+                if (n + 2 > buffer.length)
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                buffer[n++] = (char)rangeStart;
+                buffer[n++] = (char)(ch - 1);
+                rangeStart = -1;
+            }
+        }
+        return new CharClass(low, high, n == 0 ? noRanges : Arrays.copyOf(buffer, n));
+    }
+
+    /**
+     * Test whether the character is a member of this {@code CharClass}.
+     *
+     * @param   value   the {@code char} value
+     * @return          {@code true} iff the character is a member of the {@code CharClass}
+     */
+    @Override
+    public boolean test(char value) {
+        if (value < 64)
+            return (low & 1L << value) != 0;
+        if (value < 128)
+            return (high & 1L << value) != 0;
+        char[] ranges = this.ranges;
+        int lo = 0;
+        int hi = ranges.length >> 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value < ranges[mid << 1])
+                hi = mid;
+            else if (value > ranges[(mid << 1) + 1])
+                lo = mid + 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the bitmap of members in the range 0 - 63 (for use by generated code).
+     *
+     * @return          the bitmap
+     */
+    long getLowBits() {
+        return low;
+    }
+
+    /**
+     * Get the bitmap of members in the range 64 - 127 (for use by generated code).
+     *
+     * @return          the bitmap
+     */
+    long getHighBits() {
+        return high;
+    }
+
+    /**
+     * Test whether this {@code CharClass} contains any characters outside the ASCII range.
+     *
+     * @return          {@code true} if there are members outside the ASCII range
+     */
+    boolean hasNonAscii() {
+        return ranges.length > 0;
+    }
+
+    /**
+     * Create a {@code CharClass} containing all the characters not in this {@code CharClass}.
+     *
+     * @return          the new {@code CharClass}
+     */
+    @Override
+    public CharClass negate() {
+        return new CharClass(~low, ~high, complement(ranges));
+    }
+
+    /**
+     * Create a composed predicate combining this predicate and another in an AND relationship.  If the other predicate
+     * is a {@code CharClass}, the result will be a {@code CharClass} containing the intersection of the two sets of
+     * characters.
+     *
+     * @param   other   the other {@link CharPredicate}
+     * @return          a predicate that returns {@code true} iff this predicate AND the other predicate match the value
+     */
+    @Override
+    public CharPredicate and(CharPredicate other) {
+        Objects.requireNonNull(other);
+        if (other instanceof CharClass)
+            return and((CharClass)other);
+        return CharPredicate.super.and(other);
+    }
+
+    /**
+     * Create a {@code CharClass} containing the intersection of this {@code CharClass} and another.
+     *
+     * @param   other   the other {@code CharClass}
+     * @return          the new {@code CharClass}
+     */
+    public CharClass and(CharClass other) {
+        return new CharClass(low & other.low, high & other.high, complement(union(complement(ranges),
+                complement(other.ranges))));
+    }
+
+    /**
+     * Create a composed predicate combining this predicate and another in an OR relationship.  If the other predicate
+     * is a {@code CharClass}, the result will be a {@code CharClass} containing the union of the two sets of
+     * characters.
+     *
+     * @param   other   the other {@link CharPredicate}
+     * @return          a predicate that returns {@code true} iff this predicate OR the other predicate match the value
+     */
+    @Override
+    public CharPredicate or(CharPredicate other) {
+        Objects.requireNonNull(other);
+        if (other instanceof CharClass)
+            return or((CharClass)other);
+        return CharPredicate.super.or(other);
+    }
+
+    /**
+     * Create a {@code CharClass} containing the union of this {@code CharClass} and another.
+     *
+     * @param   other   the other {@code CharClass}
+     * @return          the new {@code CharClass}
+     */
+    public CharClass or(CharClass other) {
+        return new CharClass(low | other.low, high | other.high, union(ranges, other.ranges));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof CharClass))
+            return false;
+        CharClass otherClass = (CharClass)other;
+        return low == otherClass.low && high == otherClass.high && Arrays.equals(ranges, otherClass.ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low) ^ Long.hashCode(high) ^ Arrays.hashCode(ranges);
+    }
+
+    /**
+     * Merge two sorted range tables (each consisting of pairs of inclusive start and end characters).
+     */
+    private static char[] union(char[] a, char[] b) {
+        if (a.length == 0)
+            return b;
+        if (b.length == 0)
+            return a;
+        char[] result = new char[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            char from;
+            char to;
+            if (j >= b.length || i < a.length && a[i] <= b[j]) {
+                from = a[i++];
+                to = a[i++];
+            }
+            else {
+                from = b[j++];
+                to = b[j++];
+            }
+            if (n > 0 && from <= result[n - 1] + 1) {
+                if (to > result[n - 1])
+                    result[n - 1] = to;
+            }
+            else {
+                result[n++] = from;
+                result[n++] = to;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Create the complement of a range table, within the non-ASCII character range.
+     */
+    private static char[] complement(char[] ranges) {
+        char[] result = new char[ranges.length + 2];
+        int n = 0;
+        int next = 128;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result[n++] = (char)next;
+                result[n++] = (char)(ranges[i] - 1);
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= 0xFFFF) {
+            result[n++] = (char)next;
+            result[n++] = 0xFFFF;
+        }
+        return n == 0 ? noRanges : n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+}
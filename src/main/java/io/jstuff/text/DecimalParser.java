@@ -0,0 +1,317 @@
+/*
+ * @(#) DecimalParser.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Conversion of decimal numbers (optional sign, integer part, optional fraction and optional exponent) to
+ * {@code double} and {@link BigDecimal}, reading directly from a {@link CharSequence}.
+ *
+ * <p>Conversion to {@code double} uses Clinger's fast path when the significand and the power of ten are both exactly
+ * representable, and otherwise the Eisel-Lemire algorithm (as described in Daniel Lemire, "Number Parsing at a Gigabyte
+ * per Second", 2021).  In the rare cases that algorithm can not decide (subnormal results, values very close to a
+ * half-way point, or more than 19 significant digits where the truncated digits affect the result), the conversion
+ * falls back to {@link Double#parseDouble(String)}.  The result is always correctly rounded.</p>
+ *
+ * @author  Peter Wall
+ */
+final class DecimalParser {
+
+    private static final int MIN_EXPONENT = -342;
+    private static final int MAX_EXPONENT = 308;
+    private static final int MAX_SIGNIFICANT_DIGITS = 19;
+    private static final int MAX_BIG_DECIMAL_DIGITS = 18;
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+    private static final double[] exactPowers = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // 128-bit approximations of the powers of ten from 10^-342 to 10^308, normalised so that the most significant bit
+    // is set (truncated for positive powers, rounded up for negative powers, as in the fast_float library)
+    private static final long[] powersHigh = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] powersLow = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    static {
+        BigInteger five = BigInteger.valueOf(5);
+        BigInteger two127 = BigInteger.ONE.shiftLeft(127);
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger lowMask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+            BigInteger c;
+            if (q < 0) {
+                BigInteger power5 = five.pow(-q);
+                int z = power5.bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0)
+                    c = c.shiftRight(1);
+            }
+            else {
+                c = five.pow(q);
+                while (c.compareTo(two127) < 0)
+                    c = c.shiftLeft(1);
+                while (c.compareTo(two128) >= 0)
+                    c = c.shiftRight(1);
+            }
+            powersHigh[q - MIN_EXPONENT] = c.shiftRight(64).longValue();
+            powersLow[q - MIN_EXPONENT] = c.and(lowMask).longValue();
+        }
+    }
+
+    private DecimalParser() {
+    }
+
+    /**
+     * Find the end of a decimal number starting at the given index: an optional sign, one or more digits, optionally a
+     * decimal point followed by one or more digits, and optionally {@code e} or {@code E}, an optional sign and one or
+     * more digits.
+     *
+     * @param   text    the text
+     * @param   from    the start index
+     * @param   to      the end of the text
+     * @return          the index following the number, or -1 if there is no number at the start index
+     */
+    static int scan(CharSequence text, int from, int to) {
+        int i = from;
+        if (i < to && isSign(text.charAt(i)))
+            i++;
+        int digitsStart = i;
+        while (i < to && TextMatcher.isDigit(text.charAt(i)))
+            i++;
+        if (i == digitsStart)
+            return -1;
+        if (i + 1 < to && text.charAt(i) == '.' && TextMatcher.isDigit(text.charAt(i + 1))) {
+            i += 2;
+            while (i < to && TextMatcher.isDigit(text.charAt(i)))
+                i++;
+        }
+        if (i + 1 < to && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            int j = i + 1;
+            if (isSign(text.charAt(j)))
+                j++;
+            if (j < to && TextMatcher.isDigit(text.charAt(j))) {
+                i = j + 1;
+                while (i < to && TextMatcher.isDigit(text.charAt(i)))
+                    i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Convert a decimal number to a {@code double}.
+     *
+     * @param   text    the text
+     * @param   from    the start index
+     * @param   to      the end index (exclusive)
+     * @return          the {@code double} value
+     * @throws  NumberFormatException   if the characters do not form a valid decimal number
+     */
+    static double parseDouble(CharSequence text, int from, int to) {
+        if (scan(text, from, to) != to)
+            throw new NumberFormatException("Illegal decimal number");
+        int i = from;
+        boolean negative = false;
+        char ch = text.charAt(i);
+        if (isSign(ch)) {
+            negative = ch == '-';
+            i++;
+        }
+        long significand = 0; // unsigned: 19 digits may exceed Long.MAX_VALUE
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            ch = text.charAt(i);
+            if (ch == '.') {
+                fraction = true;
+                continue;
+            }
+            if (ch == 'e' || ch == 'E')
+                break;
+            int digit = ch - '0';
+            if (digits < MAX_SIGNIFICANT_DIGITS) {
+                if (significand != 0 || digit != 0) {
+                    significand = significand * 10 + digit;
+                    digits++;
+                }
+                if (fraction)
+                    exponent--;
+            }
+            else {
+                if (digit != 0)
+                    truncated = true;
+                if (!fraction)
+                    exponent++;
+            }
+        }
+        if (i < to) {
+            ch = text.charAt(++i);
+            boolean negativeExponent = ch == '-';
+            if (isSign(ch))
+                i++;
+            int explicitExponent = 0;
+            for (; i < to; i++)
+                if (explicitExponent < 100000)
+                    explicitExponent = explicitExponent * 10 + text.charAt(i) - '0';
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (!truncated && significand >= 0 && significand <= MAX_EXACT_SIGNIFICAND && exponent >= -22 &&
+                exponent <= 22) {
+            double d = (double)significand;
+            d = exponent < 0 ? d / exactPowers[-exponent] : d * exactPowers[exponent];
+            return negative ? -d : d;
+        }
+        double d = eiselLemire(significand, exponent, negative);
+        if (truncated && !Double.isNaN(d) && d != eiselLemire(significand + 1, exponent, negative))
+            d = Double.NaN;
+        return Double.isNaN(d) ? Double.parseDouble(text.subSequence(from, to).toString()) : d;
+    }
+
+    /**
+     * Convert a decimal number to a {@link BigDecimal}.  The scale of the result is the same as would be produced by
+     * {@link BigDecimal#BigDecimal(String)}.
+     *
+     * @param   text    the text
+     * @param   from    the start index
+     * @param   to      the end index (exclusive)
+     * @return          the {@link BigDecimal}
+     * @throws  NumberFormatException   if the characters do not form a valid decimal number
+     */
+    static BigDecimal parseBigDecimal(CharSequence text, int from, int to) {
+        if (scan(text, from, to) != to)
+            throw new NumberFormatException("Illegal decimal number");
+        int i = from;
+        boolean negative = false;
+        char ch = text.charAt(i);
+        if (isSign(ch)) {
+            negative = ch == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            ch = text.charAt(i);
+            if (ch == '.') {
+                fraction = true;
+                continue;
+            }
+            if (ch == 'e' || ch == 'E')
+                break;
+            if (unscaled != 0 || ch != '0')
+                digits++;
+            unscaled = unscaled * 10 + ch - '0';
+            if (fraction)
+                scale++;
+        }
+        if (digits > MAX_BIG_DECIMAL_DIGITS || i < to && to - i > 6)
+            return new BigDecimal(text.subSequence(from, to).toString());
+        if (i < to) {
+            ch = text.charAt(++i);
+            boolean negativeExponent = ch == '-';
+            if (isSign(ch))
+                i++;
+            int explicitExponent = 0;
+            for (; i < to; i++)
+                explicitExponent = explicitExponent * 10 + text.charAt(i) - '0';
+            scale += negativeExponent ? explicitExponent : -explicitExponent;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    /**
+     * Convert a significand and a power of ten to a {@code double} using the Eisel-Lemire algorithm.
+     *
+     * @param   significand the significand (treated as unsigned)
+     * @param   exponent    the power of ten
+     * @param   negative    {@code true} if the result is to be negative
+     * @return              the {@code double}, or {@link Double#NaN} if the algorithm can not determine the result
+     */
+    static double eiselLemire(long significand, int exponent, boolean negative) {
+        if (significand == 0 || exponent < MIN_EXPONENT)
+            return negative ? -0.0 : 0.0;
+        if (exponent > MAX_EXPONENT)
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        int leadingZeros = Long.numberOfLeadingZeros(significand);
+        long w = significand << leadingZeros;
+        long resultExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+        long powerHigh = powersHigh[exponent - MIN_EXPONENT];
+        long high = multiplyHigh(w, powerHigh);
+        long low = w * powerHigh;
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + w, w) < 0) {
+            long powerLow = powersLow[exponent - MIN_EXPONENT];
+            long high2 = multiplyHigh(w, powerLow);
+            long low2 = w * powerLow;
+            long mergedLow = low + high2;
+            if (Long.compareUnsigned(mergedLow, low) < 0)
+                high++;
+            if ((high & 0x1FF) == 0x1FF && mergedLow + 1 == 0 && Long.compareUnsigned(low2 + w, w) < 0)
+                return Double.NaN;
+            low = mergedLow;
+        }
+        int upperBit = (int)(high >>> 63);
+        long mantissa = high >>> (upperBit + 9);
+        resultExponent -= 1 ^ upperBit;
+        if (low == 0 && (high & 0x1FF) == 0 && (mantissa & 3) == 1)
+            return Double.NaN;
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >>> 53 != 0) {
+            mantissa >>>= 1;
+            resultExponent++;
+        }
+        if (resultExponent <= 0 || resultExponent >= 0x7FF)
+            return Double.NaN;
+        long bits = resultExponent << 52 | mantissa & 0x000FFFFFFFFFFFFFL;
+        if (negative)
+            bits |= Long.MIN_VALUE;
+        return Double.longBitsToDouble(bits);
+    }
+
+    static long multiplyHigh(long x, long y) {
+        // unsigned 64 x 64 bit multiplication, returning the high-order 64 bits (Math.unsignedMultiplyHigh() requires
+        // Java 18)
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + (x0 * y0 >>> 32) + (p01 & 0xFFFFFFFFL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    private static boolean isSign(char ch) {
+        return ch == '-' || ch == '+';
+    }
+
+}
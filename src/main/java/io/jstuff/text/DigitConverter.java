@@ -0,0 +1,111 @@
+/*
+ * @(#) DigitConverter.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * Conversion of decimal and hexadecimal digits to {@code int} and {@code long} values, shared by the matchers that do
+ * not read their data from a {@link CharSequence} ({@link ByteMatcher}, {@link MappedFileMatcher},
+ * {@link StreamMatcher} and {@link IncrementalMatcher}).  Each matcher supplies its data as a {@link Source}, giving
+ * the byte or character at a given offset.
+ *
+ * @author  Peter Wall
+ */
+final class DigitConverter {
+
+    private DigitConverter() {}
+
+    /**
+     * A source of the bytes or characters to be converted.
+     */
+    interface Source {
+
+        /**
+         * Get the byte (as an unsigned value) or character at the given offset.
+         *
+         * @param   index   the offset
+         * @return          the byte or character
+         */
+        int get(long index);
+
+    }
+
+    /**
+     * Convert a range of decimal digits to a {@code long}, checking that the result is within the range of a type with
+     * the given maximum value.
+     *
+     * @param   source      the source of the digits
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @param   max         the maximum positive value ({@link Integer#MAX_VALUE} or {@link Long#MAX_VALUE})
+     * @return              the value
+     * @throws  NumberFormatException   if the range is empty, contains a character that is not a decimal digit, or
+     *                                  describes a value outside the range of the type
+     */
+    static long convertDec(Source source, long from, long to, boolean negative, long max) {
+        if (to <= from)
+            throw new NumberFormatException();
+        // accumulate as a negative number, as in Long.parseLong(), so that the minimum value can be represented
+        long limit = negative ? -max - 1 : -max;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (long i = from; i < to; i++) {
+            int digit = TextMatcher.convertDecDigit((char)source.get(i));
+            if (result < multiplyLimit)
+                throw new NumberFormatException();
+            result *= 10;
+            if (result < limit + digit)
+                throw new NumberFormatException();
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Convert a range of hexadecimal digits to an unsigned value of the given number of bits.
+     *
+     * @param   source      the source of the digits
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   bits        the number of bits in the result (32 or 64)
+     * @return              the value
+     * @throws  NumberFormatException   if the range is empty, contains a character that is not a hexadecimal digit,
+     *                                  or describes a value too large for the number of bits
+     */
+    static long convertHex(Source source, long from, long to, int bits) {
+        if (to <= from)
+            throw new NumberFormatException();
+        int shift = bits - 4;
+        long result = TextMatcher.convertHexDigit((char)source.get(from));
+        for (long i = from + 1; i < to; i++) {
+            if (result >>> shift != 0)
+                throw new NumberFormatException();
+            result = result << 4 | TextMatcher.convertHexDigit((char)source.get(i));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,614 @@
+/*
+ * @(#) IncrementalMatcher.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A non-blocking byte matching class, for parsing ASCII or UTF-8 data as it arrives (for example, from a non-blocking
+ * channel in an event loop).  Input is supplied in blocks using the {@code feed} functions, and the match and skip
+ * operations return a {@link MatchResult}, which will be {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT} if the
+ * outcome of the operation depends on input not yet received.  In that case the start index and the current index are
+ * unchanged (except as noted for the skip functions), so the operation may simply be repeated when more input has been
+ * supplied.  When no more input will be supplied, the {@link #endOfInput()} function should be called; after that, no
+ * operation will return {@code NEED_MORE_INPUT}.
+ *
+ * <p>Bytes are compared with characters as in {@link ByteMatcher}.  Input preceding the start index is discarded when
+ * more input is supplied, and the skip functions advance the indices past the bytes they have searched even when they
+ * need more input, so the memory used depends on the size of the largest token, not the size of the whole message.</p>
+ *
+ * <p>Offsets are {@code long} values relative to the start of the input.</p>
+ *
+ * @author  Peter Wall
+ */
+public class IncrementalMatcher {
+
+    /** The default initial size of the input buffer, in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private byte[] buffer;
+    private long offset;
+    private int count;
+    private boolean ended;
+    private long start;
+    private long index;
+    private final DigitConverter.Source source = this::byteAt;
+
+    /**
+     * Construct an {@code IncrementalMatcher} with the default initial buffer size.
+     */
+    public IncrementalMatcher() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Construct an {@code IncrementalMatcher} with the specified initial buffer size.
+     *
+     * @param   bufferSize  the initial buffer size
+     * @throws  IllegalArgumentException    if the buffer size is less than 1
+     */
+    public IncrementalMatcher(int bufferSize) {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+        buffer = new byte[bufferSize];
+        offset = 0;
+        count = 0;
+        ended = false;
+        start = 0;
+        index = 0;
+    }
+
+    /**
+     * Supply more input, in the form of the remaining bytes of a {@link ByteBuffer} (heap or direct).  All the remaining
+     * bytes are consumed (the position of the buffer is advanced to the limit).
+     *
+     * @param   input       the {@link ByteBuffer}
+     * @throws  IllegalStateException   if {@link #endOfInput()} has been called
+     */
+    public void feed(ByteBuffer input) {
+        int n = input.remaining();
+        makeRoom(n);
+        input.get(buffer, count, n);
+        count += n;
+    }
+
+    /**
+     * Supply more input, in the form of a region of a {@code byte} array.
+     *
+     * @param   bytes       the array
+     * @param   from        the start offset of the region
+     * @param   to          the end offset of the region (exclusive)
+     * @throws  IllegalStateException       if {@link #endOfInput()} has been called
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the start
+     *                                      offset, or the end offset is greater than the length of the array
+     */
+    public void feed(byte[] bytes, int from, int to) {
+        if (from < 0 || to > bytes.length || to < from)
+            throw new IndexOutOfBoundsException(String.valueOf(from) + ':' + to);
+        int n = to - from;
+        makeRoom(n);
+        System.arraycopy(bytes, from, buffer, count, n);
+        count += n;
+    }
+
+    /**
+     * Indicate that no more input will be supplied.
+     */
+    public void endOfInput() {
+        ended = true;
+    }
+
+    /**
+     * Test whether {@link #endOfInput()} has been called.
+     *
+     * @return          {@code true} if no more input will be supplied
+     */
+    public boolean isEndOfInput() {
+        return ended;
+    }
+
+    /**
+     * Test whether the {@code IncrementalMatcher} object is exhausted (the index has reached the end of the input, and
+     * no more input will be supplied).
+     *
+     * @return          {@code true} if the index has reached the end of the input
+     */
+    public boolean isAtEnd() {
+        return ended && index >= offset + count;
+    }
+
+    /**
+     * Get the number of bytes available following the current index.
+     *
+     * @return          the number of bytes available
+     */
+    public int getAvailable() {
+        return (int)(offset + count - index);
+    }
+
+    /**
+     * Get the offset of the oldest byte retained in the buffer.
+     *
+     * @return              the offset of the oldest retained byte
+     */
+    public long getBufferOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the current size of the buffer.
+     *
+     * @return              the buffer size
+     */
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    /**
+     * Get the start index (the index of the start of the last matched sequence).
+     *
+     * @return              the start index
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Get the current index (the offset within the input).
+     *
+     * @return              the index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Undo the effect of the last match operation.
+     */
+    public void revert() {
+        index = start;
+    }
+
+    /**
+     * Match the current byte against a given character.  Following a successful match the start index will point to the
+     * matched byte and the index will be incremented past it.
+     *
+     * @param   ch      the character to match against
+     * @return          the result of the match
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public MatchResult match(char ch) {
+        ByteMatcher.checkASCII(ch);
+        if (index >= offset + count)
+            return needMore();
+        if (byteAt(index) != ch)
+            return MatchResult.NO_MATCH;
+        start = index++;
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Match the bytes at the index against a given {@link CharSequence} ({@link String}, {@link StringBuilder} etc.).
+     * If the bytes available match the first part of the target, the result will be
+     * {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT}.  Following a successful match the start index will point to
+     * the first byte of the matched sequence and the index will be incremented past it.
+     *
+     * @param target    the target {@link CharSequence}
+     * @return          the result of the match
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public MatchResult match(CharSequence target) {
+        ByteMatcher.checkASCII(target);
+        int len = target.length();
+        long end = offset + count;
+        long i = index;
+        for (int j = 0; j < len; j++) {
+            if (i >= end)
+                return needMore();
+            if (byteAt(i++) != target.charAt(j))
+                return MatchResult.NO_MATCH;
+        }
+        start = index;
+        index = i;
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Match the current byte using the specified comparison function.  Following a successful match the start index will
+     * point to the matched byte and the index will be incremented past it.
+     *
+     * @param   comparison  the comparison function
+     * @return              the result of the match
+     */
+    public MatchResult match(CharPredicate comparison) {
+        if (index >= offset + count)
+            return needMore();
+        if (!comparison.test((char)byteAt(index)))
+            return MatchResult.NO_MATCH;
+        start = index++;
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Match the current byte against any of the characters in a given {@link String}.  Following a successful match the
+     * start index will point to the matched byte and the index will be incremented past it.
+     *
+     * @param   any     the characters to match against (as a {@link String})
+     * @return          the result of the match
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public MatchResult matchAny(String any) {
+        ByteMatcher.checkASCII(any);
+        if (index >= offset + count)
+            return needMore();
+        if (any.indexOf(byteAt(index)) < 0)
+            return MatchResult.NO_MATCH;
+        start = index++;
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a given minimum number of bytes and an
+     * optional maximum.  If all the bytes available satisfy the comparison function and the maximum has not been
+     * reached, the result will be {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT}, because the sequence may continue
+     * in the input not yet received.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of bytes for a successful match
+     * @param   comparison  the comparison function
+     * @return              the result of the match
+     */
+    public MatchResult matchSeq(int maxChars, int minChars, CharPredicate comparison) {
+        long end = offset + count;
+        long i = index;
+        long stopper = maxChars > 0 ? Math.min(end, i + maxChars) : end;
+        while (i < stopper && comparison.test((char)byteAt(i)))
+            i++;
+        if (i == end && (maxChars <= 0 || i - index < maxChars) && !ended)
+            return MatchResult.NEED_MORE_INPUT;
+        if (i - index < minChars)
+            return MatchResult.NO_MATCH;
+        start = index;
+        index = i;
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a minimum of 1 byte and an optional
+     * maximum.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              the result of the match
+     */
+    public MatchResult matchSeq(int maxChars, CharPredicate comparison) {
+        return matchSeq(maxChars, 1, comparison);
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a minimum of 1 byte and no maximum.
+     *
+     * @param   comparison  the comparison function
+     * @return              the result of the match
+     */
+    public MatchResult matchSeq(CharPredicate comparison) {
+        return matchSeq(0, 1, comparison);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a given minimum number of digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              the result of the match
+     */
+    public MatchResult matchDec(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              the result of the match
+     */
+    public MatchResult matchDec(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              the result of the match
+     */
+    public MatchResult matchDec() {
+        return matchSeq(0, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a given minimum number of digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              the result of the match
+     */
+    public MatchResult matchHex(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              the result of the match
+     */
+    public MatchResult matchHex(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              the result of the match
+     */
+    public MatchResult matchHex() {
+        return matchSeq(0, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Increment the index past any instances of the given character.  The index is advanced even if the result is
+     * {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT} (the skipped bytes need not be retained), so the operation may
+     * be repeated when more input has been supplied.
+     *
+     * @param   ch      the character to be skipped
+     * @return          {@link MatchResult#MATCH MATCH} if a byte other than the specified character follows the skipped
+     *                  bytes, or the end of the input has been reached
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public MatchResult skip(char ch) {
+        ByteMatcher.checkASCII(ch);
+        long end = offset + count;
+        start = index;
+        while (index < end && byteAt(index) == ch)
+            index++;
+        return index < end || ended ? MatchResult.MATCH : MatchResult.NEED_MORE_INPUT;
+    }
+
+    /**
+     * Increment the index past any bytes matching a given comparison function.  The index is advanced even if the
+     * result is {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT}, as for {@link #skip(char)}.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@link MatchResult#MATCH MATCH} if a byte not matching the comparison function follows the
+     *                      skipped bytes, or the end of the input has been reached
+     */
+    public MatchResult skip(CharPredicate comparison) {
+        long end = offset + count;
+        start = index;
+        while (index < end && comparison.test((char)byteAt(index)))
+            index++;
+        return index < end || ended ? MatchResult.MATCH : MatchResult.NEED_MORE_INPUT;
+    }
+
+    /**
+     * Increment the index to the next instance of the given character.  If the character is not found in the input
+     * available, the index is advanced to the end of the input and the result will be
+     * {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT}, as for {@link #skip(char)}, so that the bytes searched need
+     * not be retained and a repeated call will resume the search where the previous one stopped; if no more input will
+     * be supplied, the result will be {@link MatchResult#NO_MATCH NO_MATCH} (and the indices are not changed).  Since
+     * the start index is set to the index at the start of each call, the result of a {@link MatchResult#MATCH MATCH}
+     * covers only the bytes skipped by the final call; to match a token terminated by a given character, use
+     * {@link #matchSeq(CharPredicate)}.
+     *
+     * @param   ch      the character to be skipped to
+     * @return          the result of the operation
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public MatchResult skipTo(char ch) {
+        ByteMatcher.checkASCII(ch);
+        long end = offset + count;
+        long i = index;
+        while (i < end && byteAt(i) != ch)
+            i++;
+        return skipped(i, i < end);
+    }
+
+    /**
+     * Increment the index to the next instance of the given {@link CharSequence}.  If the target is not found in the
+     * input available, the index is advanced to the end of the input (or to the start of any partial match of the
+     * target at the end of the input) and the result will be {@link MatchResult#NEED_MORE_INPUT NEED_MORE_INPUT}, as for
+     * {@link #skipTo(char)}; if no more input will be supplied, the result will be {@link MatchResult#NO_MATCH NO_MATCH}
+     * (and the indices are not changed).
+     *
+     * @param   target  the string to be skipped to
+     * @return          the result of the operation
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public MatchResult skipTo(CharSequence target) {
+        ByteMatcher.checkASCII(target);
+        int targetLength = target.length();
+        if (targetLength == 0)
+            return skipped(index, true);
+        char firstChar = target.charAt(0);
+        long end = offset + count;
+        long i = index;
+        outer: for (; i < end; i++) {
+            if (byteAt(i) == firstChar) {
+                for (int j = 1; j < targetLength; j++) {
+                    if (i + j >= end)
+                        break outer; // a partial match at i; resume from here when more input arrives
+                    if (byteAt(i + j) != target.charAt(j))
+                        continue outer;
+                }
+                return skipped(i, true);
+            }
+        }
+        return skipped(i, false);
+    }
+
+    /**
+     * Increment the index by a fixed amount.
+     *
+     * @param   n       the number of bytes to skip (must be positive)
+     * @return          the result of the operation
+     * @throws  IllegalArgumentException if the increment is negative
+     */
+    public MatchResult skipFixed(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException(String.valueOf(n));
+        if (index + n > offset + count)
+            return needMore();
+        start = index;
+        index += n;
+        return MatchResult.MATCH;
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}, decoding the bytes as UTF-8.
+     *
+     * @return          the result of the last match
+     */
+    public String getResult() {
+        return new String(buffer, (int)(start - offset), (int)(index - start), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the first byte of the result of the last match operation as a character.
+     *
+     * @return          the first byte of the result of the last match
+     * @throws  IndexOutOfBoundsException if the start index at or beyond the end of the input
+     */
+    public char getResultChar() {
+        if (start >= offset + count)
+            throw new IndexOutOfBoundsException(String.valueOf(start));
+        return (char)byteAt(start);
+    }
+
+    /**
+     * Get the length in bytes of the result of the last match operation.
+     *
+     * @return          the length of the result of the last match
+     */
+    public int getResultLength() {
+        return (int)(index - start);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @return          the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt() {
+        return getResultInt(false);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt(boolean negative) {
+        return (int)DigitConverter.convertDec(source, start, index, negative, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @return          the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong() {
+        return getResultLong(false);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong(boolean negative) {
+        return DigitConverter.convertDec(source, start, index, negative, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code int}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultHexInt() {
+        return (int)DigitConverter.convertHex(source, start, index, 32);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code long}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultHexLong() {
+        return DigitConverter.convertHex(source, start, index, 64);
+    }
+
+    private int byteAt(long i) {
+        return buffer[(int)(i - offset)] & 0xFF;
+    }
+
+    private MatchResult skipped(long i, boolean found) {
+        if (!found && ended)
+            return MatchResult.NO_MATCH;
+        // the index is advanced even if the target has not been found, so that the bytes searched may be discarded
+        start = index;
+        index = i;
+        return found ? MatchResult.MATCH : MatchResult.NEED_MORE_INPUT;
+    }
+
+    private MatchResult needMore() {
+        return ended ? MatchResult.NO_MATCH : MatchResult.NEED_MORE_INPUT;
+    }
+
+    private void makeRoom(int n) {
+        if (ended)
+            throw new IllegalStateException("Input has ended");
+        int discard = (int)(start - offset);
+        if (discard > 0) {
+            System.arraycopy(buffer, discard, buffer, 0, count - discard);
+            offset = start;
+            count -= discard;
+        }
+        int required = count + n;
+        if (required > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+    }
+
+}
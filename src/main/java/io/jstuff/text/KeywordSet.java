@@ -0,0 +1,311 @@
+/*
+ * @(#) KeywordSet.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A compiled set of keywords, for use with the {@link TextMatcher#matchOneOf(KeywordSet)} and
+ * {@link TextMatcher#skipToAny(KeywordSet)} functions.  Each keyword is identified by its position in the list supplied
+ * to the constructor (the keyword id).
+ *
+ * <p>The keywords are compiled into an Aho-Corasick automaton, so that the text is examined only once, regardless of
+ * the number of keywords.  Transitions on ASCII characters use a table indexed by state and character; transitions on
+ * other characters are looked up in a sorted list for each state.  The object is immutable, and may be shared between
+ * threads.</p>
+ *
+ * @author  Peter Wall
+ */
+public class KeywordSet {
+
+    private static final int ASCII_BITS = 7;
+    private static final int ASCII_SIZE = 1 << ASCII_BITS;
+
+    private final String[] keywords;
+    private final int maxLength;
+    private final int[] asciiTable;
+    private final char[][] otherChars;
+    private final int[][] otherStates;
+    private final int[] failure;
+    private final int[] depth;
+    private final int[] keywordAt;
+    private final int[] outputLink;
+
+    /**
+     * Construct a {@code KeywordSet} from a list of keywords.
+     *
+     * @param   keywords    the keywords
+     * @throws  NullPointerException        if any of the keywords is {@code null}
+     * @throws  IllegalArgumentException    if any of the keywords is empty or duplicated
+     */
+    public KeywordSet(String ... keywords) {
+        this.keywords = keywords.clone();
+        List<Node> nodes = new ArrayList<>();
+        Node root = new Node(0, 0);
+        nodes.add(root);
+        int max = 0;
+        for (int i = 0; i < keywords.length; i++) {
+            String keyword = keywords[i];
+            if (keyword == null)
+                throw new NullPointerException("KeywordSet keyword must not be null");
+            int length = keyword.length();
+            if (length == 0)
+                throw new IllegalArgumentException("KeywordSet keyword must not be empty");
+            Node node = root;
+            for (int j = 0; j < length; j++) {
+                char ch = keyword.charAt(j);
+                Node child = node.children.get(ch);
+                if (child == null) {
+                    child = new Node(nodes.size(), j + 1);
+                    nodes.add(child);
+                    node.children.put(ch, child);
+                }
+                node = child;
+            }
+            if (node.keyword >= 0)
+                throw new IllegalArgumentException("KeywordSet duplicate keyword: " + keyword);
+            node.keyword = i;
+            if (length > max)
+                max = length;
+        }
+        maxLength = max;
+        int n = nodes.size();
+        asciiTable = new int[n << ASCII_BITS];
+        otherChars = new char[n][];
+        otherStates = new int[n][];
+        failure = new int[n];
+        depth = new int[n];
+        keywordAt = new int[n];
+        outputLink = new int[n];
+        for (Node node : nodes) {
+            int state = node.state;
+            depth[state] = node.depth;
+            keywordAt[state] = node.keyword;
+            int others = 0;
+            for (char ch : node.children.keySet())
+                if (ch >= ASCII_SIZE)
+                    others++;
+            if (others > 0) {
+                char[] chars = new char[others];
+                int[] states = new int[others];
+                int k = 0;
+                for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                    char ch = entry.getKey();
+                    if (ch >= ASCII_SIZE) {
+                        chars[k] = ch;
+                        states[k++] = entry.getValue().state;
+                    }
+                }
+                otherChars[state] = chars;
+                otherStates[state] = states;
+            }
+        }
+        // breadth-first traversal ensures that failure states are complete before they are used
+        outputLink[0] = -1;
+        for (int ch = 0; ch < ASCII_SIZE; ch++) {
+            Node child = root.children.get((char)ch);
+            asciiTable[ch] = child == null ? 0 : child.state;
+        }
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            failure[child.state] = 0;
+            outputLink[child.state] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            int state = node.state;
+            int fail = failure[state];
+            for (int ch = 0; ch < ASCII_SIZE; ch++) {
+                Node child = node.children.get((char)ch);
+                asciiTable[state << ASCII_BITS | ch] = child == null ? asciiTable[fail << ASCII_BITS | ch] :
+                        child.state;
+            }
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                int childFail = transition(fail, entry.getKey());
+                failure[child.state] = childFail;
+                outputLink[child.state] = keywordAt[childFail] >= 0 ? childFail : outputLink[childFail];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Get the number of keywords.
+     *
+     * @return      the number of keywords
+     */
+    public int getSize() {
+        return keywords.length;
+    }
+
+    /**
+     * Get the keyword with the given id.
+     *
+     * @param   id      the keyword id
+     * @return          the keyword
+     * @throws  IndexOutOfBoundsException   if the id is invalid
+     */
+    public String getKeyword(int id) {
+        return keywords[id];
+    }
+
+    /**
+     * Get the length of the longest keyword.
+     *
+     * @return      the maximum keyword length
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Find the longest keyword that matches the text at the given offset.
+     *
+     * @param   text    the text
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the keyword id, or -1 if no keyword matches
+     */
+    int matchAt(CharSequence text, int from, int to) {
+        int[] asciiTable = this.asciiTable;
+        int[] depth = this.depth;
+        int state = 0;
+        int result = -1;
+        for (int i = from; i < to; i++) {
+            char ch = text.charAt(i);
+            int next;
+            if (ch < ASCII_SIZE) {
+                // the table includes transitions derived from the failure function; only a transition to a state one
+                // level deeper is a direct continuation of the current prefix
+                next = asciiTable[state << ASCII_BITS | ch];
+                if (depth[next] != depth[state] + 1)
+                    break;
+            }
+            else {
+                next = directTransition(state, ch);
+                if (next < 0)
+                    break;
+            }
+            state = next;
+            if (keywordAt[state] >= 0)
+                result = keywordAt[state];
+        }
+        return result;
+    }
+
+    /**
+     * Find the earliest occurrence of any of the keywords in the text.  If more than one keyword starts at the earliest
+     * offset, the longest is selected.  The result is returned as a {@code long}, with the offset in the high-order 32
+     * bits and the keyword id in the low-order 32 bits.
+     *
+     * @param   text    the text
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the combined offset and keyword id, or -1 if no keyword found
+     */
+    long find(CharSequence text, int from, int to) {
+        int[] asciiTable = this.asciiTable;
+        int[] keywordAt = this.keywordAt;
+        int[] outputLink = this.outputLink;
+        int state = 0;
+        int bestStart = -1;
+        int bestId = -1;
+        for (int i = from; i < to; i++) {
+            char ch = text.charAt(i);
+            state = ch < ASCII_SIZE ? asciiTable[state << ASCII_BITS | ch] : transition(state, ch);
+            // the longest keyword ending at this point will have the earliest start
+            int output = keywordAt[state] >= 0 ? state : outputLink[state];
+            if (output > 0) {
+                int id = keywordAt[output];
+                int keywordStart = i + 1 - keywords[id].length();
+                if (bestId < 0 || keywordStart <= bestStart) {
+                    bestStart = keywordStart;
+                    bestId = id;
+                }
+            }
+            // no keyword ending after this point can start earlier than the best so far
+            if (bestId >= 0 && i + 1 - bestStart >= maxLength)
+                break;
+        }
+        return bestId < 0 ? -1 : (long)bestStart << 32 | bestId;
+    }
+
+    private int transition(int state, char ch) {
+        if (ch < ASCII_SIZE)
+            return asciiTable[state << ASCII_BITS | ch];
+        while (true) {
+            int next = directTransition(state, ch);
+            if (next >= 0)
+                return next;
+            if (state == 0)
+                return 0;
+            state = failure[state];
+        }
+    }
+
+    private int directTransition(int state, char ch) {
+        char[] chars = otherChars[state];
+        if (chars != null) {
+            int lo = 0;
+            int hi = chars.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                char midChar = chars[mid];
+                if (midChar == ch)
+                    return otherStates[state][mid];
+                if (midChar < ch)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A node in the trie used to construct the automaton.
+     */
+    private static class Node {
+
+        private final int state;
+        private final int depth;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private int keyword = -1;
+
+        private Node(int state, int depth) {
+            this.state = state;
+            this.depth = depth;
+        }
+
+    }
+
+}
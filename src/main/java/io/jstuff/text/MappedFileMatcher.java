@@ -0,0 +1,753 @@
+/*
+ * @(#) MappedFileMatcher.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A byte matching class to help with parsing large files of ASCII or UTF-8 data.  It provides the same functions as
+ * {@link ByteMatcher}, but operating on a file mapped into memory, using {@code long} indexes so that files larger than
+ * 2 gigabytes may be processed.
+ *
+ * <p>The file is mapped in windows of a specified size (default 1 gigabyte); when an operation accesses a byte outside
+ * the current window, a new window is mapped, starting if possible at the start index so that the result of the
+ * current match remains within the window.  Tokens spanning a window boundary are handled transparently.</p>
+ *
+ * <p>Errors occurring while mapping the file are reported as {@link UncheckedIOException}.  The mapping of the last
+ * window is not released when the {@code MappedFileMatcher} is closed (Java provides no means of doing so before the
+ * buffer is garbage collected), but the file channel is closed.</p>
+ *
+ * @author  Peter Wall
+ */
+public class MappedFileMatcher implements Closeable {
+
+    /** The default maximum number of bytes mapped at any one time (1 GiB). */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final int windowSize;
+    private final long length;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLength;
+    private long start;
+    private long index;
+    private final DigitConverter.Source source = this::byteAt;
+
+    /**
+     * Construct a {@code MappedFileMatcher} for the specified file, using the default window size.
+     *
+     * @param   path        the {@link Path} of the file
+     * @throws  IOException if the file can not be opened
+     */
+    public MappedFileMatcher(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Construct a {@code MappedFileMatcher} for the specified file, using the specified window size.
+     *
+     * @param   path        the {@link Path} of the file
+     * @param   windowSize  the maximum number of bytes to be mapped at any one time
+     * @throws  IOException if the file can not be opened
+     * @throws  IllegalArgumentException    if the window size is less than 1
+     */
+    public MappedFileMatcher(Path path, int windowSize) throws IOException {
+        if (path == null)
+            throw new NullPointerException("MappedFileMatcher path must not be null");
+        if (windowSize < 1)
+            throw new IllegalArgumentException("Illegal window size: " + windowSize);
+        this.windowSize = windowSize;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            length = channel.size();
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        windowStart = 0;
+        windowLength = 0;
+        start = 0;
+        index = 0;
+    }
+
+    /**
+     * Get the window size.
+     *
+     * @return              the maximum number of bytes mapped at any one time
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Get the byte at the nominated index, as an unsigned value.
+     *
+     * @param   index       the index
+     * @return              the byte at that index (0 - 255)
+     * @throws  IndexOutOfBoundsException   if the index is invalid
+     */
+    public int getByte(long index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        return byteAt(index);
+    }
+
+    /**
+     * Get the length of the file.
+     *
+     * @return              the file length
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Get the start index (the index of the start of the last matched sequence).
+     *
+     * @return              the start index
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Set the start index.  If the current index is less than the new start index, make them equal.
+     *
+     * @param   start       the new start index
+     * @throws  IndexOutOfBoundsException   if the new start index is less than 0 or greater than the file length
+     */
+    public void setStart(long start) {
+        if (start < 0 || start > length)
+            throw new IndexOutOfBoundsException(String.valueOf(start));
+        this.start = start;
+        if (index < start)
+            index = start;
+    }
+
+    /**
+     * Get the current index (the offset within the file).
+     *
+     * @return              the index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the current index.  If the new current index is less than the start index, make them equal.
+     *
+     * @param   index       the new current index
+     * @throws  IndexOutOfBoundsException   if the new current index is less than 0 or greater than the file length
+     */
+    public void setIndex(long index) {
+        if (index < 0 || index > length)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        this.index = index;
+        if (index < start)
+            start = index;
+    }
+
+    /**
+     * Test whether the {@code MappedFileMatcher} object is exhausted (the index has reached the end of the file).
+     *
+     * @return          {@code true} if the index has reached the end of the file
+     */
+    public boolean isAtEnd() {
+        return index >= length;
+    }
+
+    /**
+     * Undo the effect of the last match operation.
+     */
+    public void revert() {
+        index = start;
+    }
+
+    /**
+     * Match the current byte against a given character.  Following a successful match the start index will point to the
+     * matched byte and the index will be incremented past it.
+     *
+     * @param   ch      the character to match against
+     * @return          {@code true} if the byte matches the given character
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public boolean match(char ch) {
+        ByteMatcher.checkASCII(ch);
+        if (index >= length || byteAt(index) != ch)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index against a given {@link CharSequence} ({@link String}, {@link StringBuilder} etc.).
+     * Following a successful match the start index will point to the first byte of the matched sequence and the index
+     * will be incremented past it.
+     *
+     * @param target    the target {@link CharSequence}
+     * @return          {@code true} if the bytes at the index match the target
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public boolean match(CharSequence target) {
+        ByteMatcher.checkASCII(target);
+        int len = target.length();
+        if (index + len > length)
+            return false;
+        long i = index;
+        for (int j = 0; j < len; j++)
+            if (byteAt(i++) != target.charAt(j))
+                return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the current byte using the specified comparison function.  Following a successful match the start index will
+     * point to the matched byte and the index will be incremented past it.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the byte matches using the comparison function
+     */
+    public boolean match(CharPredicate comparison) {
+        if (index >= length || !comparison.test((char)byteAt(index)))
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the current byte against any of the characters in a given {@link String}.  Following a successful match the
+     * start index will point to the matched byte and the index will be incremented past it.
+     *
+     * @param   any     the characters to match against (as a {@link String})
+     * @return          {@code true} if the byte at the index matches any of the characters in the string
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public boolean matchAny(String any) {
+        ByteMatcher.checkASCII(any);
+        if (index >= length)
+            return false;
+        if (any.indexOf(byteAt(index)) < 0)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a given minimum number of bytes and an
+     * optional maximum.  To match a fixed number of bytes, the maximum and minimum should be set to the same value.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of bytes for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the bytes at the index satisfy the comparison function (subject to the
+     *                      specified minimum and maximum number of bytes)
+     */
+    public boolean matchSeq(int maxChars, int minChars, CharPredicate comparison) {
+        long i = index;
+        long stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
+        while (i < stopper && comparison.test((char)byteAt(i)))
+            i++;
+        if (i - index < minChars)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a minimum of 1 byte and an optional
+     * maximum.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more bytes at the index satisfy the comparison function (subject to
+     *                      the specified maximum number of bytes)
+     */
+    public boolean matchSeq(int maxChars, CharPredicate comparison) {
+        return matchSeq(maxChars, 1, comparison);
+    }
+
+    /**
+     * Match the bytes at the index using the specified comparison function, with a minimum of 1 byte and no maximum.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more bytes at the index satisfy the comparison function
+     */
+    public boolean matchSeq(CharPredicate comparison) {
+        return matchSeq(0, 1, comparison);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a given minimum number of digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              {@code true} if the bytes at the index are decimal digits (subject to the specified minimum
+     *                      and maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if one or more bytes at the index are decimal digits (subject to the specified
+     *                      maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              {@code true} if one or more bytes at the index are decimal digits
+     */
+    public boolean matchDec() {
+        return matchSeq(0, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a given minimum number of digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              {@code true} if the bytes at the index are hexadecimal digits (subject to the specified
+     *                      minimum and maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if one or more bytes at the index are hexadecimal digits (subject to the
+     *                      specified maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              {@code true} if one or more bytes at the index are hexadecimal digits
+     */
+    public boolean matchHex() {
+        return matchSeq(0, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the bytes at the index as a continuation using the specified comparison function, with a given minimum
+     * number of bytes and an optional maximum, but do not set the start index on success, and on fail, set the index
+     * back to the start index (as if the original match had failed).
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of bytes for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the bytes at the index satisfy the comparison function (subject to the
+     *                      specified minimum and maximum number of bytes)
+     */
+    public boolean matchContinue(int maxChars, int minChars, CharPredicate comparison) {
+        long i = index;
+        long stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
+        while (i < stopper && comparison.test((char)byteAt(i)))
+            i++;
+        if (i - index < minChars) {
+            index = start;
+            return false;
+        }
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index as a continuation using the specified comparison function, with no minimum number of
+     * bytes and an optional maximum.
+     *
+     * @param   maxChars    the maximum number of bytes to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail)
+     */
+    public boolean matchContinue(int maxChars, CharPredicate comparison) {
+        return matchContinue(maxChars, 0, comparison);
+    }
+
+    /**
+     * Match the bytes at the index as a continuation using the specified comparison function, with no minimum or
+     * maximum number of bytes.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail)
+     */
+    public boolean matchContinue(CharPredicate comparison) {
+        return matchContinue(0, 0, comparison);
+    }
+
+    /**
+     * Increment the index past any bytes matching any of the characters in a given string.
+     *
+     * @param   any     the characters to be skipped, as a {@link String}
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public void skipAny(String any) {
+        ByteMatcher.checkASCII(any);
+        start = index;
+        while (index < length && any.indexOf(byteAt(index)) >= 0)
+            index++;
+    }
+
+    /**
+     * Increment the index past any instances of the given character.
+     *
+     * @param   ch      the character to be skipped
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public void skip(char ch) {
+        ByteMatcher.checkASCII(ch);
+        long i = index;
+        start = i;
+        while (i < length && byteAt(i) == ch)
+            i++;
+        index = i;
+    }
+
+    /**
+     * Increment the index past any bytes matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     */
+    public void skip(CharPredicate comparison) {
+        start = index;
+        while (index < length && comparison.test((char)byteAt(index)))
+            index++;
+    }
+
+    /**
+     * Increment the index to the next instance of the given character, or to end of the file if character not found.
+     * The search is performed a window at a time, without the per-byte window check.
+     *
+     * @param   ch      the character to be skipped to
+     * @throws  IllegalArgumentException    if the character is not ASCII
+     */
+    public void skipTo(char ch) {
+        ByteMatcher.checkASCII(ch);
+        long i = index;
+        start = i;
+        while (i < length) {
+            byteAt(i);
+            MappedByteBuffer buffer = window;
+            int j = (int)(i - windowStart);
+            int stopper = windowLength;
+            while (j < stopper && (buffer.get(j) & 0xFF) != ch)
+                j++;
+            i = windowStart + j;
+            if (j < stopper)
+                break;
+        }
+        index = i;
+    }
+
+    /**
+     * Increment the index to the next instance of the given {@link CharSequence}, or to end of the file if target not
+     * found.
+     *
+     * @param   target  the string to be skipped to
+     * @throws  IllegalArgumentException    if any of the characters is not ASCII
+     */
+    public void skipTo(CharSequence target) {
+        ByteMatcher.checkASCII(target);
+        start = index;
+        int targetLength = target.length();
+        if (targetLength == 0)
+            return;
+        char firstChar = target.charAt(0);
+        long stopper = length - targetLength;
+        outer: while (index <= stopper) {
+            if (byteAt(index) == firstChar) {
+                for (int j = 1; j < targetLength; j++)
+                    if (byteAt(index + j) != target.charAt(j)) {
+                        index++;
+                        continue outer;
+                    }
+                return;
+            }
+            index++;
+        }
+        index = length;
+    }
+
+    /**
+     * Increment the index directly to the end of the file.
+     */
+    public void skipToEnd() {
+        start = index;
+        index = length;
+    }
+
+    /**
+     * Increment the index by a fixed amount.
+     *
+     * @param   n       the number of bytes to skip (must be positive)
+     * @throws  IllegalArgumentException if the increment is negative
+     * @throws  IndexOutOfBoundsException if the incremented index is beyond end of file
+     */
+    public void skipFixed(long n) {
+        if (n < 0)
+            throw new IllegalArgumentException(String.valueOf(n));
+        long newIndex = index + n;
+        if (newIndex > length)
+            throw new IndexOutOfBoundsException(String.valueOf(newIndex));
+        start = index;
+        index = newIndex;
+    }
+
+    /**
+     * Get a {@link String} from the file, decoding the bytes as UTF-8.
+     *
+     * @param   start   the start offset
+     * @param   end     the end offset (exclusive)
+     * @return          the {@link String}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the
+     *                                      start offset, or the end offset is greater than the length
+     * @throws  IllegalArgumentException    if the string would be longer than the maximum array size
+     */
+    public String getString(long start, long end) {
+        if (start < 0 || end > length || end < start)
+            throw new IndexOutOfBoundsException(String.valueOf(start) + ':' + end);
+        if (end - start > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("String too long: " + (end - start));
+        byte[] bytes = new byte[(int)(end - start)];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte)byteAt(start + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}, decoding the bytes as UTF-8.
+     *
+     * @return          the result of the last match
+     */
+    public String getResult() {
+        return getString(start, index);
+    }
+
+    /**
+     * Get the first byte of the result of the last match operation as a character.
+     *
+     * @return          the first byte of the result of the last match
+     * @throws  IndexOutOfBoundsException if the start index at or beyond the end of the file
+     */
+    public char getResultChar() {
+        return (char)getByte(start);
+    }
+
+    /**
+     * Get the length in bytes of the result of the last match operation.
+     *
+     * @return          the length of the result of the last match
+     */
+    public long getResultLength() {
+        return index - start;
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @return          the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt() {
+        return getInt(start, index, false);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt(boolean negative) {
+        return getInt(start, index, negative);
+    }
+
+    /**
+     * Get a signed {@code int} from the file.
+     *
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the {@code int}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code int}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the file
+     */
+    public int getInt(long from, long to, boolean negative) {
+        checkRange(from, to);
+        return (int)DigitConverter.convertDec(source, from, to, negative, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @return          the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong() {
+        return getLong(start, index, false);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong(boolean negative) {
+        return getLong(start, index, negative);
+    }
+
+    /**
+     * Get a signed {@code long} from the file.
+     *
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the {@code long}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code long}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the file
+     */
+    public long getLong(long from, long to, boolean negative) {
+        checkRange(from, to);
+        return DigitConverter.convertDec(source, from, to, negative, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code int}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultHexInt() {
+        return getHexInt(start, index);
+    }
+
+    /**
+     * Get an unsigned {@code int} from the file, treating the digits as hexadecimal.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the hexadecimal {@code int}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code int}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the file
+     */
+    public int getHexInt(long from, long to) {
+        checkRange(from, to);
+        return (int)DigitConverter.convertHex(source, from, to, 32);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code long}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultHexLong() {
+        return getHexLong(start, index);
+    }
+
+    /**
+     * Get an unsigned {@code long} from the file, treating the digits as hexadecimal.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the hexadecimal {@code long}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid {@code long}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the file
+     */
+    public long getHexLong(long from, long to) {
+        checkRange(from, to);
+        return DigitConverter.convertHex(source, from, to, 64);
+    }
+
+    /**
+     * Close the file.
+     *
+     * @throws  IOException if thrown by the file channel
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        windowLength = 0;
+        channel.close();
+    }
+
+    private void checkRange(long from, long to) {
+        if (to <= from)
+            throw new NumberFormatException();
+        if (from < 0 || to > length)
+            throw new IndexOutOfBoundsException(String.valueOf(from) + ':' + to);
+    }
+
+    private int byteAt(long i) {
+        long offset = i - windowStart;
+        if (offset < 0 || offset >= windowLength) {
+            remap(i);
+            offset = i - windowStart;
+        }
+        return window.get((int)offset) & 0xFF;
+    }
+
+    private void remap(long i) {
+        long base = start <= i && i - start <= windowSize >> 1 ? start : Math.max(0, i - (windowSize >> 2));
+        int size = (int)Math.min(windowSize, length - base);
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, base, size);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        windowStart = base;
+        windowLength = size;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * @(#) NumberResult.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * A mutable holder for the result of a number conversion using one of the {@code tryGet} functions of
+ * {@link TextMatcher}.  The conversion functions report failure by setting the status in this object rather than by
+ * throwing an exception, so that malformed input may be handled without the cost of creating an exception.  A single
+ * instance may be re-used for any number of conversions.
+ *
+ * @author  Peter Wall
+ */
+public class NumberResult {
+
+    /**
+     * The status of a number conversion.
+     */
+    public enum Status {
+
+        /** The conversion succeeded. */
+        VALID,
+
+        /** The text was empty or contained a character that is not a valid digit. */
+        INVALID,
+
+        /** The value was too large for the target type. */
+        OVERFLOW,
+
+    }
+
+    private Status status;
+    private long value;
+
+    /**
+     * Construct a {@code NumberResult}.  The initial status is {@link Status#INVALID INVALID}.
+     */
+    public NumberResult() {
+        status = Status.INVALID;
+        value = 0;
+    }
+
+    /**
+     * Get the status of the last conversion.
+     *
+     * @return          the {@link Status}
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Test whether the last conversion succeeded.
+     *
+     * @return          {@code true} if the status is {@link Status#VALID VALID}
+     */
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    /**
+     * Get the value of the last conversion as an {@code int}.  The value is undefined if the conversion did not succeed.
+     *
+     * @return          the value
+     */
+    public int getInt() {
+        return (int)value;
+    }
+
+    /**
+     * Get the value of the last conversion as a {@code long}.  The value is undefined if the conversion did not
+     * succeed.
+     *
+     * @return          the value
+     */
+    public long getLong() {
+        return value;
+    }
+
+    boolean setValue(long value) {
+        this.value = value;
+        status = Status.VALID;
+        return true;
+    }
+
+    boolean setStatus(Status status) {
+        this.status = status;
+        value = 0;
+        return false;
+    }
+
+}
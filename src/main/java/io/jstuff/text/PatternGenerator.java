@@ -0,0 +1,800 @@
+/*
+ * @(#) PatternGenerator.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generation of a dedicated class for a {@link TextPattern}, so that the JIT compiler sees straight-line code with the
+ * literal characters and the ASCII bitmaps of {@link CharClass} tests as constants.
+ *
+ * <p>The code is generated from the pattern tree rather than from the interpreted program: since the patterns have no
+ * recursion, the backtracking point of each choice or repetition, and the capture group offsets, are all held in local
+ * variables, and the generated method needs no stack or undo log.  The class is defined as a hidden class using
+ * {@code MethodHandles.Lookup.defineHiddenClass()}, located by reflection so that the library still runs on Java 8; if
+ * that function is not available (before Java 15), or the generated method would be too large to be compiled by the
+ * JIT, no class is generated and the pattern continues to be interpreted.</p>
+ *
+ * @author  Peter Wall
+ */
+final class PatternGenerator {
+
+    /**
+     * The interface implemented by the generated class.
+     */
+    interface GeneratedMatcher {
+
+        /**
+         * Match the pattern against the text at the given offset (see {@link TextPattern#matchAt}).  The captures array
+         * (if not {@code null}) has already been checked for length.
+         *
+         * @param   text        the text
+         * @param   from        the start offset
+         * @param   to          the end offset (exclusive)
+         * @param   captures    the array to receive the capture group offsets (may be {@code null})
+         * @return              the end offset of the match, or -1 if the pattern does not match
+         */
+        int matchAt(CharSequence text, int from, int to, int[] captures);
+
+    }
+
+    private static final String CLASS_NAME = "io/jstuff/text/GeneratedPattern";
+    private static final String INTERFACE_NAME = "io/jstuff/text/PatternGenerator$GeneratedMatcher";
+    private static final String PREDICATE_NAME = "io/jstuff/text/CharPredicate";
+    private static final String PREDICATE_DESCRIPTOR = 'L' + PREDICATE_NAME + ';';
+    private static final String MATCH_DESCRIPTOR = "(Ljava/lang/CharSequence;II[I)I";
+
+    // the JIT compilers will not compile methods larger than this (HugeMethodLimit)
+    private static final int MAX_CODE_SIZE = 8000;
+    private static final int MAX_LOCALS = 256;
+    private static final int MAX_STACK = 8;
+
+    // local variables of the generated matchAt method
+    private static final int TEXT = 1;
+    private static final int FROM = 2;
+    private static final int TO = 3;
+    private static final int CAPTURES = 4;
+    private static final int INDEX = 5;
+    private static final int SPAN_INDEX = 6;
+    private static final int SPAN_STOPPER = 7;
+    private static final int CHAR = 8;
+    private static final int FIRST_CAPTURE = 9;
+
+    private static final Method defineHiddenClass;
+    private static final Object noClassOptions;
+
+    static {
+        Method method;
+        Object options;
+        try {
+            Class<?> optionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            options = Array.newInstance(optionClass, 0);
+            method = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class,
+                    options.getClass());
+        }
+        catch (ReflectiveOperationException e) {
+            method = null;
+            options = null;
+        }
+        defineHiddenClass = method;
+        noClassOptions = options;
+    }
+
+    private final ConstantPool pool = new ConstantPool();
+    private final Code code = new Code(pool);
+    private final List<CharPredicate> predicates = new ArrayList<>();
+    private final Map<CharPredicate, Integer> predicateFields = new HashMap<>();
+    private int nextLocal;
+
+    private PatternGenerator() {}
+
+    /**
+     * Generate a dedicated class for a pattern, and create an instance of it.
+     *
+     * @param   pattern     the pattern
+     * @return              the generated matcher, or {@code null} if code generation is not available or the
+     *                      generated code would be too large
+     */
+    static GeneratedMatcher generate(TextPattern pattern) {
+        if (defineHiddenClass == null)
+            return null;
+        PatternGenerator generator = new PatternGenerator();
+        byte[] classFile = generator.generateClass(pattern);
+        if (classFile == null)
+            return null;
+        try {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup)defineHiddenClass.invoke(MethodHandles.lookup(),
+                    classFile, true, noClassOptions);
+            CharPredicate[] predicates = generator.predicates.toArray(new CharPredicate[0]);
+            return (GeneratedMatcher)lookup.lookupClass().getDeclaredConstructor(CharPredicate[].class).
+                    newInstance((Object)predicates);
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private byte[] generateClass(TextPattern pattern) {
+        int captureSlots = pattern.captureCount * 2;
+        nextLocal = FIRST_CAPTURE + captureSlots;
+        for (int slot = 0; slot < captureSlots; slot++) {
+            code.pushInt(-1);
+            code.local(Code.ISTORE, FIRST_CAPTURE + slot);
+        }
+        code.local(Code.ILOAD, FROM);
+        code.local(Code.ISTORE, INDEX);
+        Label fail = new Label();
+        generate(pattern, fail, 0);
+        Label finish = new Label();
+        code.local(Code.ALOAD, CAPTURES);
+        code.branch(Code.IFNULL, finish);
+        for (int slot = 0; slot < captureSlots; slot++) {
+            code.local(Code.ALOAD, CAPTURES);
+            code.pushInt(slot);
+            code.local(Code.ILOAD, FIRST_CAPTURE + slot);
+            code.op(Code.IASTORE);
+        }
+        code.mark(finish);
+        code.local(Code.ILOAD, INDEX);
+        code.op(Code.IRETURN);
+        code.mark(fail);
+        code.pushInt(-1);
+        code.op(Code.IRETURN);
+        if (code.size > MAX_CODE_SIZE || nextLocal > MAX_LOCALS || !code.resolve())
+            return null;
+        return writeClass();
+    }
+
+    private void generate(TextPattern pattern, Label fail, int firstCapture) {
+        if (code.size > MAX_CODE_SIZE)
+            return; // the class will not be used, so stop expanding repetitions
+        switch (pattern.type) {
+        case TextPattern.LITERAL:
+            generateLiteral(pattern.literal, fail);
+            break;
+        case TextPattern.CLASS:
+            code.local(Code.ILOAD, INDEX);
+            code.local(Code.ILOAD, TO);
+            code.branch(Code.IF_ICMPGE, fail);
+            loadChar(INDEX);
+            generateTest(pattern.predicate, fail);
+            code.increment(INDEX, 1);
+            break;
+        case TextPattern.SPAN:
+            generateSpan(pattern.predicate, pattern.maxCount, pattern.minCount, fail);
+            break;
+        case TextPattern.SEQUENCE:
+            generateSequence(pattern, fail, firstCapture);
+            break;
+        case TextPattern.CHOICE:
+            generateChoice(pattern, fail, firstCapture);
+            break;
+        case TextPattern.REPEAT:
+            generateRepeat(pattern, fail, firstCapture);
+            break;
+        default: // CAPTURE
+            code.local(Code.ILOAD, INDEX);
+            code.local(Code.ISTORE, FIRST_CAPTURE + firstCapture * 2);
+            generate(pattern.children[0], fail, firstCapture + 1);
+            code.local(Code.ILOAD, INDEX);
+            code.local(Code.ISTORE, FIRST_CAPTURE + firstCapture * 2 + 1);
+            break;
+        }
+    }
+
+    private void generateLiteral(String literal, Label fail) {
+        int n = literal.length();
+        if (n == 0)
+            return;
+        if (n == 1) {
+            code.local(Code.ILOAD, INDEX);
+            code.local(Code.ILOAD, TO);
+            code.branch(Code.IF_ICMPGE, fail);
+        }
+        else {
+            code.local(Code.ILOAD, TO);
+            code.local(Code.ILOAD, INDEX);
+            code.op(Code.ISUB);
+            code.pushInt(n);
+            code.branch(Code.IF_ICMPLT, fail);
+        }
+        for (int k = 0; k < n; k++) {
+            code.local(Code.ALOAD, TEXT);
+            code.local(Code.ILOAD, INDEX);
+            if (k > 0) {
+                code.pushInt(k);
+                code.op(Code.IADD);
+            }
+            invokeCharAt();
+            code.pushInt(literal.charAt(k));
+            code.branch(Code.IF_ICMPNE, fail);
+        }
+        code.increment(INDEX, n);
+    }
+
+    private void generateSpan(CharPredicate predicate, int maxCount, int minCount, Label fail) {
+        code.local(Code.ILOAD, INDEX);
+        code.local(Code.ISTORE, SPAN_INDEX);
+        code.local(Code.ILOAD, TO);
+        code.local(Code.ISTORE, SPAN_STOPPER);
+        if (maxCount > 0) {
+            Label unlimited = new Label();
+            code.local(Code.ILOAD, TO);
+            code.local(Code.ILOAD, INDEX);
+            code.op(Code.ISUB);
+            code.pushInt(maxCount);
+            code.branch(Code.IF_ICMPLE, unlimited);
+            code.local(Code.ILOAD, INDEX);
+            code.pushInt(maxCount);
+            code.op(Code.IADD);
+            code.local(Code.ISTORE, SPAN_STOPPER);
+            code.mark(unlimited);
+        }
+        Label loop = new Label();
+        Label done = new Label();
+        code.mark(loop);
+        code.local(Code.ILOAD, SPAN_INDEX);
+        code.local(Code.ILOAD, SPAN_STOPPER);
+        code.branch(Code.IF_ICMPGE, done);
+        loadChar(SPAN_INDEX);
+        generateTest(predicate, done);
+        code.increment(SPAN_INDEX, 1);
+        code.branch(Code.GOTO, loop);
+        code.mark(done);
+        if (minCount > 0) {
+            code.local(Code.ILOAD, SPAN_INDEX);
+            code.local(Code.ILOAD, INDEX);
+            code.op(Code.ISUB);
+            code.pushInt(minCount);
+            code.branch(Code.IF_ICMPLT, fail);
+        }
+        code.local(Code.ILOAD, SPAN_INDEX);
+        code.local(Code.ISTORE, INDEX);
+    }
+
+    private void generateSequence(TextPattern pattern, Label fail, int firstCapture) {
+        // as in the interpreted program, nested sequences are flattened and adjacent literals are combined
+        List<TextPattern> items = new ArrayList<>();
+        flatten(pattern, items);
+        StringBuilder sb = new StringBuilder();
+        for (TextPattern item : items) {
+            if (item.type == TextPattern.LITERAL)
+                sb.append(item.literal);
+            else {
+                generateLiteral(sb.toString(), fail);
+                sb.setLength(0);
+                generate(item, fail, firstCapture);
+                firstCapture += item.captureCount;
+            }
+        }
+        generateLiteral(sb.toString(), fail);
+    }
+
+    private static void flatten(TextPattern pattern, List<TextPattern> items) {
+        for (TextPattern child : pattern.children) {
+            if (child.type == TextPattern.SEQUENCE)
+                flatten(child, items);
+            else
+                items.add(child);
+        }
+    }
+
+    private void generateChoice(TextPattern pattern, Label fail, int firstCapture) {
+        TextPattern[] alternatives = pattern.children;
+        int last = alternatives.length - 1;
+        Label end = new Label();
+        for (int k = 0; k < last; k++) {
+            TextPattern alternative = alternatives[k];
+            int saved = save(firstCapture, alternative.captureCount);
+            Label next = new Label();
+            generate(alternative, next, firstCapture);
+            code.branch(Code.GOTO, end);
+            code.mark(next);
+            restore(saved, firstCapture, alternative.captureCount);
+            firstCapture += alternative.captureCount;
+        }
+        generate(alternatives[last], fail, firstCapture);
+        code.mark(end);
+    }
+
+    private void generateRepeat(TextPattern pattern, Label fail, int firstCapture) {
+        TextPattern child = pattern.children[0];
+        if (child.type == TextPattern.CLASS || child.type == TextPattern.LITERAL && child.literal.length() == 1) {
+            CharPredicate predicate = child.type == TextPattern.CLASS ? child.predicate : CharClass.of(child.literal);
+            generateSpan(predicate, pattern.maxCount, pattern.minCount, fail);
+            return;
+        }
+        for (int k = 0; k < pattern.minCount && code.size <= MAX_CODE_SIZE; k++)
+            generate(child, fail, firstCapture);
+        int captureCount = child.captureCount;
+        Label exit = new Label();
+        if (pattern.maxCount == 0) {
+            int saved = allocateSaveLocals(captureCount);
+            Label loop = new Label();
+            code.mark(loop);
+            store(saved, firstCapture, captureCount);
+            generate(child, exit, firstCapture);
+            code.branch(Code.GOTO, loop);
+            code.mark(exit);
+            restore(saved, firstCapture, captureCount);
+        }
+        else if (pattern.maxCount > pattern.minCount) {
+            int saved = allocateSaveLocals(captureCount);
+            Label end = new Label();
+            for (int k = pattern.maxCount - pattern.minCount; k > 0 && code.size <= MAX_CODE_SIZE; k--) {
+                store(saved, firstCapture, captureCount);
+                generate(child, exit, firstCapture);
+            }
+            code.branch(Code.GOTO, end);
+            code.mark(exit);
+            restore(saved, firstCapture, captureCount);
+            code.mark(end);
+        }
+    }
+
+    private int save(int firstCapture, int captureCount) {
+        int saved = allocateSaveLocals(captureCount);
+        store(saved, firstCapture, captureCount);
+        return saved;
+    }
+
+    private int allocateSaveLocals(int captureCount) {
+        // one local for the index, and one for each capture offset that may be modified
+        int saved = nextLocal;
+        nextLocal += 1 + captureCount * 2;
+        return saved;
+    }
+
+    private void store(int saved, int firstCapture, int captureCount) {
+        code.local(Code.ILOAD, INDEX);
+        code.local(Code.ISTORE, saved);
+        for (int k = 0; k < captureCount * 2; k++) {
+            code.local(Code.ILOAD, FIRST_CAPTURE + firstCapture * 2 + k);
+            code.local(Code.ISTORE, saved + 1 + k);
+        }
+    }
+
+    private void restore(int saved, int firstCapture, int captureCount) {
+        code.local(Code.ILOAD, saved);
+        code.local(Code.ISTORE, INDEX);
+        for (int k = 0; k < captureCount * 2; k++) {
+            code.local(Code.ILOAD, saved + 1 + k);
+            code.local(Code.ISTORE, FIRST_CAPTURE + firstCapture * 2 + k);
+        }
+    }
+
+    private void loadChar(int indexLocal) {
+        code.local(Code.ALOAD, TEXT);
+        code.local(Code.ILOAD, indexLocal);
+        invokeCharAt();
+        code.local(Code.ISTORE, CHAR);
+    }
+
+    private void invokeCharAt() {
+        code.invokeInterface(pool.interfaceMethod("java/lang/CharSequence", "charAt", "(I)C"), 2);
+    }
+
+    private void generateTest(CharPredicate predicate, Label fail) {
+        // branch to fail if the character in the CHAR local is not accepted by the predicate; for a CharClass, the
+        // ASCII members are included in the code as constants
+        if (!(predicate instanceof CharClass)) {
+            generatePredicateCall(predicate, fail);
+            return;
+        }
+        CharClass charClass = (CharClass)predicate;
+        long low = charClass.getLowBits();
+        long high = charClass.getHighBits();
+        if (!charClass.hasNonAscii() && (low | high) != 0) {
+            int first = low != 0 ? Long.numberOfTrailingZeros(low) : 64 + Long.numberOfTrailingZeros(high);
+            int last = high != 0 ? 127 - Long.numberOfLeadingZeros(high) : 63 - Long.numberOfLeadingZeros(low);
+            if (Long.bitCount(low) + Long.bitCount(high) == last - first + 1) {
+                // a single range of ASCII characters needs only two comparisons
+                code.local(Code.ILOAD, CHAR);
+                code.pushInt(first);
+                code.branch(Code.IF_ICMPLT, fail);
+                code.local(Code.ILOAD, CHAR);
+                code.pushInt(last);
+                code.branch(Code.IF_ICMPGT, fail);
+                return;
+            }
+        }
+        Label other = new Label();
+        Label accepted = new Label();
+        code.local(Code.ILOAD, CHAR);
+        code.pushInt(128);
+        code.branch(Code.IF_ICMPGE, other);
+        // select the bitmap without a branch (which would be unpredictable for a class like the hexadecimal digits):
+        // high ^ ((low ^ high) & mask), where mask is all ones for characters below 64, and zero otherwise
+        code.ldc2(pool.longConstant(high));
+        code.ldc2(pool.longConstant(low ^ high));
+        code.local(Code.ILOAD, CHAR);
+        code.pushInt(6);
+        code.op(Code.IUSHR);
+        code.pushInt(1);
+        code.op(Code.ISUB);
+        code.op(Code.I2L);
+        code.op(Code.LAND);
+        code.op(Code.LXOR);
+        code.local(Code.ILOAD, CHAR);
+        code.op(Code.LUSHR);
+        code.op(Code.LCONST_1);
+        code.op(Code.LAND);
+        code.op(Code.LCONST_0);
+        code.op(Code.LCMP);
+        code.branch(Code.IFEQ, fail);
+        code.branch(Code.GOTO, accepted);
+        code.mark(other);
+        if (charClass.hasNonAscii())
+            generatePredicateCall(predicate, fail);
+        else
+            code.branch(Code.GOTO, fail);
+        code.mark(accepted);
+    }
+
+    private void generatePredicateCall(CharPredicate predicate, Label fail) {
+        Integer field = predicateFields.get(predicate);
+        if (field == null) {
+            field = predicates.size();
+            predicates.add(predicate);
+            predicateFields.put(predicate, field);
+        }
+        code.op(Code.ALOAD_0);
+        code.getField(pool.field(CLASS_NAME, "p" + field, PREDICATE_DESCRIPTOR));
+        code.local(Code.ILOAD, CHAR);
+        code.invokeInterface(pool.interfaceMethod(PREDICATE_NAME, "test", "(C)Z"), 2);
+        code.branch(Code.IFEQ, fail);
+    }
+
+    private byte[] writeClass() {
+        // the constructor stores the predicates from the array argument in separate final fields
+        Code constructor = new Code(pool);
+        constructor.op(Code.ALOAD_0);
+        constructor.invokeSpecial(pool.method("java/lang/Object", "<init>", "()V"));
+        for (int k = 0; k < predicates.size(); k++) {
+            constructor.op(Code.ALOAD_0);
+            constructor.local(Code.ALOAD, 1);
+            constructor.pushInt(k);
+            constructor.op(Code.AALOAD);
+            constructor.putField(pool.field(CLASS_NAME, "p" + k, PREDICATE_DESCRIPTOR));
+        }
+        constructor.op(Code.RETURN);
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int interfaceClass = pool.classRef(INTERFACE_NAME);
+        int codeName = pool.utf8("Code");
+        int[] fieldNames = new int[predicates.size()];
+        for (int k = 0; k < fieldNames.length; k++)
+            fieldNames[k] = pool.utf8("p" + k);
+        int predicateDescriptor = pool.utf8(PREDICATE_DESCRIPTOR);
+        int constructorName = pool.utf8("<init>");
+        int constructorDescriptor = pool.utf8("([" + PREDICATE_DESCRIPTOR + ")V");
+        int matchName = pool.utf8("matchAt");
+        int matchDescriptor = pool.utf8(MATCH_DESCRIPTOR);
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeInt(0xCAFEBABE);
+            // class file version 49 (Java 5) is verified by type inference, and so needs no StackMapTable
+            out.writeShort(0);
+            out.writeShort(49);
+            pool.write(out);
+            out.writeShort(0x0030); // ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(interfaceClass);
+            out.writeShort(fieldNames.length);
+            for (int fieldName : fieldNames) {
+                out.writeShort(0x0012); // ACC_PRIVATE | ACC_FINAL
+                out.writeShort(fieldName);
+                out.writeShort(predicateDescriptor);
+                out.writeShort(0);
+            }
+            out.writeShort(2);
+            writeMethod(out, constructorName, constructorDescriptor, codeName, constructor, 3, 2);
+            writeMethod(out, matchName, matchDescriptor, codeName, code, MAX_STACK, nextLocal);
+            out.writeShort(0);
+            return baos.toByteArray();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unexpected I/O error", e);
+        }
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, Code code,
+            int maxStack, int maxLocals) throws IOException {
+        out.writeShort(0x0001); // ACC_PUBLIC
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.size);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.size);
+        out.write(code.bytes, 0, code.size);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    /**
+     * A branch target in the generated code.
+     */
+    private static class Label {
+
+        private int position = -1;
+        private int[] references = new int[4];
+        private int count;
+
+    }
+
+    /**
+     * The bytecode of a method.
+     */
+    private static class Code {
+
+        static final int LCONST_0 = 0x09;
+        static final int LCONST_1 = 0x0A;
+        static final int ILOAD = 0x15;
+        static final int ALOAD = 0x19;
+        static final int ALOAD_0 = 0x2A;
+        static final int AALOAD = 0x32;
+        static final int ISTORE = 0x36;
+        static final int IASTORE = 0x4F;
+        static final int IADD = 0x60;
+        static final int ISUB = 0x64;
+        static final int IUSHR = 0x7C;
+        static final int LUSHR = 0x7D;
+        static final int LAND = 0x7F;
+        static final int LXOR = 0x83;
+        static final int I2L = 0x85;
+        static final int LCMP = 0x94;
+        static final int IFEQ = 0x99;
+        static final int IF_ICMPNE = 0xA0;
+        static final int IF_ICMPLT = 0xA1;
+        static final int IF_ICMPGE = 0xA2;
+        static final int IF_ICMPGT = 0xA3;
+        static final int IF_ICMPLE = 0xA4;
+        static final int GOTO = 0xA7;
+        static final int IRETURN = 0xAC;
+        static final int RETURN = 0xB1;
+        static final int IFNULL = 0xC6;
+
+        private final ConstantPool pool;
+        private byte[] bytes = new byte[256];
+        private int size;
+        private final List<Label> labels = new ArrayList<>();
+
+        private Code(ConstantPool pool) {
+            this.pool = pool;
+        }
+
+        private void op(int opcode) {
+            u1(opcode);
+        }
+
+        private void local(int opcode, int index) {
+            u1(opcode);
+            u1(index);
+        }
+
+        private void increment(int index, int amount) {
+            if (amount <= Byte.MAX_VALUE) {
+                u1(0x84); // IINC
+                u1(index);
+                u1(amount);
+            }
+            else {
+                local(ILOAD, index);
+                pushInt(amount);
+                op(IADD);
+                local(ISTORE, index);
+            }
+        }
+
+        private void pushInt(int value) {
+            if (value >= -1 && value <= 5)
+                u1(0x03 + value); // ICONST_M1 to ICONST_5
+            else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                u1(0x10); // BIPUSH
+                u1(value);
+            }
+            else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                u1(0x11); // SIPUSH
+                u2(value);
+            }
+            else {
+                u1(0x13); // LDC_W
+                u2(pool.intConstant(value));
+            }
+        }
+
+        private void ldc2(int index) {
+            u1(0x14); // LDC2_W
+            u2(index);
+        }
+
+        private void getField(int index) {
+            u1(0xB4); // GETFIELD
+            u2(index);
+        }
+
+        private void putField(int index) {
+            u1(0xB5); // PUTFIELD
+            u2(index);
+        }
+
+        private void invokeSpecial(int index) {
+            u1(0xB7); // INVOKESPECIAL
+            u2(index);
+        }
+
+        private void invokeInterface(int index, int argumentSlots) {
+            u1(0xB9); // INVOKEINTERFACE
+            u2(index);
+            u1(argumentSlots);
+            u1(0);
+        }
+
+        private void branch(int opcode, Label label) {
+            if (label.count == label.references.length)
+                label.references = Arrays.copyOf(label.references, label.count * 2);
+            if (label.count == 0)
+                labels.add(label);
+            label.references[label.count++] = size;
+            u1(opcode);
+            u2(0);
+        }
+
+        private void mark(Label label) {
+            label.position = size;
+        }
+
+        private boolean resolve() {
+            // fill in the branch offsets; returns false if any offset is out of range
+            for (Label label : labels) {
+                for (int k = 0; k < label.count; k++) {
+                    int reference = label.references[k];
+                    int offset = label.position - reference;
+                    if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+                        return false;
+                    bytes[reference + 1] = (byte)(offset >> 8);
+                    bytes[reference + 2] = (byte)offset;
+                }
+            }
+            return true;
+        }
+
+        private void u1(int value) {
+            if (size == bytes.length)
+                bytes = Arrays.copyOf(bytes, size * 2);
+            bytes[size++] = (byte)value;
+        }
+
+        private void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+
+    }
+
+    /**
+     * The constant pool of the generated class.
+     */
+    private static class ConstantPool {
+
+        private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(baos);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        private int utf8(String value) {
+            return entry("U" + value, 1, 1, () -> out.writeUTF(value));
+        }
+
+        private int classRef(String name) {
+            int nameIndex = utf8(name);
+            return entry("C" + name, 7, 1, () -> out.writeShort(nameIndex));
+        }
+
+        private int intConstant(int value) {
+            return entry("I" + value, 3, 1, () -> out.writeInt(value));
+        }
+
+        private int longConstant(long value) {
+            return entry("J" + value, 5, 2, () -> out.writeLong(value));
+        }
+
+        private int field(String owner, String name, String descriptor) {
+            return member(9, owner, name, descriptor);
+        }
+
+        private int method(String owner, String name, String descriptor) {
+            return member(10, owner, name, descriptor);
+        }
+
+        private int interfaceMethod(String owner, String name, String descriptor) {
+            return member(11, owner, name, descriptor);
+        }
+
+        private int member(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ':' + descriptor, 12, 1, () -> {
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + tag + owner + '.' + name + ':' + descriptor, tag, 1, () -> {
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, int tag, int slots, Writer writer) {
+            Integer existing = entries.get(key);
+            if (existing != null)
+                return existing;
+            int index = count;
+            try {
+                out.writeByte(tag);
+                writer.write();
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Unexpected I/O error", e);
+            }
+            count += slots;
+            entries.put(key, index);
+            return index;
+        }
+
+        private void write(DataOutputStream classOut) throws IOException {
+            classOut.writeShort(count);
+            baos.writeTo(classOut);
+        }
+
+    }
+
+    /**
+     * A function to write the content of a constant pool entry.
+     */
+    private interface Writer {
+
+        void write() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,402 @@
+/*
+ * @(#) RegularPattern.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link TextPattern} compiled into a deterministic finite automaton (DFA), for use with the
+ * {@link TextMatcher#match(RegularPattern)} function.
+ *
+ * <p>Unlike the {@link TextPattern} itself, which follows the rules of a Parsing Expression Grammar, a
+ * {@code RegularPattern} follows the rules of a regular expression: a choice matches any of its alternatives, and a
+ * repetition matches any number of repetitions within its limits, so that (for example)
+ * {@code sequence(seq(DIGITS), of('1'))} will match {@code "1231"}.  Where there is more than one possible match, the
+ * longest is selected.  The text is examined once, with no backtracking, so matching always takes time proportional to
+ * the length of the text examined.</p>
+ *
+ * <p>Transitions on ASCII characters use a table indexed by state and character.  For other characters, each state
+ * holds the (usually very small) list of the character predicates that may match a non-ASCII character, and a table
+ * indexed by the combination of the results of those predicates.  Capture groups are not supported.  The object is
+ * immutable, and may be shared between threads.</p>
+ *
+ * @author  Peter Wall
+ */
+public class RegularPattern {
+
+    /** The maximum number of states in the DFA. */
+    public static final int MAX_STATES = 4096;
+
+    private static final int ASCII_BITS = 7;
+    private static final int ASCII_SIZE = 1 << ASCII_BITS;
+    private static final int MAX_OTHER_PREDICATES = 8;
+    private static final int MAX_NFA_STATES = 1 << 16;
+    private static final int DEAD = 0;
+
+    private final int initialState;
+    private final boolean[] accepting;
+    private final int[] asciiTable;
+    private final CharPredicate[][] otherPredicates;
+    private final int[][] otherStates;
+
+    /**
+     * Construct a {@code RegularPattern} from a {@link TextPattern}.
+     *
+     * @param   pattern     the {@link TextPattern}
+     * @throws  NullPointerException        if the pattern is {@code null}
+     * @throws  IllegalArgumentException    if the pattern includes capture groups, or the DFA would have more than
+     *                                      {@link #MAX_STATES} states (or the intermediate NFA, in which counted
+     *                                      repetitions are expanded, would have more than 65536), or any state would
+     *                                      need to test more than 8 different predicates for a non-ASCII character
+     */
+    public RegularPattern(TextPattern pattern) {
+        if (pattern == null)
+            throw new NullPointerException("RegularPattern pattern must not be null");
+        Builder builder = new Builder();
+        Fragment fragment = builder.build(pattern);
+        List<BitSet> sets = new ArrayList<>();
+        Map<BitSet, Integer> stateMap = new HashMap<>();
+        sets.add(new BitSet());
+        stateMap.put(sets.get(DEAD), DEAD);
+        initialState = builder.intern(builder.closure(single(fragment.start)), sets, stateMap);
+        List<int[]> asciiRows = new ArrayList<>();
+        List<CharPredicate[]> otherPredicateList = new ArrayList<>();
+        List<int[]> otherStateList = new ArrayList<>();
+        for (int state = 0; state < sets.size(); state++) {
+            BitSet set = sets.get(state);
+            int[] row = new int[ASCII_SIZE];
+            for (int ch = 0; ch < ASCII_SIZE; ch++) {
+                BitSet next = new BitSet();
+                for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+                    int predicate = builder.edgePredicate.get(s);
+                    if (predicate >= 0 && builder.acceptsAscii(predicate, ch))
+                        next.set(builder.edgeTarget.get(s));
+                }
+                row[ch] = builder.intern(builder.closure(next), sets, stateMap);
+            }
+            asciiRows.add(row);
+            // the predicates that may match a non-ASCII character, and the state for each combination of results
+            List<Integer> others = new ArrayList<>();
+            for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+                int predicate = builder.edgePredicate.get(s);
+                if (predicate >= 0 && builder.nonAscii.get(predicate) && !others.contains(predicate))
+                    others.add(predicate);
+            }
+            int k = others.size();
+            if (k == 0) {
+                otherPredicateList.add(null);
+                otherStateList.add(null);
+            }
+            else {
+                if (k > MAX_OTHER_PREDICATES)
+                    throw new IllegalArgumentException("RegularPattern too many predicates in one state: " + k);
+                CharPredicate[] predicates = new CharPredicate[k];
+                for (int j = 0; j < k; j++)
+                    predicates[j] = builder.predicates.get(others.get(j));
+                int[] targets = new int[1 << k];
+                for (int combination = 1; combination < targets.length; combination++) {
+                    BitSet next = new BitSet();
+                    for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+                        int j = others.indexOf(builder.edgePredicate.get(s));
+                        if (j >= 0 && (combination & 1 << j) != 0)
+                            next.set(builder.edgeTarget.get(s));
+                    }
+                    targets[combination] = builder.intern(builder.closure(next), sets, stateMap);
+                }
+                otherPredicateList.add(predicates);
+                otherStateList.add(targets);
+            }
+        }
+        int n = sets.size();
+        accepting = new boolean[n];
+        asciiTable = new int[n << ASCII_BITS];
+        for (int state = 0; state < n; state++) {
+            accepting[state] = sets.get(state).get(fragment.end);
+            System.arraycopy(asciiRows.get(state), 0, asciiTable, state << ASCII_BITS, ASCII_SIZE);
+        }
+        otherPredicates = otherPredicateList.toArray(new CharPredicate[0][]);
+        otherStates = otherStateList.toArray(new int[0][]);
+    }
+
+    /**
+     * Get the number of states in the DFA (including the state that matches nothing).
+     *
+     * @return      the number of states
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    /**
+     * Find the longest match of the pattern against the text at the given offset.
+     *
+     * @param   text    the text
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the end offset of the longest match, or -1 if the pattern does not match
+     */
+    int matchAt(CharSequence text, int from, int to) {
+        int[] asciiTable = this.asciiTable;
+        boolean[] accepting = this.accepting;
+        int state = initialState;
+        int result = accepting[state] ? from : -1;
+        for (int i = from; i < to; i++) {
+            char ch = text.charAt(i);
+            state = ch < ASCII_SIZE ? asciiTable[state << ASCII_BITS | ch] : otherTransition(state, ch);
+            if (state == DEAD)
+                break;
+            if (accepting[state])
+                result = i + 1;
+        }
+        return result;
+    }
+
+    private int otherTransition(int state, char ch) {
+        CharPredicate[] predicates = otherPredicates[state];
+        if (predicates == null)
+            return DEAD;
+        int combination = 0;
+        for (int j = 0; j < predicates.length; j++)
+            if (predicates[j].test(ch))
+                combination |= 1 << j;
+        return otherStates[state][combination];
+    }
+
+    private static BitSet single(int state) {
+        BitSet set = new BitSet();
+        set.set(state);
+        return set;
+    }
+
+    /**
+     * The start and end states of a part of the non-deterministic automaton (NFA).
+     */
+    private static class Fragment {
+
+        private final int start;
+        private final int end;
+
+        private Fragment(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    /**
+     * The builder of the NFA (using Thompson's construction), and the functions used in converting it to a DFA.  Each
+     * NFA state has any number of empty transitions, and at most one transition on a character predicate.
+     */
+    private static class Builder {
+
+        private final List<int[]> epsilon = new ArrayList<>();
+        private final List<Integer> edgePredicate = new ArrayList<>();
+        private final List<Integer> edgeTarget = new ArrayList<>();
+        private final List<CharPredicate> predicates = new ArrayList<>();
+        private final List<long[]> asciiBits = new ArrayList<>();
+        private final BitSet nonAscii = new BitSet();
+        private final Map<CharPredicate, Integer> predicateMap = new IdentityHashMap<>();
+        private final Map<Character, Integer> charMap = new HashMap<>();
+
+        private Fragment build(TextPattern pattern) {
+            switch (pattern.type) {
+            case TextPattern.LITERAL: {
+                int start = newState();
+                int state = start;
+                for (int k = 0; k < pattern.literal.length(); k++) {
+                    int next = newState();
+                    addEdge(state, charPredicate(pattern.literal.charAt(k)), next);
+                    state = next;
+                }
+                return new Fragment(start, state);
+            }
+            case TextPattern.CLASS: {
+                int start = newState();
+                int end = newState();
+                addEdge(start, predicate(pattern.predicate), end);
+                return new Fragment(start, end);
+            }
+            case TextPattern.SPAN:
+                return buildRepeat(null, predicate(pattern.predicate), pattern.maxCount, pattern.minCount);
+            case TextPattern.SEQUENCE: {
+                int start = newState();
+                int state = start;
+                for (TextPattern child : pattern.children) {
+                    Fragment fragment = build(child);
+                    addEpsilon(state, fragment.start);
+                    state = fragment.end;
+                }
+                return new Fragment(start, state);
+            }
+            case TextPattern.CHOICE: {
+                int start = newState();
+                int end = newState();
+                for (TextPattern child : pattern.children) {
+                    Fragment fragment = build(child);
+                    addEpsilon(start, fragment.start);
+                    addEpsilon(fragment.end, end);
+                }
+                return new Fragment(start, end);
+            }
+            case TextPattern.REPEAT:
+                return buildRepeat(pattern.children[0], -1, pattern.maxCount, pattern.minCount);
+            default: // CAPTURE
+                throw new IllegalArgumentException("RegularPattern can not include capture groups");
+            }
+        }
+
+        private Fragment buildRepeat(TextPattern child, int predicate, int maxCount, int minCount) {
+            // the repeated item is either a pattern or (for a sequence of characters) a single predicate
+            int start = newState();
+            int state = start;
+            for (int k = 0; k < minCount; k++)
+                state = appendItem(state, child, predicate);
+            int end = newState();
+            if (maxCount == 0) {
+                int loop = newState();
+                addEpsilon(state, loop);
+                addEpsilon(loop, end);
+                int last = appendItem(loop, child, predicate);
+                addEpsilon(last, loop);
+            }
+            else {
+                for (int k = maxCount - minCount; k > 0; k--) {
+                    addEpsilon(state, end);
+                    state = appendItem(state, child, predicate);
+                }
+                addEpsilon(state, end);
+            }
+            return new Fragment(start, end);
+        }
+
+        private int appendItem(int state, TextPattern child, int predicate) {
+            if (child != null) {
+                Fragment fragment = build(child);
+                addEpsilon(state, fragment.start);
+                return fragment.end;
+            }
+            int next = newState();
+            addEdge(state, predicate, next);
+            return next;
+        }
+
+        private int newState() {
+            // checked as the NFA is built, because a large repetition count would otherwise exhaust memory
+            if (epsilon.size() == MAX_NFA_STATES)
+                throw new IllegalArgumentException("RegularPattern too many states");
+            epsilon.add(null);
+            edgePredicate.add(-1);
+            edgeTarget.add(-1);
+            return epsilon.size() - 1;
+        }
+
+        private void addEpsilon(int from, int to) {
+            int[] targets = epsilon.get(from);
+            if (targets == null)
+                targets = new int[] { to };
+            else {
+                targets = Arrays.copyOf(targets, targets.length + 1);
+                targets[targets.length - 1] = to;
+            }
+            epsilon.set(from, targets);
+        }
+
+        private void addEdge(int from, int predicate, int to) {
+            edgePredicate.set(from, predicate);
+            edgeTarget.set(from, to);
+        }
+
+        private int charPredicate(char ch) {
+            Integer index = charMap.get(ch);
+            if (index == null) {
+                index = predicate(CharClass.of(String.valueOf(ch)));
+                charMap.put(ch, index);
+            }
+            return index;
+        }
+
+        private int predicate(CharPredicate predicate) {
+            Integer index = predicateMap.get(predicate);
+            if (index == null) {
+                index = predicates.size();
+                predicates.add(predicate);
+                long[] bits = new long[2];
+                for (int ch = 0; ch < ASCII_SIZE; ch++)
+                    if (predicate.test((char)ch))
+                        bits[ch >> 6] |= 1L << ch;
+                asciiBits.add(bits);
+                if (!(predicate instanceof CharClass) || ((CharClass)predicate).hasNonAscii())
+                    nonAscii.set(index);
+                predicateMap.put(predicate, index);
+            }
+            return index;
+        }
+
+        private boolean acceptsAscii(int predicate, int ch) {
+            return (asciiBits.get(predicate)[ch >> 6] & 1L << ch) != 0;
+        }
+
+        private BitSet closure(BitSet set) {
+            BitSet result = (BitSet)set.clone();
+            ArrayDeque<Integer> stack = new ArrayDeque<>();
+            for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1))
+                stack.push(s);
+            while (!stack.isEmpty()) {
+                int[] targets = epsilon.get(stack.pop());
+                if (targets != null) {
+                    for (int target : targets) {
+                        if (!result.get(target)) {
+                            result.set(target);
+                            stack.push(target);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private int intern(BitSet set, List<BitSet> sets, Map<BitSet, Integer> stateMap) {
+            Integer state = stateMap.get(set);
+            if (state == null) {
+                if (sets.size() == MAX_STATES)
+                    throw new IllegalArgumentException("RegularPattern too many states");
+                state = sets.size();
+                sets.add(set);
+                stateMap.put(set, state);
+            }
+            return state;
+        }
+
+    }
+
+}
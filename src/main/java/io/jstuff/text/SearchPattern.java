@@ -0,0 +1,285 @@
+/*
+ * @(#) SearchPattern.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * A precompiled search target, for use when the same sequence of characters is to be searched for repeatedly.  The
+ * tables required by the search algorithm are built once, when the {@code SearchPattern} is created, and the object
+ * may then be shared (it is immutable, and therefore thread-safe).
+ *
+ * <p>Short targets are searched for using the Boyer-Moore-Horspool algorithm, which is very fast on typical text; longer
+ * targets use the Two-Way algorithm (Crochemore and Perrin), which guarantees linear time even on highly repetitive text.
+ * Both algorithms use a bad-character shift table indexed by the low-order 8 bits of the character; characters that
+ * share a table entry simply result in a shorter (but still correct) shift.</p>
+ *
+ * @author  Peter Wall
+ */
+public class SearchPattern {
+
+    /** Targets of this length or greater will use the Two-Way algorithm. */
+    public static final int TWO_WAY_THRESHOLD = 16;
+
+    private static final int TABLE_SIZE = 256;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+
+    private final char[] target;
+    private final int[] shift;
+    private final int criticalPosition;
+    private final int period;
+    private final int memory;
+
+    /**
+     * Construct a {@code SearchPattern} with the specified target.
+     *
+     * @param   target      the target {@link CharSequence}
+     * @throws  NullPointerException    if the target is {@code null}
+     */
+    public SearchPattern(CharSequence target) {
+        if (target == null)
+            throw new NullPointerException("SearchPattern target must not be null");
+        int length = target.length();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = target.charAt(i);
+        this.target = chars;
+        if (length < 2) {
+            shift = null;
+            criticalPosition = 0;
+            period = 0;
+            memory = 0;
+        }
+        else if (length < TWO_WAY_THRESHOLD) {
+            shift = horspoolShiftTable(chars);
+            criticalPosition = 0;
+            period = 0;
+            memory = 0;
+        }
+        else {
+            shift = twoWayShiftTable(chars);
+            // compute the critical factorisation from the maximal suffixes for both orderings
+            int[] suffix = maximalSuffix(chars, false);
+            int[] suffixReversed = maximalSuffix(chars, true);
+            if (suffixReversed[0] > suffix[0])
+                suffix = suffixReversed;
+            int ms = suffix[0];
+            int p = suffix[1];
+            criticalPosition = ms;
+            if (isPeriodic(chars, p, ms)) {
+                period = p;
+                memory = length - p;
+            }
+            else {
+                period = Math.max(ms, length - ms - 1) + 1;
+                memory = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the target as a {@link String}.
+     *
+     * @return      the target
+     */
+    public String getTarget() {
+        return new String(target);
+    }
+
+    /**
+     * Get the length of the target.
+     *
+     * @return      the length
+     */
+    public int getLength() {
+        return target.length;
+    }
+
+    /**
+     * Find the first occurrence of the target in the specified range of a {@link CharSequence}.
+     *
+     * @param   text    the text to be searched
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive); the target must be contained entirely before this offset
+     * @return          the offset of the first occurrence of the target, or -1 if not found
+     */
+    public int find(CharSequence text, int from, int to) {
+        int length = target.length;
+        if (length == 0)
+            return from <= to ? from : -1;
+        if (length == 1)
+            return findChar(text, from, to);
+        if (length < TWO_WAY_THRESHOLD)
+            return findHorspool(text, from, to);
+        return findTwoWay(text, from, to);
+    }
+
+    /**
+     * Find the first occurrence of the target in a {@link CharSequence}.
+     *
+     * @param   text    the text to be searched
+     * @return          the offset of the first occurrence of the target, or -1 if not found
+     */
+    public int find(CharSequence text) {
+        return find(text, 0, text.length());
+    }
+
+    @Override
+    public String toString() {
+        return getTarget();
+    }
+
+    private int findChar(CharSequence text, int from, int to) {
+        char ch = target[0];
+        for (int i = from; i < to; i++)
+            if (text.charAt(i) == ch)
+                return i;
+        return -1;
+    }
+
+    private int findHorspool(CharSequence text, int from, int to) {
+        char[] target = this.target;
+        int[] shift = this.shift;
+        int last = target.length - 1;
+        char lastChar = target[last];
+        int stopper = to - target.length;
+        int i = from;
+        outer: while (i <= stopper) {
+            char ch = text.charAt(i + last);
+            if (ch == lastChar) {
+                for (int j = 0; j < last; j++) {
+                    if (text.charAt(i + j) != target[j]) {
+                        i += shift[ch & TABLE_MASK];
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            i += shift[ch & TABLE_MASK];
+        }
+        return -1;
+    }
+
+    private int findTwoWay(CharSequence text, int from, int to) {
+        char[] target = this.target;
+        int[] shift = this.shift;
+        int length = target.length;
+        int last = length - 1;
+        int ms = criticalPosition;
+        int stopper = to - length;
+        int h = from;
+        int mem = 0;
+        while (h <= stopper) {
+            // check the last character first, and use the shift table if it can't be the end of a match
+            int k = length - shift[text.charAt(h + last) & TABLE_MASK];
+            if (k != 0) {
+                h += k;
+                mem = 0;
+                continue;
+            }
+            // compare the right half
+            k = Math.max(ms + 1, mem);
+            while (k < length && target[k] == text.charAt(h + k))
+                k++;
+            if (k < length) {
+                h += k - ms;
+                mem = 0;
+                continue;
+            }
+            // compare the left half
+            k = ms + 1;
+            while (k > mem && target[k - 1] == text.charAt(h + k - 1))
+                k--;
+            if (k <= mem)
+                return h;
+            h += period;
+            mem = memory;
+        }
+        return -1;
+    }
+
+    private static int[] horspoolShiftTable(char[] target) {
+        int length = target.length;
+        int[] table = new int[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++)
+            table[i] = length;
+        for (int i = 0; i < length - 1; i++)
+            table[target[i] & TABLE_MASK] = length - 1 - i;
+        return table;
+    }
+
+    private static int[] twoWayShiftTable(char[] target) {
+        // each entry holds the (1-based) position of the last occurrence, so zero indicates no occurrence
+        int length = target.length;
+        int[] table = new int[TABLE_SIZE];
+        for (int i = 0; i < length; i++)
+            table[target[i] & TABLE_MASK] = i + 1;
+        return table;
+    }
+
+    /**
+     * Compute the position of the maximal suffix of the target, using either normal or reversed character ordering.
+     * The result is returned as a two-element array, containing the position and the period of the suffix.
+     */
+    private static int[] maximalSuffix(char[] target, boolean reversed) {
+        int length = target.length;
+        int ip = -1;
+        int jp = 0;
+        int k = 1;
+        int p = 1;
+        while (jp + k < length) {
+            char a = target[ip + k];
+            char b = target[jp + k];
+            if (a == b) {
+                if (k == p) {
+                    jp += p;
+                    k = 1;
+                }
+                else
+                    k++;
+            }
+            else if (reversed ? a < b : a > b) {
+                jp += k;
+                k = 1;
+                p = jp - ip;
+            }
+            else {
+                ip = jp++;
+                k = 1;
+                p = 1;
+            }
+        }
+        return new int[] { ip, p };
+    }
+
+    private static boolean isPeriodic(char[] target, int p, int ms) {
+        if (ms + p >= target.length)
+            return false;
+        for (int i = 0; i <= ms; i++)
+            if (target[i] != target[i + p])
+                return false;
+        return true;
+    }
+
+}
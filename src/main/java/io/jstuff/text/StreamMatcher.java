@@ -0,0 +1,675 @@
+/*
+ * @(#) StreamMatcher.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A text matching class to help with parsing streams of text of unbounded length.  It provides the same match, skip and
+ * result functions as {@link TextMatcher}, but reading the text from a {@link Reader} (or a {@link ReadableByteChannel}
+ * containing UTF-8 data) into a sliding buffer.
+ *
+ * <p>When a match or skip operation reaches the end of the data in the buffer, more data is read from the stream, and
+ * before reading, the data preceding the start index (which can no longer be accessed) is discarded.  The buffer will
+ * only grow beyond its initial size if a single match or skip result (the text between the start index and the current
+ * index) does not fit in it, so the memory used by the class depends on the size of the largest token, not on the size
+ * of the stream.</p>
+ *
+ * <p>Offsets are {@code long} values relative to the start of the stream.  The start index and the current index may
+ * not be set to a position before the oldest data retained in the buffer.  Errors reading the stream are reported as
+ * {@link UncheckedIOException}.</p>
+ *
+ * @author  Peter Wall
+ */
+public class StreamMatcher implements Closeable {
+
+    /** The default initial size of the buffer, in characters. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] buffer;
+    private long offset;
+    private int count;
+    private boolean eof;
+    private long start;
+    private long index;
+    private final DigitConverter.Source source = i -> buffer[(int)i];
+
+    /**
+     * Construct a {@code StreamMatcher} reading from the specified {@link Reader}, using the default buffer size.
+     *
+     * @param   reader      the {@link Reader}
+     */
+    public StreamMatcher(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Construct a {@code StreamMatcher} reading from the specified {@link Reader}, using the specified initial buffer
+     * size.
+     *
+     * @param   reader      the {@link Reader}
+     * @param   bufferSize  the initial buffer size
+     * @throws  IllegalArgumentException    if the buffer size is less than 1
+     */
+    public StreamMatcher(Reader reader, int bufferSize) {
+        if (reader == null)
+            throw new NullPointerException("StreamMatcher reader must not be null");
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+        this.reader = reader;
+        buffer = new char[bufferSize];
+        offset = 0;
+        count = 0;
+        eof = false;
+        start = 0;
+        index = 0;
+    }
+
+    /**
+     * Construct a {@code StreamMatcher} reading UTF-8 data from the specified {@link ReadableByteChannel}, using the
+     * default buffer size.
+     *
+     * @param   channel     the {@link ReadableByteChannel}
+     */
+    public StreamMatcher(ReadableByteChannel channel) {
+        this(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Get the offset of the oldest character retained in the buffer.  The start index and the current index may not be
+     * set to a position before this offset.
+     *
+     * @return              the offset of the oldest retained character
+     */
+    public long getBufferOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the current size of the buffer.
+     *
+     * @return              the buffer size
+     */
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    /**
+     * Get the start index (the index of the start of the last matched sequence).
+     *
+     * @return              the start index
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Set the start index.  If the current index is less than the new start index, make them equal.
+     *
+     * @param   start       the new start index
+     * @throws  IndexOutOfBoundsException   if the new start index is before the oldest retained character or beyond the
+     *                                      end of the stream
+     */
+    public void setStart(long start) {
+        checkIndex(start);
+        this.start = start;
+        if (index < start)
+            index = start;
+    }
+
+    /**
+     * Get the current index (the offset within the stream).
+     *
+     * @return              the index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the current index.  If the new current index is less than the start index, make them equal.
+     *
+     * @param   index       the new current index
+     * @throws  IndexOutOfBoundsException   if the new index is before the oldest retained character or beyond the end
+     *                                      of the stream
+     */
+    public void setIndex(long index) {
+        checkIndex(index);
+        this.index = index;
+        if (index < start)
+            start = index;
+    }
+
+    /**
+     * Test whether the {@code StreamMatcher} object is exhausted (the index has reached the end of the stream).  This
+     * may cause more data to be read.
+     *
+     * @return          {@code true} if the index has reached the end of the stream
+     */
+    public boolean isAtEnd() {
+        return !available(index);
+    }
+
+    /**
+     * Undo the effect of the last match operation.
+     */
+    public void revert() {
+        index = start;
+    }
+
+    /**
+     * Match the current character against a given character.  Following a successful match the start index will point
+     * to the matched character and the index will be incremented past it.
+     *
+     * @param   ch      the character to match against
+     * @return          {@code true} if the character matches the given character
+     */
+    public boolean match(char ch) {
+        if (!available(index) || buffer[(int)(index - offset)] != ch)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index against a given {@link CharSequence} ({@link String}, {@link StringBuilder}
+     * etc.).  Following a successful match the start index will point to the first character of the matched sequence
+     * and the index will be incremented past it.
+     *
+     * @param target    the target {@link CharSequence}
+     * @return          {@code true} if the characters at the index match the target
+     */
+    public boolean match(CharSequence target) {
+        int len = target.length();
+        if (len > 0 && !available(index + len - 1))
+            return false;
+        int j = (int)(index - offset);
+        for (int k = 0; k < len; k++)
+            if (buffer[j++] != target.charAt(k))
+                return false;
+        start = index;
+        index += len;
+        return true;
+    }
+
+    /**
+     * Match the current character using the specified comparison function.  Following a successful match the start
+     * index will point to the matched character and the index will be incremented past it.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the character matches using the comparison function
+     */
+    public boolean match(CharPredicate comparison) {
+        if (!available(index) || !comparison.test(buffer[(int)(index - offset)]))
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the current character against any of the characters in a given {@link String}.  Following a successful
+     * match the start index will point to the matched character and the index will be incremented past it.
+     *
+     * @param   any     the characters to match against (as a {@link String})
+     * @return          {@code true} if the character at the index matches any of the characters in the string
+     */
+    public boolean matchAny(String any) {
+        if (!available(index) || any.indexOf(buffer[(int)(index - offset)]) < 0)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index using the specified comparison function, with a given minimum number of
+     * characters and an optional maximum.  To match a fixed number of characters, the maximum and minimum should be set
+     * to the same value.
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of characters for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the characters at the index satisfy the comparison function (subject to the
+     *                      specified minimum and maximum number of characters)
+     */
+    public boolean matchSeq(int maxChars, int minChars, CharPredicate comparison) {
+        long i = scan(maxChars, comparison);
+        if (i - index < minChars)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index using the specified comparison function, with a minimum of 1 character and an
+     * optional maximum.
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more characters at the index satisfy the comparison function (subject
+     *                      to the specified maximum number of characters)
+     */
+    public boolean matchSeq(int maxChars, CharPredicate comparison) {
+        return matchSeq(maxChars, 1, comparison);
+    }
+
+    /**
+     * Match the characters at the index using the specified comparison function, with a minimum of 1 character and no
+     * maximum.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more characters at the index satisfy the comparison function
+     */
+    public boolean matchSeq(CharPredicate comparison) {
+        return matchSeq(0, 1, comparison);
+    }
+
+    /**
+     * Match the characters at the index as decimal digits, with a given minimum number of digits and an optional
+     * maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              {@code true} if the characters at the index are decimal digits (subject to the specified
+     *                      minimum and maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the characters at the index as decimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if one or more characters at the index are decimal digits (subject to the
+     *                      specified maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the characters at the index as decimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              {@code true} if one or more characters at the index are decimal digits
+     */
+    public boolean matchDec() {
+        return matchSeq(0, 1, TextMatcher::isDigit);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, with a given minimum number of digits and an optional
+     * maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              {@code true} if the characters at the index are hexadecimal digits (subject to the specified
+     *                      minimum and maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits, int minDigits) {
+        return matchSeq(maxDigits, minDigits, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, with a minimum of 1 digit and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if one or more characters at the index are hexadecimal digits (subject to the
+     *                      specified maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits) {
+        return matchSeq(maxDigits, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, with a minimum of 1 digit and no maximum.
+     *
+     * @return              {@code true} if one or more characters at the index are hexadecimal digits
+     */
+    public boolean matchHex() {
+        return matchSeq(0, 1, TextMatcher::isHexDigit);
+    }
+
+    /**
+     * Match the characters at the index as a continuation using the specified comparison function, with a given minimum
+     * number of characters and an optional maximum, but do not set the start index on success, and on fail, set the
+     * index back to the start index (as if the original match had failed).
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of characters for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the characters at the index satisfy the comparison function (subject to the
+     *                      specified minimum and maximum number of characters)
+     */
+    public boolean matchContinue(int maxChars, int minChars, CharPredicate comparison) {
+        long i = scan(maxChars, comparison);
+        if (i - index < minChars) {
+            index = start;
+            return false;
+        }
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index as a continuation using the specified comparison function, with no minimum
+     * number of characters and an optional maximum.
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail)
+     */
+    public boolean matchContinue(int maxChars, CharPredicate comparison) {
+        return matchContinue(maxChars, 0, comparison);
+    }
+
+    /**
+     * Match the characters at the index as a continuation using the specified comparison function, with no minimum or
+     * maximum number of characters.
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail)
+     */
+    public boolean matchContinue(CharPredicate comparison) {
+        return matchContinue(0, 0, comparison);
+    }
+
+    /**
+     * Increment the index past any characters matching any of the characters in a given string.
+     *
+     * @param   any     the characters to be skipped, as a {@link String}
+     */
+    public void skipAny(String any) {
+        start = index;
+        while (available(index) && any.indexOf(buffer[(int)(index - offset)]) >= 0)
+            index++;
+    }
+
+    /**
+     * Increment the index past any instances of the given character.
+     *
+     * @param   ch      the character to be skipped
+     */
+    public void skip(char ch) {
+        start = index;
+        while (available(index) && buffer[(int)(index - offset)] == ch)
+            index++;
+    }
+
+    /**
+     * Increment the index past any characters matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     */
+    public void skip(CharPredicate comparison) {
+        start = index;
+        index = scan(0, comparison);
+    }
+
+    /**
+     * Increment the index to the next instance of the given character, or to end of the stream if character not found.
+     * Note that the skipped text is retained in the buffer (it forms the result of the operation), so skipping a large
+     * amount of text will cause the buffer to grow; to discard text, use {@link #setStart(long)} or a match operation
+     * on the newly-read data.
+     *
+     * @param   ch      the character to be skipped to
+     */
+    public void skipTo(char ch) {
+        start = index;
+        while (available(index)) {
+            char[] buf = buffer;
+            int j = (int)(index - offset);
+            int stopper = count;
+            while (j < stopper && buf[j] != ch)
+                j++;
+            index = offset + j;
+            if (j < stopper)
+                return;
+        }
+    }
+
+    /**
+     * Increment the index to the next instance of the given {@link CharSequence}, or to end of the stream if target not
+     * found.
+     *
+     * @param   target  the string to be skipped to
+     */
+    public void skipTo(CharSequence target) {
+        start = index;
+        int targetLength = target.length();
+        if (targetLength == 0)
+            return;
+        char firstChar = target.charAt(0);
+        outer: while (available(index + targetLength - 1)) {
+            int j = (int)(index - offset);
+            if (buffer[j] == firstChar) {
+                for (int k = 1; k < targetLength; k++)
+                    if (buffer[j + k] != target.charAt(k)) {
+                        index++;
+                        continue outer;
+                    }
+                return;
+            }
+            index++;
+        }
+        index = offset + count;
+    }
+
+    /**
+     * Increment the index directly to the end of the stream.  All the remaining text in the stream is read into the
+     * buffer (it forms the result of the operation).
+     */
+    public void skipToEnd() {
+        start = index;
+        while (!eof)
+            fill();
+        index = offset + count;
+    }
+
+    /**
+     * Increment the index by a fixed amount.
+     *
+     * @param   n       the number of characters to skip (must be positive)
+     * @throws  IllegalArgumentException if the increment is negative
+     * @throws  IndexOutOfBoundsException if the incremented index is beyond end of stream
+     */
+    public void skipFixed(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException(String.valueOf(n));
+        long newIndex = index + n;
+        if (n > 0 && !available(newIndex - 1))
+            throw new IndexOutOfBoundsException(String.valueOf(newIndex));
+        start = index;
+        index = newIndex;
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}.
+     *
+     * @return          the result of the last match
+     */
+    public String getResult() {
+        return new String(buffer, (int)(start - offset), (int)(index - start));
+    }
+
+    /**
+     * Append the result of the last match operation to an {@link Appendable}.
+     *
+     * @param   a       the {@link Appendable}
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public void appendResultTo(Appendable a) throws IOException {
+        int j = (int)(start - offset);
+        int stopper = (int)(index - offset);
+        while (j < stopper)
+            a.append(buffer[j++]);
+    }
+
+    /**
+     * Get the first character of the result of the last match operation.
+     *
+     * @return          the first character of the result of the last match
+     * @throws  IndexOutOfBoundsException if the start index at or beyond the end of the stream
+     */
+    public char getResultChar() {
+        if (!available(start))
+            throw new IndexOutOfBoundsException(String.valueOf(start));
+        return buffer[(int)(start - offset)];
+    }
+
+    /**
+     * Get the length of the result of the last match operation.
+     *
+     * @return          the length of the result of the last match
+     */
+    public int getResultLength() {
+        return (int)(index - start);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @return          the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt() {
+        return getResultInt(false);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultInt(boolean negative) {
+        return (int)DigitConverter.convertDec(source, start - offset, index - offset, negative, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @return          the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong() {
+        return getResultLong(false);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @return              the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultLong(boolean negative) {
+        return DigitConverter.convertDec(source, start - offset, index - offset, negative, Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code int}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as an {@code int}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code int}
+     */
+    public int getResultHexInt() {
+        return (int)DigitConverter.convertHex(source, start - offset, index - offset, 32);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code long}, treating the digits as hexadecimal.
+     *
+     * @return          the result of the last match as a {@code long}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid {@code long}
+     */
+    public long getResultHexLong() {
+        return DigitConverter.convertHex(source, start - offset, index - offset, 64);
+    }
+
+    /**
+     * Close the underlying {@link Reader}.
+     *
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void checkIndex(long i) {
+        if (i < offset || i > offset + count && !available(i - 1))
+            throw new IndexOutOfBoundsException(String.valueOf(i));
+    }
+
+    private long scan(int maxChars, CharPredicate comparison) {
+        long i = index;
+        long stopper = maxChars > 0 ? i + maxChars : Long.MAX_VALUE;
+        while (i < stopper && available(i) && comparison.test(buffer[(int)(i - offset)]))
+            i++;
+        return i;
+    }
+
+    private boolean available(long i) {
+        while (i >= offset + count) {
+            if (eof)
+                return false;
+            fill();
+        }
+        return true;
+    }
+
+    private void fill() {
+        int discard = (int)(start - offset);
+        if (discard > 0) {
+            System.arraycopy(buffer, discard, buffer, 0, count - discard);
+            offset = start;
+            count -= discard;
+        }
+        if (count == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        try {
+            int n = reader.read(buffer, count, buffer.length - count);
+            if (n < 0)
+                eof = true;
+            else
+                count += n;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * @(#) StringCache.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+/**
+ * A bounded cache of {@link String}s, used to return a canonical instance for recurring substrings of a text without
+ * allocating a new {@link String} each time.  The cache is direct-mapped: each string occupies the slot selected by its
+ * hash code, replacing any previous occupant of that slot.
+ *
+ * <p>The cache is shared by all threads without locking.  A slot holds a reference to an immutable {@link String}, so
+ * a thread will always see either the previous occupant, the new one, or an empty slot; at worst, a race will cause an
+ * entry to be replaced or a string to be created that could have been found in the cache.</p>
+ *
+ * @author  Peter Wall
+ */
+final class StringCache {
+
+    static final int MAX_LENGTH = 32;
+    private static final int SIZE = 4096;
+
+    private static final String[] entries = new String[SIZE];
+
+    private StringCache() {}
+
+    /**
+     * Get a {@link String} equal to the given region of a text, returning an existing instance from the cache if
+     * possible.  Strings longer than {@link #MAX_LENGTH} are not cached.
+     *
+     * @param   text    the text
+     * @param   start   the start offset
+     * @param   end     the end offset (exclusive)
+     * @return          the {@link String}
+     */
+    static String get(CharSequence text, int start, int end) {
+        if (end - start > MAX_LENGTH)
+            return TextMatcher.substring(text, start, end);
+        int h = 0;
+        for (int i = start; i < end; i++)
+            h = 31 * h + text.charAt(i);
+        return get(text, start, end, h);
+    }
+
+    /**
+     * Get a {@link String} equal to the given region of a text, as {@link #get(CharSequence, int, int)}, using a hash
+     * code already computed for the region (for example, during the match that identified it).
+     *
+     * @param   text    the text
+     * @param   start   the start offset
+     * @param   end     the end offset (exclusive)
+     * @param   h       the {@link String}-compatible hash code of the region
+     * @return          the {@link String}
+     */
+    static String get(CharSequence text, int start, int end, int h) {
+        int length = end - start;
+        if (length > MAX_LENGTH)
+            return TextMatcher.substring(text, start, end);
+        int slot = (h ^ (h >>> 16)) & (SIZE - 1);
+        String[] cache = entries;
+        String entry = cache[slot];
+        if (entry != null && entry.hashCode() == h && regionEquals(entry, text, start, length))
+            return entry;
+        entry = TextMatcher.substring(text, start, end);
+        cache[slot] = entry;
+        return entry;
+    }
+
+    private static boolean regionEquals(String entry, CharSequence text, int start, int length) {
+        if (entry.length() != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (entry.charAt(i) != text.charAt(start + i))
+                return false;
+        return true;
+    }
+
+}
@@ -2,7 +2,7 @@
  * @(#) TextMatcher.java
  *
  * TextMatcher  Text matching functions
- * Copyright (c) 2021, 2022, 2024, 2025 Peter Wall
+ * Copyright (c) 2021, 2022, 2024, 2025, 2026 Peter Wall
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy
  * of this software and associated documentation files (the "Software"), to deal
@@ -26,11 +26,19 @@
 package io.jstuff.text;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * A text matching class to help with parsing text strings.  It maintains a current pointer within a string and updates
  * this pointer on a successful match.
  *
+ * <p>The text may be supplied as a {@link String}, as any other form of {@link CharSequence} (for example, a
+ * {@link StringBuilder} or a {@link CharBuffer}), or as a region of a {@code char} array.  The text is not copied, so
+ * the content of a mutable text must not be modified while it is being matched.</p>
+ *
  * <p>The {@code TextMatcher} has four main types of functions:</p>
  * <dl>
  *     <dt>{@code Match} functions</dt>
@@ -50,6 +58,12 @@ public class TextMatcher {
 
     private static final int MAX_INT_MASK = 0xF << 28;
     private static final long MAX_LONG_MASK = ((long)0xF) << 60;
+    private static final int MAX_SAFE_DIGITS = 18;
+    private static final int UUID_LENGTH = 36;
+    private static final int MIN_DATE_TIME_LENGTH = 20;
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final long HASH64_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long HASH64_PRIME = 0x100000001B3L;
 
     private static final byte[] hexValues = new byte[] {
             -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
@@ -62,10 +76,27 @@ public class TextMatcher {
             -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1
     };
 
-    private final String text;
-    private final int length;
+    private CharSequence text;
+    private String string;
+    private char[] array;
+    private int arrayOffset;
+    private int arrayLength;
+    private CharArraySequence arraySequence;
+    private int[] patternStack;
+    private int length;
     private int start;
     private int index;
+    private long matchedValue;
+    private long epochSecond;
+    private int nanos;
+    private int dateTimeStart;
+    private int dateTimeEnd = -1;
+    private int resultHash;
+    private long resultHash64;
+    private int hashStart;
+    private int hashEnd = -1;
+    private int[] lineStarts;
+    private int lineCount;
 
     /**
      * Construct a {@code TextMatcher} with the specified text.
@@ -76,19 +107,109 @@ public class TextMatcher {
     public TextMatcher(String text) {
         if (text == null)
             throw new NullPointerException("TextMatcher text must not be null");
-        this.text = text;
-        length = text.length();
-        start = 0;
-        index = 0;
+        setText(text, 0, text.length());
+    }
+
+    /**
+     * Construct a {@code TextMatcher} with the specified text, as a {@link CharSequence}.
+     *
+     * @param   text        the text
+     * @throws  NullPointerException    if the text is {@code null}
+     */
+    public TextMatcher(CharSequence text) {
+        if (text == null)
+            throw new NullPointerException("TextMatcher text must not be null");
+        setText(text, 0, text.length());
+    }
+
+    /**
+     * Construct a {@code TextMatcher} to match a region of a {@code char} array.  The start index and the current index
+     * will be set to the start of the region, and the end of the region will be treated as the end of the text.  Offsets
+     * remain relative to the start of the array.
+     *
+     * @param   chars       the array
+     * @param   from        the start offset of the region
+     * @param   to          the end offset of the region (exclusive)
+     * @throws  NullPointerException        if the array is {@code null}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the start
+     *                                      offset, or the end offset is greater than the length of the array
+     */
+    public TextMatcher(char[] chars, int from, int to) {
+        checkRegion(chars, from, to);
+        setArray(chars, 0, chars.length, from, to);
+    }
+
+    /**
+     * Reset the {@code TextMatcher} to match a new text.  This allows a single {@code TextMatcher} to be re-used for a
+     * sequence of texts, avoiding the creation of a new object for each.
+     *
+     * @param   text        the new text
+     * @throws  NullPointerException    if the text is {@code null}
+     */
+    public void reset(CharSequence text) {
+        if (text == null)
+            throw new NullPointerException("TextMatcher text must not be null");
+        setText(text, 0, text.length());
+    }
+
+    /**
+     * Reset the {@code TextMatcher} to match a region of a new text.  The start index and the current index will be set
+     * to the start of the region, and the end of the region will be treated as the end of the text.  Offsets (including
+     * the start index and the current index) remain relative to the start of the entire text.
+     *
+     * @param   text        the new text
+     * @param   from        the start offset of the region
+     * @param   to          the end offset of the region (exclusive)
+     * @throws  NullPointerException        if the text is {@code null}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the start
+     *                                      offset, or the end offset is greater than the length of the text
+     */
+    public void reset(CharSequence text, int from, int to) {
+        if (text == null)
+            throw new NullPointerException("TextMatcher text must not be null");
+        if (from < 0 || to > text.length() || to < from)
+            throw new IndexOutOfBoundsException(String.valueOf(from) + ':' + to);
+        setText(text, from, to);
+    }
+
+    /**
+     * Reset the {@code TextMatcher} to match a region of a {@code char} array.  The start index and the current index
+     * will be set to the start of the region, and the end of the region will be treated as the end of the text.  Offsets
+     * remain relative to the start of the array.
+     *
+     * <p>The {@link CharSequence} view of the array is re-used (not re-created) on each reset, so any
+     * {@link CharSequence} obtained from a previous array (for example, by {@link #getResultCharSeq()}) will refer to
+     * the new array; {@code toString()} should be used to retain the content of a result beyond the reset.</p>
+     *
+     * @param   chars       the array
+     * @param   from        the start offset of the region
+     * @param   to          the end offset of the region (exclusive)
+     * @throws  NullPointerException        if the array is {@code null}
+     * @throws  IndexOutOfBoundsException   if the start offset is less than zero, the end offset is less than the start
+     *                                      offset, or the end offset is greater than the length of the array
+     */
+    public void reset(char[] chars, int from, int to) {
+        checkRegion(chars, from, to);
+        setArray(chars, 0, chars.length, from, to);
     }
 
     /**
-     * Get the entire text.
+     * Get the entire text.  If the text was not supplied as a {@link String}, this will create a new {@link String}.
      *
      * @return      the text
      */
     public String getText() {
-        return text;
+        return sequence().toString();
+    }
+
+    /**
+     * Get the entire text as a {@link CharSequence}.  Unlike {@link #getText()}, this will never create a new
+     * {@link String}.
+     *
+     * @return      the text
+     */
+    public CharSequence getTextSequence() {
+        return sequence();
     }
 
     /**
@@ -99,11 +220,12 @@ public class TextMatcher {
      * @throws  IndexOutOfBoundsException   if the index is invalid
      */
     public char getChar(int index) {
-        return text.charAt(index);
+        return sequence().charAt(index);
     }
 
     /**
-     * Get the length of the entire text.
+     * Get the length of the entire text (or the end offset of the region, if the {@code TextMatcher} has been reset to a
+     * region of a text).
      *
      * @return              the text length
      */
@@ -173,6 +295,62 @@ public class TextMatcher {
         index = start;
     }
 
+    /**
+     * Get the line number (starting from 1) of the character at the nominated index.  Lines are separated by newline
+     * ({@code '\n'}) characters, and are counted from the start of the entire text.  The first call to this function
+     * (or to {@link #getColumn(int)}, {@link #getLineStart(int)} or {@link #getLineCount()}) builds an index of the
+     * start offsets of the lines, so that subsequent calls take time proportional to the logarithm of the number of
+     * lines; the index is discarded when the {@code TextMatcher} is reset.
+     *
+     * @param   index       the index (may be equal to the text length)
+     * @return              the line number
+     * @throws  IndexOutOfBoundsException   if the index is less than 0 or greater than the text length
+     */
+    public int getLine(int index) {
+        if (index < 0 || index > length)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        int[] lineStarts = getLineStarts();
+        int i = Arrays.binarySearch(lineStarts, 0, lineCount, index);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Get the column number (starting from 1) of the character at the nominated index, within the line as returned by
+     * {@link #getLine(int)}.
+     *
+     * @param   index       the index (may be equal to the text length)
+     * @return              the column number
+     * @throws  IndexOutOfBoundsException   if the index is less than 0 or greater than the text length
+     */
+    public int getColumn(int index) {
+        int line = getLine(index);
+        return index - lineStarts[line - 1] + 1;
+    }
+
+    /**
+     * Get the offset of the first character of the nominated line.
+     *
+     * @param   line        the line number (starting from 1)
+     * @return              the offset of the start of the line
+     * @throws  IndexOutOfBoundsException   if the line number is less than 1 or greater than the number of lines
+     */
+    public int getLineStart(int line) {
+        int[] lineStarts = getLineStarts();
+        if (line < 1 || line > lineCount)
+            throw new IndexOutOfBoundsException(String.valueOf(line));
+        return lineStarts[line - 1];
+    }
+
+    /**
+     * Get the number of lines in the text (the number of newline characters, plus 1).
+     *
+     * @return              the number of lines
+     */
+    public int getLineCount() {
+        getLineStarts();
+        return lineCount;
+    }
+
     /**
      * Match the current character in the text against a given character.  Following a successful match the start index
      * will point to the matched character and the index will be incremented past it.
@@ -181,7 +359,7 @@ public class TextMatcher {
      * @return          {@code true} if the character in the text matches the given character
      */
     public boolean match(char ch) {
-        if (index >= length || text.charAt(index) != ch)
+        if (index >= length || charAt(index) != ch)
             return false;
         start = index++;
         return true;
@@ -201,7 +379,7 @@ public class TextMatcher {
             return false;
         int i = index;
         for (int j = 0; j < len; j++)
-            if (text.charAt(i++) != target.charAt(j))
+            if (charAt(i++) != target.charAt(j))
                 return false;
         start = index;
         index = i;
@@ -216,7 +394,7 @@ public class TextMatcher {
      * @return              {@code true} if the character in the text matches using the comparison function
      */
     public boolean match(CharPredicate comparison) {
-        if (index >= length || !comparison.test(text.charAt(index)))
+        if (index >= length || !comparison.test(charAt(index)))
             return false;
         start = index++;
         return true;
@@ -233,12 +411,79 @@ public class TextMatcher {
     public boolean matchAny(String any) {
         if (index >= length)
             return false;
-        if (any.indexOf(text.charAt(index)) < 0)
+        if (any.indexOf(charAt(index)) < 0)
             return false;
         start = index++;
         return true;
     }
 
+    /**
+     * Match the characters at the index against the keywords in a {@link KeywordSet}.  If more than one keyword
+     * matches, the longest is selected.  Following a successful match the start index will point to the first character
+     * of the matched keyword and the index will be incremented past it.
+     *
+     * @param   keywords    the {@link KeywordSet}
+     * @return              the id of the matched keyword, or -1 if no keyword matches
+     */
+    public int matchOneOf(KeywordSet keywords) {
+        int id = keywords.matchAt(sequence(), index, length);
+        if (id >= 0) {
+            start = index;
+            index += keywords.getKeyword(id).length();
+        }
+        return id;
+    }
+
+    /**
+     * Match the characters at the index against a {@link TextPattern}.  Following a successful match the start index
+     * will point to the first character of the match and the index will be incremented past it.
+     *
+     * @param   pattern     the {@link TextPattern}
+     * @return              {@code true} if the pattern matches the characters at the index
+     */
+    public boolean match(TextPattern pattern) {
+        return match(pattern, null);
+    }
+
+    /**
+     * Match the characters at the index against a {@link TextPattern}, recording the offsets of the capture groups in
+     * the pattern.  The offsets of capture group {@code n} are stored in elements {@code 2n} (start) and {@code 2n + 1}
+     * (end) of the array, or -1 if the group did not take part in the match; the contents of the array are undefined if
+     * the match fails.  Following a successful match the start index will point to the first character of the match
+     * and the index will be incremented past it.
+     *
+     * @param   pattern     the {@link TextPattern}
+     * @param   captures    the array to receive the capture group offsets (may be {@code null} if not required)
+     * @return              {@code true} if the pattern matches the characters at the index
+     * @throws  IllegalArgumentException    if the array has fewer than twice the number of capture groups elements
+     */
+    public boolean match(TextPattern pattern, int[] captures) {
+        int[] stack = patternStack = pattern.getStack(patternStack);
+        int i = pattern.matchAt(sequence(), index, length, captures, stack);
+        if (i < 0)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index against a {@link RegularPattern}, selecting the longest match if there is more
+     * than one.  Following a successful match the start index will point to the first character of the match and the
+     * index will be incremented past it.
+     *
+     * @param   pattern     the {@link RegularPattern}
+     * @return              {@code true} if the pattern matches the characters at the index
+     */
+    public boolean match(RegularPattern pattern) {
+        int i = pattern.matchAt(sequence(), index, length);
+        if (i < 0)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
     /**
      * Match the characters at the index using the specified comparison function, with a given minimum number of
      * characters and an optional maximum.  To match a fixed number of characters, the maximum and minimum should be set
@@ -253,7 +498,7 @@ public class TextMatcher {
     public boolean matchSeq(int maxChars, int minChars, CharPredicate comparison) {
         int i = index;
         int stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
-        while (i < stopper && comparison.test(text.charAt(i)))
+        while (i < stopper && comparison.test(charAt(i)))
             i++;
         if (i - index < minChars)
             return false;
@@ -320,6 +565,142 @@ public class TextMatcher {
         return matchSeq(0, 1, TextMatcher::isDigit);
     }
 
+    /**
+     * Match the characters at the index as a signed decimal {@code int}, converting the value in the same pass.  The
+     * number may be preceded by a {@code -} or {@code +} sign, and must have at least 1 digit (and not more than the
+     * specified maximum).  The match fails if the value is outside the range of an {@code int}.  Following a successful
+     * match the start index will point to the sign or the first digit, the index will be incremented past the digits,
+     * and the value will be available from {@link #getMatchedInt()}.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if the characters at the index are a valid {@code int}
+     */
+    public boolean matchInt(int maxDigits) {
+        return matchSigned(maxDigits, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Match the characters at the index as a signed decimal {@code int}, with no maximum number of digits (see
+     * {@link #matchInt(int)}).
+     *
+     * @return              {@code true} if the characters at the index are a valid {@code int}
+     */
+    public boolean matchInt() {
+        return matchSigned(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Match the characters at the index as a signed decimal {@code long}, converting the value in the same pass.  The
+     * number may be preceded by a {@code -} or {@code +} sign, and must have at least 1 digit (and not more than the
+     * specified maximum).  The match fails if the value is outside the range of a {@code long}.  Following a successful
+     * match the start index will point to the sign or the first digit, the index will be incremented past the digits,
+     * and the value will be available from {@link #getMatchedLong()}.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if the characters at the index are a valid {@code long}
+     */
+    public boolean matchLong(int maxDigits) {
+        return matchSigned(maxDigits, Long.MAX_VALUE);
+    }
+
+    /**
+     * Match the characters at the index as a signed decimal {@code long}, with no maximum number of digits (see
+     * {@link #matchLong(int)}).
+     *
+     * @return              {@code true} if the characters at the index are a valid {@code long}
+     */
+    public boolean matchLong() {
+        return matchSigned(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, converting the value to an unsigned {@code int} in the
+     * same pass.  At least 1 digit (and not more than the specified maximum) must be present, and the match fails if the
+     * value does not fit in 32 bits (leading zeros are allowed).  Following a successful match the start index will
+     * point to the first digit, the index will be incremented past the digits, and the value will be available from
+     * {@link #getMatchedInt()}.  Runs of 8 digits are validated and converted together.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if the characters at the index are a valid hexadecimal {@code int}
+     */
+    public boolean matchHexInt(int maxDigits) {
+        return matchHexValue(maxDigits, 32);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, converting the value to an unsigned {@code int}, with no
+     * maximum number of digits (see {@link #matchHexInt(int)}).
+     *
+     * @return              {@code true} if the characters at the index are a valid hexadecimal {@code int}
+     */
+    public boolean matchHexInt() {
+        return matchHexValue(0, 32);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, converting the value to an unsigned {@code long} in the
+     * same pass.  At least 1 digit (and not more than the specified maximum) must be present, and the match fails if the
+     * value does not fit in 64 bits (leading zeros are allowed).  Following a successful match the start index will
+     * point to the first digit, the index will be incremented past the digits, and the value will be available from
+     * {@link #getMatchedLong()}.  Runs of 8 digits are validated and converted together.
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @return              {@code true} if the characters at the index are a valid hexadecimal {@code long}
+     */
+    public boolean matchHexLong(int maxDigits) {
+        return matchHexValue(maxDigits, 64);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, converting the value to an unsigned {@code long}, with no
+     * maximum number of digits (see {@link #matchHexLong(int)}).
+     *
+     * @return              {@code true} if the characters at the index are a valid hexadecimal {@code long}
+     */
+    public boolean matchHexLong() {
+        return matchHexValue(0, 64);
+    }
+
+    /**
+     * Get the value converted by the last successful {@link #matchInt(int)} or {@link #matchHexInt(int)} operation.
+     *
+     * @return              the value
+     */
+    public int getMatchedInt() {
+        return (int)matchedValue;
+    }
+
+    /**
+     * Get the value converted by the last successful {@link #matchLong(int)} or {@link #matchHexLong(int)} (or
+     * {@link #matchInt(int)} or {@link #matchHexInt(int)}) operation.  Following {@link #matchHexInt(int)}, the value is
+     * not sign-extended, so that (for example) {@code FFFFFFFF} gives {@code 0xFFFFFFFFL}, where
+     * {@link #getMatchedInt()} gives -1.
+     *
+     * @return              the value
+     */
+    public long getMatchedLong() {
+        return matchedValue;
+    }
+
+    /**
+     * Match the characters at the index as a decimal number: an optional {@code -} or {@code +} sign, one or more
+     * digits, optionally a decimal point followed by one or more digits, and optionally an exponent ({@code e} or
+     * {@code E}, an optional sign and one or more digits).  A decimal point or exponent indicator not followed by a digit
+     * is not included in the match.  Following a successful match the start index will point to the first character of
+     * the number and the index will be incremented past it; the value may then be retrieved using
+     * {@link #getResultDouble()} or {@link #getResultBigDecimal()}.
+     *
+     * @return              {@code true} if the characters at the index are a decimal number
+     */
+    public boolean matchDecimal() {
+        int i = DecimalParser.scan(sequence(), index, length);
+        if (i < 0)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
     /**
      * Match the characters at the index as hexadecimal digits, with a given minimum number of digits and an optional
      * maximum.  To match a fixed number of digits, the maximum and minimum should be set to the same value.
@@ -353,6 +734,46 @@ public class TextMatcher {
         return matchSeq(0, 1, TextMatcher::isHexDigit);
     }
 
+    /**
+     * Match the characters at the index as a UUID in the canonical 8-4-4-4-12 form (32 hexadecimal digits, in upper or
+     * lower case, separated into groups by hyphens).  Exactly 36 characters are matched; the character following the
+     * UUID (if any) is not checked.  The value may then be retrieved using {@link #getResultUUID()} or
+     * {@link #getResultHex128(long[])}.
+     *
+     * @return              {@code true} if the characters at the index are a UUID
+     */
+    public boolean matchUUID() {
+        int i = index;
+        if (length - i < UUID_LENGTH || !isUUIDHyphens(i) || (convertHexGroup(i, i + 4) | convertHexGroup(i + 9, i + 14) |
+                convertHexGroup(i + 19, i + 24) | convertHexGroup(i + 28, i + 32)) < 0)
+            return false;
+        start = i;
+        index = i + UUID_LENGTH;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index as an ISO 8601 date-time with offset, in the form
+     * {@code yyyy-MM-ddTHH:mm:ss[.fraction]offset}, where the fraction (if present) is 1 to 9 digits and the offset is
+     * either {@code Z} or {@code +hh:mm} / {@code -hh:mm} (not more than 18 hours).  The letters {@code T} and {@code Z}
+     * may be in upper or lower case.  All fields are range-checked, including the number of days in the month, but leap
+     * seconds are not accepted.  The value may then be retrieved using {@link #getResultEpochMillis()} or
+     * {@link #getResultEpochNanos()}.
+     *
+     * @return              {@code true} if the characters at the index are an ISO 8601 date-time with offset
+     */
+    public boolean matchIsoDateTime() {
+        dateTimeEnd = -1;
+        int i = scanIsoDateTime(index, length);
+        if (i < 0)
+            return false;
+        start = index;
+        index = i;
+        dateTimeStart = start;
+        dateTimeEnd = i;
+        return true;
+    }
+
     /**
      * Match the characters at the index as a continuation using the specified comparison function, with a given minimum
      * number of characters and an optional maximum, but do not set the start index on success, and on fail, set the
@@ -368,7 +789,7 @@ public class TextMatcher {
     public boolean matchContinue(int maxChars, int minChars, CharPredicate comparison) {
         int i = index;
         int stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
-        while (i < stopper && comparison.test(text.charAt(i)))
+        while (i < stopper && comparison.test(charAt(i)))
             i++;
         if (i - index < minChars) {
             index = start;
@@ -405,6 +826,109 @@ public class TextMatcher {
         return matchContinue(0, 0, comparison);
     }
 
+    /**
+     * Match the characters at the index using the specified comparison function, as {@link #matchSeq(int, int,
+     * CharPredicate)}, computing the hash codes of the matched characters during the scan.  The hash codes may then be
+     * obtained from {@link #getResultHash()} and {@link #getResultHash64()}, and they are used by
+     * {@link #getResultInterned()} and {@link #getResultCharSeq(CharSeq)}, so that a token to be looked up in a symbol
+     * table is not read a second time.
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of characters for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the characters in the text at the index satisfy the comparison function
+     *                      (subject to the specified minimum and maximum number of characters)
+     */
+    public boolean matchSeqHashed(int maxChars, int minChars, CharPredicate comparison) {
+        int i = scanHashed(maxChars, comparison, 0, HASH64_OFFSET_BASIS);
+        if (i - index < minChars)
+            return false;
+        start = index;
+        index = i;
+        hashStart = start;
+        hashEnd = i;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index using the specified comparison function, with a minimum of 1 character and an
+     * optional maximum, computing the hash codes of the matched characters during the scan (see
+     * {@link #matchSeqHashed(int, int, CharPredicate)}).
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more characters in the text at the index satisfy the comparison
+     *                      function (subject to the specified maximum number of characters)
+     */
+    public boolean matchSeqHashed(int maxChars, CharPredicate comparison) {
+        return matchSeqHashed(maxChars, 1, comparison);
+    }
+
+    /**
+     * Match the characters at the index using the specified comparison function, with a minimum of 1 character and no
+     * maximum, computing the hash codes of the matched characters during the scan (see
+     * {@link #matchSeqHashed(int, int, CharPredicate)}).
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} if one or more characters in the text at the index satisfy the comparison
+     *                      function
+     */
+    public boolean matchSeqHashed(CharPredicate comparison) {
+        return matchSeqHashed(0, 1, comparison);
+    }
+
+    /**
+     * Match the characters at the index as a continuation using the specified comparison function, as
+     * {@link #matchContinue(int, int, CharPredicate)}, extending the hash codes of the match being continued during the
+     * scan.  If the hash codes of the match being continued were not computed by a {@code Hashed} function, they will
+     * be computed first.
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of characters for a successful match
+     * @param   comparison  the comparison function
+     * @return              {@code true} if the characters in the text at the index satisfy the comparison function
+     *                      (subject to the specified minimum and maximum number of characters)
+     */
+    public boolean matchContinueHashed(int maxChars, int minChars, CharPredicate comparison) {
+        computeResultHash();
+        int i = scanHashed(maxChars, comparison, resultHash, resultHash64);
+        if (i - index < minChars) {
+            index = start;
+            return false;
+        }
+        index = i;
+        hashStart = start;
+        hashEnd = i;
+        return true;
+    }
+
+    /**
+     * Match the characters at the index as a continuation using the specified comparison function, with no minimum
+     * number of characters and an optional maximum, extending the hash codes of the match being continued (see
+     * {@link #matchContinueHashed(int, int, CharPredicate)}).
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail; the only effect is to set
+     *                      the index past the matching characters)
+     */
+    public boolean matchContinueHashed(int maxChars, CharPredicate comparison) {
+        return matchContinueHashed(maxChars, 0, comparison);
+    }
+
+    /**
+     * Match the characters at the index as a continuation using the specified comparison function, with no minimum or
+     * maximum number of characters, extending the hash codes of the match being continued (see
+     * {@link #matchContinueHashed(int, int, CharPredicate)}).
+     *
+     * @param   comparison  the comparison function
+     * @return              {@code true} (with a minimum of zero the function can not fail; the only effect is to set
+     *                      the index past any matching characters)
+     */
+    public boolean matchContinueHashed(CharPredicate comparison) {
+        return matchContinueHashed(0, 0, comparison);
+    }
+
     /**
      * Increment the index past any of the characters in a given string.
      *
@@ -412,7 +936,7 @@ public class TextMatcher {
      */
     public void skipAny(String any) {
         start = index;
-        while (index < length && any.indexOf(text.charAt(index)) >= 0)
+        while (index < length && any.indexOf(charAt(index)) >= 0)
             index++;
     }
 
@@ -421,10 +945,20 @@ public class TextMatcher {
      *
      * @param   ch      the character to be skipped
      */
-    public void skip(Character ch) {
+    public void skip(char ch) {
         start = index;
-        while (index < length && text.charAt(index) == ch)
-            index++;
+        index = skipChar(ch, index, length);
+    }
+
+    /**
+     * Increment the index past any instances of the given character.
+     *
+     * @param   ch      the character to be skipped
+     * @deprecated      use {@link #skip(char)} (this form requires the character to be boxed)
+     */
+    @Deprecated
+    public void skip(Character ch) {
+        skip(ch.charValue());
     }
 
     /**
@@ -434,7 +968,7 @@ public class TextMatcher {
      */
     public void skip(CharPredicate comparison) {
         start = index;
-        while (index < length && comparison.test(text.charAt(index)))
+        while (index < length && comparison.test(charAt(index)))
             index++;
     }
 
@@ -444,10 +978,21 @@ public class TextMatcher {
      *
      * @param   ch      the character to be skipped to
      */
-    public void skipTo(Character ch) {
+    public void skipTo(char ch) {
         start = index;
-        while (index < length && text.charAt(index) != ch)
-            index++;
+        int i = indexOf(ch, index, length);
+        index = i < 0 ? length : i;
+    }
+
+    /**
+     * Increment the index to the next instance of the given character, or to end of the text if character not found.
+     *
+     * @param   ch      the character to be skipped to
+     * @deprecated      use {@link #skipTo(char)} (this form requires the character to be boxed)
+     */
+    @Deprecated
+    public void skipTo(Character ch) {
+        skipTo(ch.charValue());
     }
 
     /**
@@ -459,6 +1004,12 @@ public class TextMatcher {
      */
     public void skipTo(CharSequence target) {
         start = index;
+        if (string != null && target instanceof String && length == string.length()) {
+            // String.indexOf() scans to the end of the string, so it is used only when the region extends that far
+            int i = string.indexOf((String)target, index);
+            index = i < 0 || i > length - target.length() ? length : i;
+            return;
+        }
         int targetLength = target.length();
         if (targetLength == 0)
             return;
@@ -468,10 +1019,10 @@ public class TextMatcher {
             char firstChar = target.charAt(0);
             int stopper = length - targetLength;
             while (index <= stopper) {
-                if (text.charAt(index) == firstChar) {
+                if (charAt(index) == firstChar) {
                     int i = index + 1;
                     int j = 1; // we know there will be at least one additional character
-                    while (text.charAt(i++) == target.charAt(j++)) {
+                    while (charAt(i++) == target.charAt(j++)) {
                         if (j == targetLength)
                             return;
                     }
@@ -482,6 +1033,38 @@ public class TextMatcher {
         }
     }
 
+    /**
+     * Increment the index to the next instance of the target of the given {@link SearchPattern}, or to end of the text
+     * if target not found.  This will be more efficient than {@link #skipTo(CharSequence)} when the same target is
+     * searched for repeatedly, or when the text is highly repetitive.
+     *
+     * @param   pattern the {@link SearchPattern}
+     */
+    public void skipTo(SearchPattern pattern) {
+        start = index;
+        int i = pattern.find(sequence(), index, length);
+        index = i < 0 ? length : i;
+    }
+
+    /**
+     * Increment the index to the next instance of any of the keywords in a {@link KeywordSet}, or to end of the text if
+     * none found.  If more than one keyword starts at the same offset, the longest is selected.  The text is scanned
+     * only once, regardless of the number of keywords.
+     *
+     * @param   keywords    the {@link KeywordSet}
+     * @return              the id of the keyword found, or -1 if none found
+     */
+    public int skipToAny(KeywordSet keywords) {
+        start = index;
+        long found = keywords.find(sequence(), index, length);
+        if (found < 0) {
+            index = length;
+            return -1;
+        }
+        index = (int)(found >>> 32);
+        return (int)found;
+    }
+
     /**
      * Increment the index directly to the end of the text.
      */
@@ -517,7 +1100,7 @@ public class TextMatcher {
         start = index;
         if (index >= length)
             throw new StringIndexOutOfBoundsException(String.valueOf(index));
-        return text.charAt(index++);
+        return charAt(index++);
     }
 
     /**
@@ -530,7 +1113,7 @@ public class TextMatcher {
      *                                          start offset, or the end offset is greater than the length
      */
     public String getString(int start, int end) {
-        return text.substring(start, end);
+        return substring(start, end);
     }
 
     /**
@@ -546,7 +1129,26 @@ public class TextMatcher {
     public CharSequence getCharSeq(int start, int end) {
         if (start < 0 || end > length || end < start)
             throw new IndexOutOfBoundsException(String.valueOf(start) + ':' + end);
-        return new CharSeq(text, start, end);
+        return new CharSeq(sequence(), start, end);
+    }
+
+    /**
+     * Get a substring of the text as a {@link CharSequence}, re-pointing an existing {@link CharSeq} rather than
+     * creating a new object.
+     *
+     * @param   start   the start offset
+     * @param   end     the end offset (exclusive)
+     * @param   reuse   the {@link CharSeq} to re-point
+     * @return          the {@link CharSeq} (the same object as {@code reuse})
+     * @throws  IndexOutOfBoundsException   if the start offset is lees than zero, the end offset is less than the
+     *                                      start offset, or the end offset is greater than the length
+     * @throws  NullPointerException        if the {@link CharSeq} is {@code null}
+     */
+    public CharSeq getCharSeq(int start, int end, CharSeq reuse) {
+        if (start < 0 || end > length || end < start)
+            throw new IndexOutOfBoundsException(String.valueOf(start) + ':' + end);
+        reuse.set(sequence(), start, end);
+        return reuse;
     }
 
     /**
@@ -556,7 +1158,7 @@ public class TextMatcher {
      * @throws  IndexOutOfBoundsException if the start index at or beyond the end of the text
      */
     public char getResultChar() {
-        return text.charAt(start);
+        return charAt(start);
     }
 
     /**
@@ -565,7 +1167,21 @@ public class TextMatcher {
      * @return          the result of the last match
      */
     public String getResult() {
-        return text.substring(start, index);
+        return substring(start, index);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}, returning a canonical instance from a shared
+     * cache where possible.  This avoids allocating a new {@link String} for results that recur frequently, such as
+     * field names or enumerated values; the cache is bounded, so an infrequent result may displace an earlier one, and
+     * results longer than 32 characters are not cached.  If the last match was performed by one of the {@code Hashed}
+     * functions, the hash code computed during the match is used to locate the cached {@link String}.
+     *
+     * @return          the result of the last match
+     */
+    public String getResultInterned() {
+        int hash = knownResultHash();
+        return hash != 0 ? StringCache.get(sequence(), start, index, hash) : StringCache.get(sequence(), start, index);
     }
 
     /**
@@ -576,7 +1192,7 @@ public class TextMatcher {
      * @throws IOException if thrown by the {@link Appendable}
      */
     public void appendResultTo(Appendable a) throws IOException {
-        a.append(text, start, index);
+        a.append(sequence(), start, index);
     }
 
     /**
@@ -586,7 +1202,48 @@ public class TextMatcher {
      * @return          the result of the last match
      */
     public CharSequence getResultCharSeq() {
-        return new CharSeq(text, start, index);
+        return new CharSeq(sequence(), start, index);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link CharSequence}, re-pointing an existing {@link CharSeq}
+     * rather than creating a new object.  Since {@link CharSeq} has a {@link String}-compatible {@code hashCode()} and
+     * compares equal to any other {@link CharSeq} with the same content, this allows a match result to be used to look
+     * up a map keyed by {@link CharSeq} without any allocation.  If the last match was performed by one of the
+     * {@code Hashed} functions, the hash code computed during the match is passed to the {@link CharSeq}, so the lookup
+     * does not read the characters again to compute it.
+     *
+     * @param   reuse   the {@link CharSeq} to re-point
+     * @return          the {@link CharSeq} (the same object as {@code reuse})
+     * @throws  NullPointerException    if the {@link CharSeq} is {@code null}
+     */
+    public CharSeq getResultCharSeq(CharSeq reuse) {
+        reuse.set(sequence(), start, index, knownResultHash());
+        return reuse;
+    }
+
+    /**
+     * Get the {@link String}-compatible hash code of the result of the last match operation (the value that would be
+     * returned by {@code getResult().hashCode()}).  If the last match was performed by one of the {@code Hashed}
+     * functions, the hash code was computed during the match; otherwise it is computed by this function.
+     *
+     * @return          the hash code
+     */
+    public int getResultHash() {
+        computeResultHash();
+        return resultHash;
+    }
+
+    /**
+     * Get the 64-bit hash code of the result of the last match operation (the value that would be returned by
+     * {@link #hash64(CharSequence)} for the result).  If the last match was performed by one of the {@code Hashed}
+     * functions, the hash code was computed during the match; otherwise it is computed by this function.
+     *
+     * @return          the 64-bit hash code
+     */
+    public long getResultHash64() {
+        computeResultHash();
+        return resultHash64;
     }
 
     /**
@@ -632,17 +1289,11 @@ public class TextMatcher {
         if (to <= from)
             throw new NumberFormatException();
         int i = from;
-        while (i < to && text.charAt(i) == '0') {
+        while (i < to && charAt(i) == '0') {
             if (++i == to)
                 return 0;
         }
-        int result = convertDecDigit(text.charAt(i++));
-        while (i < to) {
-            result = result * 10 + convertDecDigit(text.charAt(i++));
-            if (result < 0)
-                throw new NumberFormatException();
-        }
-        return result;
+        return (int)getDecDigits(i, to, false, Integer.MAX_VALUE);
     }
 
     /**
@@ -659,26 +1310,11 @@ public class TextMatcher {
         if (to <= from)
             throw new NumberFormatException();
         int i = from;
-        while (i < to && text.charAt(i) == '0') {
+        while (i < to && charAt(i) == '0') {
             if (++i == to)
                 return 0;
         }
-        int result = 0;
-        if (negative) {
-            while (i < to) {
-                result = result * 10 - convertDecDigit(text.charAt(i++));
-                if (result >= 0)
-                    throw new NumberFormatException();
-            }
-        }
-        else {
-            while (i < to) {
-                result = result * 10 + convertDecDigit(text.charAt(i++));
-                if (result < 0)
-                    throw new NumberFormatException();
-            }
-        }
-        return result;
+        return (int)getDecDigits(i, to, negative, Integer.MAX_VALUE);
     }
 
     /**
@@ -715,17 +1351,11 @@ public class TextMatcher {
         if (to <= from)
             throw new NumberFormatException();
         int i = from;
-        while (i < to && text.charAt(i) == '0') {
+        while (i < to && charAt(i) == '0') {
             if (++i == to)
                 return 0;
         }
-        long result = convertDecDigit(text.charAt(i++));
-        while (i < to) {
-            result = result * 10 + convertDecDigit(text.charAt(i++));
-            if (result < 0)
-                throw new NumberFormatException();
-        }
-        return result;
+        return getDecDigits(i, to, false, Long.MAX_VALUE);
     }
 
     /**
@@ -742,26 +1372,11 @@ public class TextMatcher {
         if (to <= from)
             throw new NumberFormatException();
         int i = from;
-        while (i < to && text.charAt(i) == '0') {
+        while (i < to && charAt(i) == '0') {
             if (++i == to)
                 return 0;
         }
-        long result = 0;
-        if (negative) {
-            while (i < to) {
-                result = result * 10 - convertDecDigit(text.charAt(i++));
-                if (result >= 0)
-                    throw new NumberFormatException();
-            }
-        }
-        else {
-            while (i < to) {
-                result = result * 10 + convertDecDigit(text.charAt(i++));
-                if (result < 0)
-                    throw new NumberFormatException();
-            }
-        }
-        return result;
+        return getDecDigits(i, to, negative, Long.MAX_VALUE);
     }
 
     /**
@@ -786,11 +1401,11 @@ public class TextMatcher {
     public int getHexInt(int from, int to) {
         if (to <= from)
             throw new NumberFormatException();
-        int result = convertHexDigit(text.charAt(from));
+        int result = convertHexDigit(charAt(from));
         for (int i = from + 1; i < to; i++) {
             if ((result & MAX_INT_MASK) != 0)
                 throw new NumberFormatException();
-            result = result << 4 | convertHexDigit(text.charAt(i));
+            result = result << 4 | convertHexDigit(charAt(i));
         }
         return result;
     }
@@ -817,15 +1432,328 @@ public class TextMatcher {
     public long getHexLong(int from, int to) {
         if (to <= from)
             throw new NumberFormatException();
-        long result = convertHexDigit(text.charAt(from));
+        long result = convertHexDigit(charAt(from));
         for (int i = from + 1; i < to; i++) {
             if ((result & MAX_LONG_MASK) != 0)
                 throw new NumberFormatException();
-            result = result << 4 | convertHexDigit(text.charAt(i));
+            result = result << 4 | convertHexDigit(charAt(i));
         }
         return result;
     }
 
+    /**
+     * Get the result of the last match operation as a {@link UUID}.  The characters must be in the canonical
+     * 8-4-4-4-12 form, as matched by {@link #matchUUID()}.
+     *
+     * @return          the result of the last match as a {@link UUID}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid UUID
+     */
+    public UUID getResultUUID() {
+        return getUUID(start, index);
+    }
+
+    /**
+     * Get a {@link UUID} from the text.  The characters must be in the canonical 8-4-4-4-12 form, and they are converted
+     * directly, without the intermediate strings created by {@link UUID#fromString(String)}.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the {@link UUID}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid UUID
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public UUID getUUID(int from, int to) {
+        if (to - from != UUID_LENGTH || !isUUIDHyphens(from))
+            throw new NumberFormatException();
+        long h0 = convertHexGroup(from, from + 4);
+        long h1 = convertHexGroup(from + 9, from + 14);
+        long l0 = convertHexGroup(from + 19, from + 24);
+        long l1 = convertHexGroup(from + 28, from + 32);
+        if ((h0 | h1 | l0 | l1) < 0)
+            throw new NumberFormatException();
+        return new UUID(h0 << 32 | h1, l0 << 32 | l1);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned 128-bit value, treating the digits as hexadecimal.  The
+     * characters may be 1 to 32 hexadecimal digits, or a UUID in the canonical 8-4-4-4-12 form as matched by
+     * {@link #matchUUID()}.  The high-order 64 bits are stored in {@code out[0]} and the low-order 64 bits in
+     * {@code out[1]}.
+     *
+     * @param   out     an array of at least 2 elements to receive the value
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid 128-bit value
+     * @throws  NullPointerException    if the array is {@code null}
+     */
+    public void getResultHex128(long[] out) {
+        getHex128(start, index, out);
+    }
+
+    /**
+     * Get an unsigned 128-bit value from the text, treating the digits as hexadecimal (see
+     * {@link #getResultHex128(long[])}).
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @param   out     an array of at least 2 elements to receive the value
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid 128-bit value
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text, or the array
+     *                                      has fewer than 2 elements
+     * @throws  NullPointerException        if the array is {@code null}
+     */
+    public void getHex128(int from, int to, long[] out) {
+        if (out == null)
+            throw new NullPointerException("Output array must not be null");
+        if (to - from == UUID_LENGTH && isUUIDHyphens(from)) {
+            UUID uuid = getUUID(from, to);
+            out[0] = uuid.getMostSignificantBits();
+            out[1] = uuid.getLeastSignificantBits();
+            return;
+        }
+        if (to <= from || to - from > 32)
+            throw new NumberFormatException();
+        int split = Math.max(from, to - 16);
+        out[0] = split > from ? getHexLong(from, split) : 0;
+        out[1] = getHexLong(split, to);
+    }
+
+    /**
+     * Get the result of the last match operation as milliseconds since the epoch (1970-01-01T00:00:00Z).  The
+     * characters must be an ISO 8601 date-time with offset, as matched by {@link #matchIsoDateTime()}; any digits of
+     * the fraction beyond milliseconds are ignored (the value is rounded towards negative infinity, as
+     * {@link java.time.Instant#toEpochMilli()}).
+     *
+     * @return          the result of the last match as epoch milliseconds
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid date-time
+     */
+    public long getResultEpochMillis() {
+        return getEpochMillis(start, index);
+    }
+
+    /**
+     * Get the milliseconds since the epoch from the text, treating the characters as an ISO 8601 date-time with offset
+     * (see {@link #getResultEpochMillis()}).  The value is computed arithmetically, without creating any objects.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the epoch milliseconds
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid date-time
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public long getEpochMillis(int from, int to) {
+        convertIsoDateTime(from, to);
+        return epochSecond * 1000 + nanos / 1000000;
+    }
+
+    /**
+     * Get the result of the last match operation as nanoseconds since the epoch (1970-01-01T00:00:00Z).  The
+     * characters must be an ISO 8601 date-time with offset, as matched by {@link #matchIsoDateTime()}.  A {@code long}
+     * number of nanoseconds covers the years 1677 to 2262.
+     *
+     * @return          the result of the last match as epoch nanoseconds
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid date-time
+     * @throws  ArithmeticException     if the value is outside the range of a {@code long}
+     */
+    public long getResultEpochNanos() {
+        return getEpochNanos(start, index);
+    }
+
+    /**
+     * Get the nanoseconds since the epoch from the text, treating the characters as an ISO 8601 date-time with offset
+     * (see {@link #getResultEpochNanos()}).  The value is computed arithmetically, without creating any objects.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the epoch nanoseconds
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid date-time
+     * @throws  ArithmeticException         if the value is outside the range of a {@code long}
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public long getEpochNanos(int from, int to) {
+        convertIsoDateTime(from, to);
+        return Math.addExact(Math.multiplyExact(epochSecond, 1000000000L), nanos);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code double}.  The characters must form a decimal number, as
+     * matched by {@link #matchDecimal()}.
+     *
+     * @return          the result of the last match as a {@code double}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid decimal number
+     */
+    public double getResultDouble() {
+        return DecimalParser.parseDouble(sequence(), start, index);
+    }
+
+    /**
+     * Get a {@code double} from the text.  The characters must form a decimal number, as matched by
+     * {@link #matchDecimal()}.  The conversion uses the Eisel-Lemire algorithm, reading directly from the text, and the
+     * result is correctly rounded (the same as the result of {@link Double#parseDouble(String)}).
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the {@code double}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid decimal number
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public double getDouble(int from, int to) {
+        return DecimalParser.parseDouble(sequence(), from, to);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link BigDecimal}.  The characters must form a decimal number, as
+     * matched by {@link #matchDecimal()}.
+     *
+     * @return          the result of the last match as a {@link BigDecimal}
+     * @throws  NumberFormatException   if the start and end indices do not describe a valid decimal number
+     */
+    public BigDecimal getResultBigDecimal() {
+        return DecimalParser.parseBigDecimal(sequence(), start, index);
+    }
+
+    /**
+     * Get a {@link BigDecimal} from the text.  The characters must form a decimal number, as matched by
+     * {@link #matchDecimal()}, and the scale of the result will be the same as that produced by
+     * {@link BigDecimal#BigDecimal(String)}.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @return          the {@link BigDecimal}
+     * @throws  NumberFormatException       if the start and end indices do not describe a valid decimal number
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public BigDecimal getBigDecimal(int from, int to) {
+        return DecimalParser.parseBigDecimal(sequence(), from, to);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}, without throwing an exception if the result is not
+     * valid.
+     *
+     * @param   result  the {@link NumberResult} to hold the value or the failure status
+     * @return          {@code true} if the conversion succeeded
+     */
+    public boolean tryGetResultInt(NumberResult result) {
+        return tryGetDec(start, index, false, Integer.MAX_VALUE, result);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}, without throwing an exception if the result is not
+     * valid.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @param   result      the {@link NumberResult} to hold the value or the failure status
+     * @return              {@code true} if the conversion succeeded
+     */
+    public boolean tryGetResultInt(boolean negative, NumberResult result) {
+        return tryGetDec(start, index, negative, Integer.MAX_VALUE, result);
+    }
+
+    /**
+     * Get a signed {@code int} from the text, without throwing an exception if the number is not valid.  On failure, the
+     * status of the {@link NumberResult} will be set to {@link NumberResult.Status#INVALID INVALID} if the range is
+     * empty or contains a character that is not a decimal digit, or {@link NumberResult.Status#OVERFLOW OVERFLOW} if the
+     * value is outside the range of an {@code int}.
+     *
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @param   result      the {@link NumberResult} to hold the value or the failure status
+     * @return              {@code true} if the conversion succeeded
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public boolean tryGetInt(int from, int to, boolean negative, NumberResult result) {
+        return tryGetDec(from, to, negative, Integer.MAX_VALUE, result);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}, without throwing an exception if the result is not
+     * valid.
+     *
+     * @param   result  the {@link NumberResult} to hold the value or the failure status
+     * @return          {@code true} if the conversion succeeded
+     */
+    public boolean tryGetResultLong(NumberResult result) {
+        return tryGetDec(start, index, false, Long.MAX_VALUE, result);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}, without throwing an exception if the result is not
+     * valid.
+     *
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @param   result      the {@link NumberResult} to hold the value or the failure status
+     * @return              {@code true} if the conversion succeeded
+     */
+    public boolean tryGetResultLong(boolean negative, NumberResult result) {
+        return tryGetDec(start, index, negative, Long.MAX_VALUE, result);
+    }
+
+    /**
+     * Get a signed {@code long} from the text, without throwing an exception if the number is not valid (see
+     * {@link #tryGetInt(int, int, boolean, NumberResult)}).
+     *
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   negative    {@code true} to indicate that the value must be negated
+     * @param   result      the {@link NumberResult} to hold the value or the failure status
+     * @return              {@code true} if the conversion succeeded
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public boolean tryGetLong(int from, int to, boolean negative, NumberResult result) {
+        return tryGetDec(from, to, negative, Long.MAX_VALUE, result);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code int}, treating the digits as hexadecimal, without
+     * throwing an exception if the result is not valid.
+     *
+     * @param   result  the {@link NumberResult} to hold the value or the failure status
+     * @return          {@code true} if the conversion succeeded
+     */
+    public boolean tryGetResultHexInt(NumberResult result) {
+        return tryGetHex(start, index, MAX_INT_MASK & 0xFFFFFFFFL, result);
+    }
+
+    /**
+     * Get an unsigned {@code int} from the text, treating the digits as hexadecimal, without throwing an exception if
+     * the number is not valid.  The value is retrieved from the {@link NumberResult} using
+     * {@link NumberResult#getInt()}.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @param   result  the {@link NumberResult} to hold the value or the failure status
+     * @return          {@code true} if the conversion succeeded
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public boolean tryGetHexInt(int from, int to, NumberResult result) {
+        return tryGetHex(from, to, MAX_INT_MASK & 0xFFFFFFFFL, result);
+    }
+
+    /**
+     * Get the result of the last match operation as an unsigned {@code long}, treating the digits as hexadecimal,
+     * without throwing an exception if the result is not valid.
+     *
+     * @param   result  the {@link NumberResult} to hold the value or the failure status
+     * @return          {@code true} if the conversion succeeded
+     */
+    public boolean tryGetResultHexLong(NumberResult result) {
+        return tryGetHex(start, index, MAX_LONG_MASK, result);
+    }
+
+    /**
+     * Get an unsigned {@code long} from the text, treating the digits as hexadecimal, without throwing an exception if
+     * the number is not valid.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset (exclusive)
+     * @param   result  the {@link NumberResult} to hold the value or the failure status
+     * @return          {@code true} if the conversion succeeded
+     * @throws  IndexOutOfBoundsException   if the start and end indices are not contained within the text
+     */
+    public boolean tryGetHexLong(int from, int to, NumberResult result) {
+        return tryGetHex(from, to, MAX_LONG_MASK, result);
+    }
+
     /**
      * Test whether the given character is a digit.
      *
@@ -875,27 +1803,635 @@ public class TextMatcher {
         throw new NumberFormatException("Illegal hexadecimal digit");
     }
 
+    /**
+     * Get the 64-bit hash code of a {@link CharSequence}, as computed by {@link #matchSeqHashed(int, int, CharPredicate)}
+     * and returned by {@link #getResultHash64()}.  The hash is the 64-bit FNV-1a hash of the characters, each character
+     * being treated as a single 16-bit value; it is much less prone to collisions than the 32-bit
+     * {@link String#hashCode()}.
+     *
+     * @param   text    the {@link CharSequence}
+     * @return          the 64-bit hash code
+     */
+    public static long hash64(CharSequence text) {
+        long h = HASH64_OFFSET_BASIS;
+        for (int i = 0, n = text.length(); i < n; i++)
+            h = (h ^ text.charAt(i)) * HASH64_PRIME;
+        return h;
+    }
+
+    private int scanHashed(int maxChars, CharPredicate comparison, int hash, long hash64) {
+        int i = index;
+        int stopper = maxChars > 0 ? Math.min(length, i + maxChars) : length;
+        while (i < stopper) {
+            char ch = charAt(i);
+            if (!comparison.test(ch))
+                break;
+            hash = 31 * hash + ch;
+            hash64 = (hash64 ^ ch) * HASH64_PRIME;
+            i++;
+        }
+        resultHash = hash;
+        resultHash64 = hash64;
+        hashEnd = -1; // the caller records the range if the match succeeds
+        return i;
+    }
+
+    /**
+     * Get the hash code of the result of the last match if it has already been computed, or zero if not.
+     */
+    private int knownResultHash() {
+        return hashStart == start && hashEnd == index ? resultHash : 0;
+    }
+
+    private void computeResultHash() {
+        if (hashStart != start || hashEnd != index) {
+            int hash = 0;
+            long hash64 = HASH64_OFFSET_BASIS;
+            for (int i = start; i < index; i++) {
+                char ch = charAt(i);
+                hash = 31 * hash + ch;
+                hash64 = (hash64 ^ ch) * HASH64_PRIME;
+            }
+            resultHash = hash;
+            resultHash64 = hash64;
+            hashStart = start;
+            hashEnd = index;
+        }
+    }
+
+    private boolean matchSigned(int maxDigits, long max) {
+        int i = index;
+        boolean negative = false;
+        if (i < length) {
+            char ch = charAt(i);
+            if (ch == '-') {
+                negative = true;
+                i++;
+            }
+            else if (ch == '+')
+                i++;
+        }
+        int digitsStart = i;
+        int stopper = maxDigits > 0 ? Math.min(length, i + maxDigits) : length;
+        // accumulate as a negative number, as in Long.parseLong(), so that the minimum value can be represented
+        long limit = negative ? -max - 1 : -max;
+        long multiplyLimit = limit / 10;
+        long value = 0;
+        while (i < stopper) {
+            int digit = charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                break;
+            if (value < multiplyLimit)
+                return false;
+            value *= 10;
+            if (value < limit + digit)
+                return false;
+            value -= digit;
+            i++;
+        }
+        if (i == digitsStart)
+            return false;
+        matchedValue = negative ? value : -value;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    private long getDecDigits(int from, int to, boolean negative, long max) {
+        // the first non-zero digit is at from; up to 18 digits can not overflow a long
+        int n = to - from;
+        long result;
+        if (n <= MAX_SAFE_DIGITS)
+            result = convertDecDigits(from, to);
+        else if (n == MAX_SAFE_DIGITS + 1) {
+            long high = convertDecDigits(from, to - 1);
+            int digit = convertDecDigit(charAt(to - 1));
+            if (high > (Long.MAX_VALUE - digit) / 10 && !(negative && high == Long.MAX_VALUE / 10 && digit == 8))
+                throw new NumberFormatException();
+            result = high * 10 + digit; // may wrap to Long.MIN_VALUE, which negates to itself
+        }
+        else
+            throw new NumberFormatException();
+        if (negative) {
+            result = -result;
+            if (result < -max - 1)
+                throw new NumberFormatException();
+        }
+        else if (result > max)
+            throw new NumberFormatException();
+        return result;
+    }
+
+    private long convertDecDigits(int from, int to) {
+        long result = 0;
+        int i = from;
+        while (to - i >= 8) {
+            int eight = convertEightDigits(i);
+            if (eight < 0)
+                break;
+            result = result * 100000000 + eight;
+            i += 8;
+        }
+        while (i < to)
+            result = result * 10 + convertDecDigit(charAt(i++));
+        return result;
+    }
+
+    private long packEight(int i) {
+        // pack 8 ASCII characters into a long (first character in the low-order byte); returns -1 if any character is
+        // not ASCII (a valid result always has the high bit of each byte clear)
+        long c0 = charAt(i);
+        long c1 = charAt(i + 1);
+        long c2 = charAt(i + 2);
+        long c3 = charAt(i + 3);
+        long c4 = charAt(i + 4);
+        long c5 = charAt(i + 5);
+        long c6 = charAt(i + 6);
+        long c7 = charAt(i + 7);
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) >= 0x80)
+            return -1;
+        return c0 | c1 << 8 | c2 << 16 | c3 << 24 | c4 << 32 | c5 << 40 | c6 << 48 | c7 << 56;
+    }
+
+    private int convertEightDigits(int i) {
+        // SWAR conversion: validate 8 packed characters at once, then combine the digits in pairs, fours and eights;
+        // returns -1 if not all decimal digits
+        long packed = packEight(i);
+        if (packed < 0)
+            return -1;
+        long digits = packed - 0x3030303030303030L;
+        if ((((packed + 0x4646464646464646L) | digits) & 0x8080808080808080L) != 0)
+            return -1;
+        digits = digits * 10 + (digits >>> 8);
+        return (int)(((digits & 0x000000FF000000FFL) * (100 + (1000000L << 32)) +
+                ((digits >>> 16) & 0x000000FF000000FFL) * (1 + (10000L << 32))) >>> 32);
+    }
+
+    private static long convertEightHexDigits(long packed) {
+        // SWAR conversion of 8 packed ASCII characters as hexadecimal digits: a byte is valid if it is in the range
+        // '0' - '9', or if after setting the lower-case bit it is in the range 'a' - 'f'; returns -1 if not all valid
+        long lower = packed | 0x2020202020202020L;
+        long valid = bytesInRange(packed, '0', '9') | bytesInRange(lower, 'a', 'f');
+        if (valid != 0x8080808080808080L)
+            return -1;
+        // digits map to the low nibble, letters to the low nibble + 9 (letters have bit 6 set)
+        long v = (packed & 0x0F0F0F0F0F0F0F0FL) + ((packed >>> 6) & 0x0101010101010101L) * 9;
+        v = (v << 4 | v >>> 8) & 0x00FF00FF00FF00FFL;
+        v = (v << 8 | v >>> 16) & 0x0000FFFF0000FFFFL;
+        return (v << 16 | v >>> 32) & 0xFFFFFFFFL;
+    }
+
+    private static long bytesInRange(long packed, int low, int high) {
+        // for bytes in the range 0 - 0x7F, returns 0x80 in each byte position where low <= byte <= high
+        long ones = 0x0101010101010101L;
+        return (packed + ones * (0x80 - low)) & ~(packed + ones * (0x7F - high)) & 0x8080808080808080L;
+    }
+
+    private long convertHexGroup(int i, int j) {
+        // convert the 4 hexadecimal digits at i followed by the 4 at j as a single packed group of 8; returns -1 if any
+        // character is not a hexadecimal digit
+        long low = packFour(i);
+        long high = packFour(j);
+        return (low | high) < 0 ? -1 : convertEightHexDigits(low | high << 32);
+    }
+
+    private long packFour(int i) {
+        // as packEight, for 4 characters
+        long c0 = charAt(i);
+        long c1 = charAt(i + 1);
+        long c2 = charAt(i + 2);
+        long c3 = charAt(i + 3);
+        if ((c0 | c1 | c2 | c3) >= 0x80)
+            return -1;
+        return c0 | c1 << 8 | c2 << 16 | c3 << 24;
+    }
+
+    private void convertIsoDateTime(int from, int to) {
+        // the values from the last successful scan are retained, so a matched date-time is not scanned a second time
+        if (from == dateTimeStart && to == dateTimeEnd)
+            return;
+        dateTimeEnd = -1;
+        if (scanIsoDateTime(from, to) != to)
+            throw new NumberFormatException();
+        dateTimeStart = from;
+        dateTimeEnd = to;
+    }
+
+    private int scanIsoDateTime(int i, int to) {
+        // validate a date-time with offset starting at i, storing the converted value in epochSecond and nanos;
+        // returns the end index, or -1 if not valid
+        if (to - i < MIN_DATE_TIME_LENGTH)
+            return -1;
+        int year = getFixedDigits(i, 4);
+        if (year < 0 || charAt(i + 4) != '-')
+            return -1;
+        int month = getFixedDigits(i + 5, 2);
+        if (month < 1 || month > 12 || charAt(i + 7) != '-')
+            return -1;
+        int day = getFixedDigits(i + 8, 2);
+        if (day < 1 || day > daysInMonth(year, month) || (charAt(i + 10) | 0x20) != 't')
+            return -1;
+        int hour = getFixedDigits(i + 11, 2);
+        if (hour < 0 || hour > 23 || charAt(i + 13) != ':')
+            return -1;
+        int minute = getFixedDigits(i + 14, 2);
+        if (minute < 0 || minute > 59 || charAt(i + 16) != ':')
+            return -1;
+        int second = getFixedDigits(i + 17, 2);
+        if (second < 0 || second > 59)
+            return -1;
+        i += 19;
+        int fraction = 0;
+        if (charAt(i) == '.') {
+            int digits = 0;
+            while (++i < to && isDigit(charAt(i))) {
+                if (++digits > 9)
+                    return -1;
+                fraction = fraction * 10 + charAt(i) - '0';
+            }
+            if (digits == 0)
+                return -1;
+            while (digits++ < 9)
+                fraction *= 10;
+        }
+        if (i == to)
+            return -1;
+        char ch = charAt(i++);
+        int offset = 0;
+        if (ch == '+' || ch == '-') {
+            if (to - i < 5)
+                return -1;
+            int offsetHours = getFixedDigits(i, 2);
+            int offsetMinutes = getFixedDigits(i + 3, 2);
+            if (offsetHours < 0 || charAt(i + 2) != ':' || offsetMinutes < 0 || offsetMinutes > 59)
+                return -1;
+            offset = (offsetHours * 60 + offsetMinutes) * 60;
+            if (offset > MAX_OFFSET_SECONDS)
+                return -1;
+            if (ch == '-')
+                offset = -offset;
+            i += 5;
+        }
+        else if ((ch | 0x20) != 'z')
+            return -1;
+        epochSecond = daysFromCivil(year, month, day) * 86400 + hour * 3600 + minute * 60 + second - offset;
+        nanos = fraction;
+        return i;
+    }
+
+    private int getFixedDigits(int i, int n) {
+        // convert exactly n decimal digits; returns -1 if any character is not a digit
+        int result = 0;
+        for (int stopper = i + n; i < stopper; i++) {
+            int digit = charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2)
+            return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        // days since 1970-01-01 in the proleptic Gregorian calendar, counting years from March so that the leap day
+        // falls at the end of the year (H. Hinnant, "chrono-Compatible Low-Level Date Algorithms")
+        if (month <= 2)
+            year--;
+        int era = Math.floorDiv(year, 400);
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private boolean isUUIDHyphens(int i) {
+        return charAt(i + 8) == '-' && charAt(i + 13) == '-' && charAt(i + 18) == '-' && charAt(i + 23) == '-';
+    }
+
+    private boolean matchHexValue(int maxDigits, int bits) {
+        int i = index;
+        int stopper = maxDigits > 0 ? Math.min(length, i + maxDigits) : length;
+        long value = 0;
+        while (stopper - i >= 8) {
+            long packed = packEight(i);
+            long eight = packed < 0 ? -1 : convertEightHexDigits(packed);
+            if (eight < 0)
+                break;
+            if (value >>> (bits - 32) != 0)
+                return false;
+            value = value << 32 | eight;
+            i += 8;
+        }
+        while (i < stopper) {
+            char ch = charAt(i);
+            int digit = ch < 0x80 ? hexValues[ch] : -1;
+            if (digit < 0)
+                break;
+            if (value >>> (bits - 4) != 0)
+                return false;
+            value = value << 4 | digit;
+            i++;
+        }
+        if (i == index)
+            return false;
+        matchedValue = value; // after matchHexInt, the unsigned 32-bit value
+        start = index;
+        index = i;
+        return true;
+    }
+
+    private boolean tryGetDec(int from, int to, boolean negative, long max, NumberResult result) {
+        if (to <= from)
+            return result.setStatus(NumberResult.Status.INVALID);
+        // accumulate as a negative number, as in Long.parseLong(), so that the minimum value can be represented
+        long limit = negative ? -max - 1 : -max;
+        long multiplyLimit = limit / 10;
+        long value = 0;
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int digit = charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return result.setStatus(NumberResult.Status.INVALID);
+            if (!overflow) {
+                if (value < multiplyLimit)
+                    overflow = true;
+                else {
+                    value *= 10;
+                    if (value < limit + digit)
+                        overflow = true;
+                    else
+                        value -= digit;
+                }
+            }
+        }
+        if (overflow)
+            return result.setStatus(NumberResult.Status.OVERFLOW);
+        return result.setValue(negative ? value : -value);
+    }
+
+    private boolean tryGetHex(int from, int to, long mask, NumberResult result) {
+        if (to <= from)
+            return result.setStatus(NumberResult.Status.INVALID);
+        long value = 0;
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            char ch = charAt(i);
+            int digit = ch < 0x80 ? hexValues[ch] : -1;
+            if (digit < 0)
+                return result.setStatus(NumberResult.Status.INVALID);
+            if ((value & mask) != 0)
+                overflow = true;
+            value = value << 4 | digit;
+        }
+        if (overflow)
+            return result.setStatus(NumberResult.Status.OVERFLOW);
+        return result.setValue(value);
+    }
+
+    private void setText(CharSequence text, int from, int to) {
+        if (text instanceof CharBuffer && ((CharBuffer)text).hasArray()) {
+            // match directly from the array behind the buffer
+            CharBuffer buffer = (CharBuffer)text;
+            setArray(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), from, to);
+            return;
+        }
+        this.text = text;
+        string = text instanceof String ? (String)text : null;
+        array = null;
+        setRegion(from, to);
+    }
+
+    private void setArray(char[] array, int offset, int arrayLength, int from, int to) {
+        // the CharSequence view of the array is set only when required (see sequence())
+        text = null;
+        string = null;
+        this.array = array;
+        arrayOffset = offset;
+        this.arrayLength = arrayLength;
+        setRegion(from, to);
+    }
+
+    private void setRegion(int from, int to) {
+        length = to;
+        start = from;
+        index = from;
+        lineStarts = null;
+        dateTimeEnd = -1;
+        hashEnd = -1;
+    }
+
+    /**
+     * Get the text as a {@link CharSequence}, using a view of the array if the text is a {@code char} array.  A single
+     * view is created for the life of the {@code TextMatcher}, and re-pointed to the current array as required.
+     */
+    private CharSequence sequence() {
+        CharSequence text = this.text;
+        if (text == null) {
+            CharArraySequence arraySequence = this.arraySequence;
+            if (arraySequence == null) {
+                arraySequence = new CharArraySequence(array, arrayOffset, arrayLength);
+                this.arraySequence = arraySequence;
+            }
+            else
+                arraySequence.set(array, arrayOffset, arrayLength);
+            text = arraySequence;
+            this.text = text;
+        }
+        return text;
+    }
+
+    /**
+     * Get the character at the given offset, accessing the {@link String} or the array directly where possible, so that
+     * the call sites in the match and conversion functions do not become polymorphic when the {@code TextMatcher} is
+     * used with more than one type of text.
+     */
+    private char charAt(int i) {
+        String string = this.string;
+        if (string != null)
+            return string.charAt(i);
+        char[] array = this.array;
+        if (array != null) {
+            if (i < 0 || i >= arrayLength)
+                throw new IndexOutOfBoundsException(String.valueOf(i));
+            return array[arrayOffset + i];
+        }
+        return text.charAt(i);
+    }
+
+    private int[] getLineStarts() {
+        int[] lineStarts = this.lineStarts;
+        if (lineStarts == null) {
+            lineStarts = new int[16];
+            int n = 1;
+            int i = 0;
+            while ((i = indexOf('\n', i, length)) >= 0) {
+                if (n == lineStarts.length)
+                    lineStarts = Arrays.copyOf(lineStarts, n * 2);
+                lineStarts[n++] = ++i;
+            }
+            lineCount = n;
+            this.lineStarts = lineStarts;
+        }
+        return lineStarts;
+    }
+
+    private static void checkRegion(char[] chars, int from, int to) {
+        if (chars == null)
+            throw new NullPointerException("TextMatcher text must not be null");
+        if (from < 0 || to > chars.length || to < from)
+            throw new IndexOutOfBoundsException(String.valueOf(from) + ':' + to);
+    }
+
+    /**
+     * Find the first instance of a character in a range of the text, using the most efficient mechanism for the type of
+     * the text.
+     */
+    private int indexOf(char ch, int from, int to) {
+        String string = this.string;
+        if (string != null) {
+            if (to == string.length()) {
+                // String.indexOf() is an intrinsic function in most JVMs, using vector instructions where available,
+                // but it can not be limited to a region that ends before the end of the string
+                return string.indexOf(ch, from);
+            }
+            for (int i = from; i < to; i++)
+                if (string.charAt(i) == ch)
+                    return i;
+            return -1;
+        }
+        char[] array = this.array;
+        if (array != null) {
+            int offset = arrayOffset;
+            for (int i = from + offset, stopper = to + offset; i < stopper; i++)
+                if (array[i] == ch)
+                    return i - offset;
+            return -1;
+        }
+        for (int i = from; i < to; i++)
+            if (text.charAt(i) == ch)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Find the first character in a range of the text that is not the given character (or the end of the range), using
+     * a loop specialised for the type of the text.  The Vector API could scan a {@code char} array 16 or more characters
+     * at a time, but it is available only as an incubator module that must be enabled explicitly on every JVM launch
+     * (with a warning), and it would require a multi-release jar built with a later JDK than the Java 8 release this
+     * library targets, so the simple loops, which the JIT compiler unrolls, are used for all JVMs.
+     */
+    private int skipChar(char ch, int from, int to) {
+        String string = this.string;
+        if (string != null) {
+            int i = from;
+            while (i < to && string.charAt(i) == ch)
+                i++;
+            return i;
+        }
+        char[] array = this.array;
+        if (array != null) {
+            int offset = arrayOffset;
+            int i = from + offset;
+            int stopper = to + offset;
+            while (i < stopper && array[i] == ch)
+                i++;
+            return i - offset;
+        }
+        int i = from;
+        while (i < to && text.charAt(i) == ch)
+            i++;
+        return i;
+    }
+
+    /**
+     * Get a substring of the text as a {@link String}, using the most efficient mechanism for the type of the text.
+     */
+    private String substring(int start, int end) {
+        if (string != null)
+            return string.substring(start, end);
+        if (array != null) {
+            if (start < 0 || end > arrayLength || end < start)
+                throw new StringIndexOutOfBoundsException(String.valueOf(start) + ':' + end);
+            return new String(array, arrayOffset + start, end - start);
+        }
+        return substring(text, start, end);
+    }
+
+    /**
+     * Get a substring of a {@link CharSequence} as a {@link String}, using the most efficient mechanism for the type of
+     * the {@link CharSequence}.
+     */
+    static String substring(CharSequence text, int start, int end) {
+        if (text instanceof String)
+            return ((String)text).substring(start, end);
+        if (text instanceof CharArraySequence)
+            return ((CharArraySequence)text).substring(start, end);
+        if (start < 0 || end > text.length() || end < start)
+            throw new StringIndexOutOfBoundsException(String.valueOf(start) + ':' + end);
+        return new StringBuilder(end - start).append(text, start, end).toString();
+    }
+
     /**
      * An implementation of {@link CharSequence} to return data from {@code TextMatcher}.
      */
     public static class CharSeq implements CharSequence {
 
-        private final String text;
-        private final int start;
-        private final int end;
+        private CharSequence text;
+        private int start;
+        private int end;
+        private int hash;
+
+        /**
+         * Construct an empty {@code CharSeq}, to be re-pointed by {@link TextMatcher#getResultCharSeq(CharSeq)} or
+         * {@link TextMatcher#getCharSeq(int, int, CharSeq)}.
+         */
+        public CharSeq() {
+            this("", 0, 0);
+        }
+
+        /**
+         * Construct a {@code CharSeq} covering the whole of the given text (for example, to create the keys of a map
+         * to be looked up using re-pointed {@code CharSeq} objects).
+         *
+         * @param   text    the text
+         * @throws  NullPointerException    if the text is {@code null}
+         */
+        public CharSeq(CharSequence text) {
+            if (text == null)
+                throw new NullPointerException("CharSeq text must not be null");
+            this.text = text;
+            start = 0;
+            end = text.length();
+        }
 
         /**
          * Construct a {@code CharSeq} with the given text, start offset and end offset.  (Package-local constructor
          * limits access to this package, and removes necessity to validate parameters.)
          *
-         * @param   text    the underlying text array
+         * @param   text    the underlying text
          * @param   start   the start offset
          * @param   end     the end offset
          */
-        CharSeq(String text, int start, int end) {
+        CharSeq(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        void set(CharSequence text, int start, int end) {
+            set(text, start, end, 0);
+        }
+
+        void set(CharSequence text, int start, int end, int hash) {
             this.text = text;
             this.start = start;
             this.end = end;
+            this.hash = hash;
         }
 
         /**
@@ -945,7 +2481,62 @@ public class TextMatcher {
          */
         @Override
         public String toString() {
-            return text.substring(start, end);
+            return substring(text, start, end);
+        }
+
+        /**
+         * Compare the content of this {@code CharSeq} with any other {@link CharSequence}.
+         *
+         * @param   other   the other {@link CharSequence}
+         * @return          {@code true} if the other {@link CharSequence} contains the same characters
+         */
+        public boolean contentEquals(CharSequence other) {
+            int n = end - start;
+            if (other == null || other.length() != n)
+                return false;
+            CharSequence t = text;
+            for (int i = 0, j = start; i < n; i++, j++)
+                if (t.charAt(j) != other.charAt(i))
+                    return false;
+            return true;
+        }
+
+        /**
+         * Compare this {@code CharSeq} with another object for equality.  Only another {@code CharSeq} with the same
+         * content will compare equal (use {@link #contentEquals(CharSequence)} to compare with other forms of
+         * {@link CharSequence}).
+         *
+         * @param   other   the other object
+         * @return          {@code true} if the other object is a {@code CharSeq} with the same content
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (!(other instanceof CharSeq))
+                return false;
+            CharSeq otherSeq = (CharSeq)other;
+            int h1 = hash;
+            int h2 = otherSeq.hash;
+            return (h1 == 0 || h2 == 0 || h1 == h2) && contentEquals(otherSeq);
+        }
+
+        /**
+         * Get the hash code for this {@code CharSeq}.  The value is the same as the {@code hashCode()} of the
+         * equivalent {@link String}, and it is cached until the {@code CharSeq} is re-pointed.
+         *
+         * @return      the hash code
+         */
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                CharSequence t = text;
+                for (int i = start; i < end; i++)
+                    h = 31 * h + t.charAt(i);
+                hash = h;
+            }
+            return h;
         }
 
     }
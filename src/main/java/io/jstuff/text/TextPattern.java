@@ -0,0 +1,688 @@
+/*
+ * @(#) TextPattern.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A pattern built from the primitive match operations of {@link TextMatcher} (literal characters and strings, character
+ * predicates and runs of characters) combined by sequence, ordered choice, optional, repetition and capture, for use
+ * with the {@link TextMatcher#match(TextPattern)} and {@link TextMatcher#match(TextPattern, int[])} functions.
+ *
+ * <p>Patterns follow the rules of a Parsing Expression Grammar (PEG): a choice takes the first alternative that
+ * matches, and repetition is greedy and never gives back characters to allow the rest of the pattern to match (for
+ * example, {@code sequence(seq(DIGITS), of('1'))} will never match, because the digit run will consume the final
+ * {@code '1'} and will not release it).  Backtracking occurs only to try the next alternative of a choice, but the
+ * results of failed alternatives are not memoised, so an alternative that fails after scanning a long run of
+ * characters causes the run to be scanned again; in the worst case (for example, a repetition of such a choice) the
+ * time taken is quadratic in the length of the text.</p>
+ *
+ * <p>Each pattern is compiled on construction into a single flattened program: nested sequences are merged, adjacent
+ * literal characters are combined into a single string comparison, and the repetition of a single character predicate
+ * becomes a tight loop equivalent to {@link TextMatcher#matchSeq(int, int, CharPredicate)}.  Capture groups are
+ * numbered from zero in the order in which they appear in the pattern, and the offsets of group {@code n} are recorded
+ * in elements {@code 2n} (start) and {@code 2n + 1} (end) of the array supplied to the match; a group that does not
+ * take part in the match has the value -1 in both elements.  A repetition of anything other than a single character is
+ * expanded into a copy of the repeated pattern for each possible repetition, so repetition counts are limited to
+ * {@link #MAX_REPEAT}, and a pattern whose program would be excessively large (for example, as a result of nested
+ * repetitions) is rejected with an {@link IllegalArgumentException}.  The object is immutable, and may be shared
+ * between threads.</p>
+ *
+ * @author  Peter Wall
+ */
+public class TextPattern {
+
+    /** The largest repetition count (minimum or maximum) accepted by {@link #repeat(int, int, TextPattern)}. */
+    public static final int MAX_REPEAT = 1000;
+
+    static final int LITERAL = 0;
+    static final int CLASS = 1;
+    static final int SPAN = 2;
+    static final int SEQUENCE = 3;
+    static final int CHOICE = 4;
+    static final int REPEAT = 5;
+    static final int CAPTURE = 6;
+
+    // program instructions: the opcode is followed by the operands shown
+    static final int OP_CHAR = 0;               // character
+    static final int OP_STRING = 1;             // constant index
+    static final int OP_CLASS = 2;              // constant index
+    static final int OP_SPAN = 3;               // constant index, maximum (or 0), minimum
+    static final int OP_CHOICE = 4;             // alternative address
+    static final int OP_COMMIT = 5;             // continuation address
+    static final int OP_PARTIAL_COMMIT = 6;     // loop address
+    static final int OP_OPEN = 7;               // capture array index
+    static final int OP_CLOSE = 8;              // capture array index
+    static final int OP_END = 9;
+
+    private static final int INITIAL_LOG_SIZE = 16;
+    private static final int MAX_PROGRAM_SIZE = 1 << 20;
+
+    final int type;
+    final String literal;
+    final CharPredicate predicate;
+    final int maxCount;
+    final int minCount;
+    final TextPattern[] children;
+    final int captureCount;
+    private final boolean nullable;
+
+    final int[] code;
+    final Object[] constants;
+    final int maxDepth;
+    private final PatternGenerator.GeneratedMatcher generated;
+
+    private TextPattern(int type, String literal, CharPredicate predicate, int maxCount, int minCount,
+            TextPattern[] children) {
+        this.type = type;
+        this.literal = literal;
+        this.predicate = predicate;
+        this.maxCount = maxCount;
+        this.minCount = minCount;
+        this.children = children;
+        int captures = type == CAPTURE ? 1 : 0;
+        boolean canBeEmpty;
+        switch (type) {
+        case LITERAL:
+            canBeEmpty = literal.isEmpty();
+            break;
+        case CLASS:
+            canBeEmpty = false;
+            break;
+        case SPAN:
+            canBeEmpty = minCount == 0;
+            break;
+        case CHOICE:
+            canBeEmpty = false;
+            for (TextPattern child : children)
+                canBeEmpty |= child.nullable;
+            break;
+        case REPEAT:
+            canBeEmpty = minCount == 0 || children[0].nullable;
+            break;
+        default: // SEQUENCE, CAPTURE
+            canBeEmpty = true;
+            for (TextPattern child : children)
+                canBeEmpty &= child.nullable;
+            break;
+        }
+        if (children != null)
+            for (TextPattern child : children)
+                captures += child.captureCount;
+        captureCount = captures;
+        nullable = canBeEmpty;
+        Compiler compiler = new Compiler();
+        compiler.emit(this, 0, 0);
+        compiler.add(OP_END);
+        code = Arrays.copyOf(compiler.code, compiler.size);
+        constants = compiler.constants.toArray();
+        maxDepth = compiler.maxDepth;
+        generated = null;
+    }
+
+    private TextPattern(TextPattern pattern, PatternGenerator.GeneratedMatcher generated) {
+        type = pattern.type;
+        literal = pattern.literal;
+        predicate = pattern.predicate;
+        maxCount = pattern.maxCount;
+        minCount = pattern.minCount;
+        children = pattern.children;
+        captureCount = pattern.captureCount;
+        nullable = pattern.nullable;
+        code = pattern.code;
+        constants = pattern.constants;
+        maxDepth = pattern.maxDepth;
+        this.generated = generated;
+    }
+
+    /**
+     * Create a pattern to match a single character.
+     *
+     * @param   ch      the character
+     * @return          the pattern
+     */
+    public static TextPattern of(char ch) {
+        return new TextPattern(LITERAL, String.valueOf(ch), null, 0, 0, null);
+    }
+
+    /**
+     * Create a pattern to match a string of characters.
+     *
+     * @param   target  the characters to match
+     * @return          the pattern
+     * @throws  NullPointerException    if the target is {@code null}
+     */
+    public static TextPattern of(CharSequence target) {
+        if (target == null)
+            throw new NullPointerException("TextPattern target must not be null");
+        return new TextPattern(LITERAL, target.toString(), null, 0, 0, null);
+    }
+
+    /**
+     * Create a pattern to match a single character using the specified comparison function.
+     *
+     * @param   comparison  the comparison function
+     * @return              the pattern
+     * @throws  NullPointerException    if the comparison function is {@code null}
+     */
+    public static TextPattern of(CharPredicate comparison) {
+        return new TextPattern(CLASS, null, checkPredicate(comparison), 0, 0, null);
+    }
+
+    /**
+     * Create a pattern to match a sequence of characters using the specified comparison function, with a given minimum
+     * number of characters and an optional maximum (as {@link TextMatcher#matchSeq(int, int, CharPredicate)}).
+     *
+     * @param   maxChars    the maximum number of characters to match (or 0 to indicate no limit)
+     * @param   minChars    the minimum number of characters for a successful match
+     * @param   comparison  the comparison function
+     * @return              the pattern
+     * @throws  NullPointerException        if the comparison function is {@code null}
+     * @throws  IllegalArgumentException    if the minimum or maximum is invalid
+     */
+    public static TextPattern seq(int maxChars, int minChars, CharPredicate comparison) {
+        checkCounts(maxChars, minChars);
+        return new TextPattern(SPAN, null, checkPredicate(comparison), maxChars, minChars, null);
+    }
+
+    /**
+     * Create a pattern to match a sequence of one or more characters using the specified comparison function.
+     *
+     * @param   comparison  the comparison function
+     * @return              the pattern
+     * @throws  NullPointerException    if the comparison function is {@code null}
+     */
+    public static TextPattern seq(CharPredicate comparison) {
+        return seq(0, 1, comparison);
+    }
+
+    /**
+     * Create a pattern to match decimal digits, with a given minimum number of digits and an optional maximum (as
+     * {@link TextMatcher#matchDec(int, int)}).
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              the pattern
+     * @throws  IllegalArgumentException    if the minimum or maximum is invalid
+     */
+    public static TextPattern dec(int maxDigits, int minDigits) {
+        return seq(maxDigits, minDigits, CharClass.DIGITS);
+    }
+
+    /**
+     * Create a pattern to match one or more decimal digits.
+     *
+     * @return              the pattern
+     */
+    public static TextPattern dec() {
+        return seq(0, 1, CharClass.DIGITS);
+    }
+
+    /**
+     * Create a pattern to match hexadecimal digits, with a given minimum number of digits and an optional maximum (as
+     * {@link TextMatcher#matchHex(int, int)}).
+     *
+     * @param   maxDigits   the maximum number of digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number of digits for a successful match
+     * @return              the pattern
+     * @throws  IllegalArgumentException    if the minimum or maximum is invalid
+     */
+    public static TextPattern hex(int maxDigits, int minDigits) {
+        return seq(maxDigits, minDigits, CharClass.HEX_DIGITS);
+    }
+
+    /**
+     * Create a pattern to match one or more hexadecimal digits.
+     *
+     * @return              the pattern
+     */
+    public static TextPattern hex() {
+        return seq(0, 1, CharClass.HEX_DIGITS);
+    }
+
+    /**
+     * Create a pattern to match each of a list of patterns in turn.
+     *
+     * @param   patterns    the patterns
+     * @return              the pattern
+     * @throws  NullPointerException    if any of the patterns is {@code null}
+     */
+    public static TextPattern sequence(TextPattern ... patterns) {
+        return new TextPattern(SEQUENCE, null, null, 0, 0, checkPatterns(patterns));
+    }
+
+    /**
+     * Create a pattern to match the first of a list of alternative patterns that matches at the current index.
+     *
+     * @param   patterns    the alternative patterns
+     * @return              the pattern
+     * @throws  NullPointerException        if any of the patterns is {@code null}
+     * @throws  IllegalArgumentException    if the list of patterns is empty
+     */
+    public static TextPattern choice(TextPattern ... patterns) {
+        if (patterns.length == 0)
+            throw new IllegalArgumentException("TextPattern choice must not be empty");
+        return new TextPattern(CHOICE, null, null, 0, 0, checkPatterns(patterns));
+    }
+
+    /**
+     * Create a pattern to match a pattern if possible, or otherwise to match nothing.
+     *
+     * @param   pattern     the pattern
+     * @return              the pattern
+     * @throws  NullPointerException    if the pattern is {@code null}
+     */
+    public static TextPattern optional(TextPattern pattern) {
+        return repeat(1, 0, pattern);
+    }
+
+    /**
+     * Create a pattern to match repetitions of a pattern, with a given minimum number of repetitions and an optional
+     * maximum.  The repetition is greedy: as many repetitions as possible (up to the maximum) will be matched.
+     *
+     * @param   maxTimes    the maximum number of repetitions (or 0 to indicate no limit)
+     * @param   minTimes    the minimum number of repetitions for a successful match
+     * @param   pattern     the pattern
+     * @return              the pattern
+     * @throws  NullPointerException        if the pattern is {@code null}
+     * @throws  IllegalArgumentException    if the minimum or maximum is invalid or greater than {@link #MAX_REPEAT}, or
+     *                                      there is no maximum and the pattern can match an empty string (the
+     *                                      repetition would never end)
+     */
+    public static TextPattern repeat(int maxTimes, int minTimes, TextPattern pattern) {
+        checkCounts(maxTimes, minTimes);
+        if (maxTimes > MAX_REPEAT || minTimes > MAX_REPEAT)
+            throw new IllegalArgumentException("TextPattern repetition count too large: " + minTimes + ".." + maxTimes);
+        TextPattern[] children = checkPatterns(pattern);
+        if (maxTimes == 0 && pattern.nullable)
+            throw new IllegalArgumentException("TextPattern repeated pattern must not match empty string");
+        return new TextPattern(REPEAT, null, null, maxTimes, minTimes, children);
+    }
+
+    /**
+     * Create a pattern to match zero or more repetitions of a pattern.
+     *
+     * @param   pattern     the pattern
+     * @return              the pattern
+     * @throws  NullPointerException        if the pattern is {@code null}
+     * @throws  IllegalArgumentException    if the pattern can match an empty string
+     */
+    public static TextPattern repeat(TextPattern pattern) {
+        return repeat(0, 0, pattern);
+    }
+
+    /**
+     * Create a pattern to match a pattern, recording the start and end offsets of the match as a capture group.
+     *
+     * @param   pattern     the pattern
+     * @return              the pattern
+     * @throws  NullPointerException    if the pattern is {@code null}
+     */
+    public static TextPattern capture(TextPattern pattern) {
+        return new TextPattern(CAPTURE, null, null, 0, 0, checkPatterns(pattern));
+    }
+
+    /**
+     * Get the number of capture groups in the pattern.  The array supplied to a match must have at least twice this
+     * number of elements.
+     *
+     * @return      the number of capture groups
+     */
+    public int getCaptureCount() {
+        return captureCount;
+    }
+
+    /**
+     * Get a version of this pattern that uses a dedicated class generated for the pattern, instead of interpreting the
+     * compiled program.  The generated code is straight-line code with the literal characters and the ASCII members of
+     * any {@link CharClass} tests as constants, so that the JIT compiler can optimise it in the same way as a
+     * hand-written sequence of tests.  Code generation requires Java 15 or later (it uses
+     * {@code MethodHandles.Lookup.defineHiddenClass()}); on earlier versions, or if the pattern is too large for the
+     * generated code to be compiled by the JIT, this pattern is returned unchanged and matching continues to be
+     * interpreted.  The generated class is unloaded when the pattern is no longer referenced.
+     *
+     * @return      the pattern using generated code (or this pattern, if code generation is not possible)
+     */
+    public TextPattern withGeneratedCode() {
+        if (generated != null)
+            return this;
+        PatternGenerator.GeneratedMatcher matcher = PatternGenerator.generate(this);
+        return matcher == null ? this : new TextPattern(this, matcher);
+    }
+
+    /**
+     * Test whether this pattern uses generated code (see {@link #withGeneratedCode()}).
+     *
+     * @return      {@code true} if the pattern uses generated code
+     */
+    public boolean isGenerated() {
+        return generated != null;
+    }
+
+    /**
+     * Match the pattern against the text at the given offset.  If the captures array is not {@code null}, the offsets
+     * of the capture groups are stored in it; the contents of the array are undefined if the match fails.
+     *
+     * @param   text        the text
+     * @param   from        the start offset
+     * @param   to          the end offset (exclusive)
+     * @param   captures    the array to receive the capture group offsets (may be {@code null})
+     * @param   stack       the backtracking stack, as returned by {@link #getStack(int[])}
+     * @return              the end offset of the match, or -1 if the pattern does not match
+     */
+    int matchAt(CharSequence text, int from, int to, int[] captures, int[] stack) {
+        if (captures != null && captures.length < captureCount * 2)
+            throw new IllegalArgumentException("TextPattern captures array too short: " + captures.length);
+        if (generated != null)
+            return generated.matchAt(text, from, to, captures);
+        return interpret(text, from, to, captures, stack);
+    }
+
+    /**
+     * Get a backtracking stack large enough for this pattern.  The pattern is shared between threads, so the stack is
+     * owned by the caller (a {@link TextMatcher}), which may supply the array returned by a previous call to be reused.
+     *
+     * @param   reuse   an array to reuse if it is large enough (may be {@code null})
+     * @return          the array supplied, or a new array if that is too small (or {@code null} if no stack is needed)
+     */
+    int[] getStack(int[] reuse) {
+        int size = generated != null ? 0 : maxDepth * 3;
+        return size == 0 || reuse != null && reuse.length >= size ? reuse : new int[size];
+    }
+
+    private int interpret(CharSequence text, int from, int to, int[] captures, int[] stack) {
+        if (captures != null)
+            Arrays.fill(captures, 0, captureCount * 2, -1);
+        int[] code = this.code;
+        Object[] constants = this.constants;
+        int sp = 0;
+        int[] log = null;
+        int logSize = 0;
+        int pc = 0;
+        int i = from;
+        while (true) {
+            switch (code[pc]) {
+            case OP_CHAR:
+                if (i < to && text.charAt(i) == code[pc + 1]) {
+                    i++;
+                    pc += 2;
+                    continue;
+                }
+                break;
+            case OP_STRING:
+                String string = (String)constants[code[pc + 1]];
+                int n = string.length();
+                if (to - i >= n && regionMatches(text, i, string, n)) {
+                    i += n;
+                    pc += 2;
+                    continue;
+                }
+                break;
+            case OP_CLASS:
+                if (i < to && ((CharPredicate)constants[code[pc + 1]]).test(text.charAt(i))) {
+                    i++;
+                    pc += 2;
+                    continue;
+                }
+                break;
+            case OP_SPAN:
+                CharPredicate comparison = (CharPredicate)constants[code[pc + 1]];
+                int max = code[pc + 2];
+                int stopper = max > 0 && to - i > max ? i + max : to;
+                int j = i;
+                while (j < stopper && comparison.test(text.charAt(j)))
+                    j++;
+                if (j - i >= code[pc + 3]) {
+                    i = j;
+                    pc += 4;
+                    continue;
+                }
+                break;
+            case OP_CHOICE:
+                stack[sp++] = code[pc + 1];
+                stack[sp++] = i;
+                stack[sp++] = logSize;
+                pc += 2;
+                continue;
+            case OP_COMMIT:
+                sp -= 3;
+                pc = code[pc + 1];
+                continue;
+            case OP_PARTIAL_COMMIT:
+                stack[sp - 2] = i;
+                stack[sp - 1] = logSize;
+                pc = code[pc + 1];
+                continue;
+            case OP_OPEN:
+            case OP_CLOSE:
+                if (captures != null) {
+                    int slot = code[pc + 1];
+                    if (sp > 0) {
+                        // record the previous value, to be restored if the enclosing alternative fails
+                        if (log == null)
+                            log = new int[INITIAL_LOG_SIZE];
+                        else if (logSize == log.length)
+                            log = Arrays.copyOf(log, logSize * 2);
+                        log[logSize++] = slot;
+                        log[logSize++] = captures[slot];
+                    }
+                    captures[slot] = i;
+                }
+                pc += 2;
+                continue;
+            default: // OP_END
+                return i;
+            }
+            // the current instruction failed - backtrack to the most recent alternative, if any
+            if (sp == 0)
+                return -1;
+            int savedLogSize = stack[--sp];
+            i = stack[--sp];
+            pc = stack[--sp];
+            while (logSize > savedLogSize) {
+                logSize -= 2;
+                captures[log[logSize]] = log[logSize + 1];
+            }
+        }
+    }
+
+    static boolean regionMatches(CharSequence text, int i, String string, int n) {
+        for (int k = 0; k < n; k++)
+            if (text.charAt(i + k) != string.charAt(k))
+                return false;
+        return true;
+    }
+
+    private static CharPredicate checkPredicate(CharPredicate comparison) {
+        if (comparison == null)
+            throw new NullPointerException("TextPattern comparison function must not be null");
+        return comparison;
+    }
+
+    private static void checkCounts(int max, int min) {
+        if (min < 0 || max < 0 || max > 0 && max < min)
+            throw new IllegalArgumentException("TextPattern illegal repetition count: " + min + ".." + max);
+    }
+
+    private static TextPattern[] checkPatterns(TextPattern ... patterns) {
+        for (TextPattern pattern : patterns)
+            if (pattern == null)
+                throw new NullPointerException("TextPattern pattern must not be null");
+        return patterns.clone();
+    }
+
+    /**
+     * The compiler that converts a tree of patterns into a flattened program.
+     */
+    private static class Compiler {
+
+        private int[] code = new int[32];
+        private int size;
+        private final List<Object> constants = new ArrayList<>();
+        private int maxDepth;
+
+        private void emit(TextPattern pattern, int firstCapture, int depth) {
+            switch (pattern.type) {
+            case LITERAL:
+                emitLiteral(pattern.literal);
+                break;
+            case CLASS:
+                add(OP_CLASS, constant(pattern.predicate));
+                break;
+            case SPAN:
+                add(OP_SPAN, constant(pattern.predicate), pattern.maxCount, pattern.minCount);
+                break;
+            case SEQUENCE:
+                emitSequence(pattern, firstCapture, depth);
+                break;
+            case CHOICE:
+                emitChoice(pattern, firstCapture, depth);
+                break;
+            case REPEAT:
+                emitRepeat(pattern, firstCapture, depth);
+                break;
+            default: // CAPTURE
+                add(OP_OPEN, firstCapture * 2);
+                emit(pattern.children[0], firstCapture + 1, depth);
+                add(OP_CLOSE, firstCapture * 2 + 1);
+                break;
+            }
+        }
+
+        private void emitLiteral(String literal) {
+            if (literal.length() == 1)
+                add(OP_CHAR, literal.charAt(0));
+            else if (!literal.isEmpty())
+                add(OP_STRING, constant(literal));
+        }
+
+        private void emitSequence(TextPattern pattern, int firstCapture, int depth) {
+            // nested sequences are flattened, and adjacent literals are combined
+            List<TextPattern> items = new ArrayList<>();
+            flatten(pattern, items);
+            StringBuilder sb = new StringBuilder();
+            for (TextPattern item : items) {
+                if (item.type == LITERAL)
+                    sb.append(item.literal);
+                else {
+                    emitLiteral(sb.toString());
+                    sb.setLength(0);
+                    emit(item, firstCapture, depth);
+                    firstCapture += item.captureCount;
+                }
+            }
+            emitLiteral(sb.toString());
+        }
+
+        private static void flatten(TextPattern pattern, List<TextPattern> items) {
+            for (TextPattern child : pattern.children) {
+                if (child.type == SEQUENCE)
+                    flatten(child, items);
+                else
+                    items.add(child);
+            }
+        }
+
+        private void emitChoice(TextPattern pattern, int firstCapture, int depth) {
+            TextPattern[] alternatives = pattern.children;
+            int last = alternatives.length - 1;
+            int[] commits = new int[last];
+            if (last > 0)
+                maxDepth = Math.max(maxDepth, depth + 1);
+            for (int k = 0; k < last; k++) {
+                int choice = size;
+                add(OP_CHOICE, 0);
+                emit(alternatives[k], firstCapture, depth + 1);
+                commits[k] = size;
+                add(OP_COMMIT, 0);
+                code[choice + 1] = size;
+                firstCapture += alternatives[k].captureCount;
+            }
+            emit(alternatives[last], firstCapture, depth);
+            for (int commit : commits)
+                code[commit + 1] = size;
+        }
+
+        private void emitRepeat(TextPattern pattern, int firstCapture, int depth) {
+            TextPattern child = pattern.children[0];
+            CharPredicate single = singleChar(child);
+            if (single != null) {
+                add(OP_SPAN, constant(single), pattern.maxCount, pattern.minCount);
+                return;
+            }
+            for (int k = 0; k < pattern.minCount; k++)
+                emit(child, firstCapture, depth);
+            if (pattern.maxCount == 0 || pattern.maxCount > pattern.minCount)
+                maxDepth = Math.max(maxDepth, depth + 1);
+            if (pattern.maxCount == 0) {
+                int choice = size;
+                add(OP_CHOICE, 0);
+                int loop = size;
+                emit(child, firstCapture, depth + 1);
+                add(OP_PARTIAL_COMMIT, loop);
+                code[choice + 1] = size;
+            }
+            else {
+                int optional = pattern.maxCount - pattern.minCount;
+                int[] choices = new int[optional];
+                for (int k = 0; k < optional; k++) {
+                    choices[k] = size;
+                    add(OP_CHOICE, 0);
+                    emit(child, firstCapture, depth + 1);
+                    add(OP_COMMIT, size + 2);
+                }
+                for (int choice : choices)
+                    code[choice + 1] = size;
+            }
+        }
+
+        private static CharPredicate singleChar(TextPattern pattern) {
+            if (pattern.type == CLASS)
+                return pattern.predicate;
+            if (pattern.type == LITERAL && pattern.literal.length() == 1)
+                return CharClass.of(pattern.literal);
+            return null;
+        }
+
+        private int constant(Object value) {
+            constants.add(value);
+            return constants.size() - 1;
+        }
+
+        private void add(int ... values) {
+            if (size + values.length > MAX_PROGRAM_SIZE)
+                throw new IllegalArgumentException("TextPattern program too large");
+            if (size + values.length > code.length)
+                code = Arrays.copyOf(code, Math.max(code.length * 2, size + values.length));
+            for (int value : values)
+                code[size++] = value;
+        }
+
+    }
+
+}
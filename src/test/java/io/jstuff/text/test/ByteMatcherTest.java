@@ -0,0 +1,258 @@
+/*
+ * @(#) ByteMatcherTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import io.jstuff.text.ByteMatcher;
+import io.jstuff.text.CharClass;
+import io.jstuff.text.TextMatcher;
+
+public class ByteMatcherTest {
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void shouldMatchCharacterAndString() {
+        ByteMatcher bm = new ByteMatcher(utf8("abc=def"));
+        assertFalse(bm.match('b'));
+        assertTrue(bm.match('a'));
+        assertEquals(0, bm.getStart());
+        assertEquals(1, bm.getIndex());
+        assertFalse(bm.match("bd"));
+        assertTrue(bm.match("bc"));
+        assertEquals("bc", bm.getResult());
+        assertTrue(bm.matchAny("=:"));
+        assertEquals('=', bm.getResultChar());
+        assertFalse(bm.match("defg"));
+        assertTrue(bm.match("def"));
+        assertTrue(bm.isAtEnd());
+        assertFalse(bm.match('x'));
+    }
+
+    @Test
+    public void shouldMatchSequences() {
+        ByteMatcher bm = new ByteMatcher(utf8("hello world"));
+        assertTrue(bm.matchSeq(Character::isLetter));
+        assertEquals("hello", bm.getResult());
+        assertEquals(5, bm.getResultLength());
+        assertFalse(bm.matchSeq(Character::isLetter));
+        assertTrue(bm.match(' '));
+        assertTrue(bm.matchSeq(3, CharClass.range('a', 'z')));
+        assertEquals("wor", bm.getResult());
+        assertTrue(bm.matchContinue(CharClass.range('a', 'z')));
+        assertEquals("world", bm.getResult());
+    }
+
+    @Test
+    public void shouldMatchAndConvertNumbers() {
+        ByteMatcher bm = new ByteMatcher(utf8("12345,-2147483648,9223372036854775807,7fFf,x"));
+        assertTrue(bm.matchDec());
+        assertEquals(12345, bm.getResultInt());
+        assertTrue(bm.match(','));
+        assertTrue(bm.match('-'));
+        assertTrue(bm.matchDec());
+        assertEquals(Integer.MIN_VALUE, bm.getResultInt(true));
+        assertThrows(NumberFormatException.class, bm::getResultInt);
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec(0, 19));
+        assertEquals(Long.MAX_VALUE, bm.getResultLong());
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchHex());
+        assertEquals(0x7FFF, bm.getResultHexInt());
+        assertEquals(0x7FFFL, bm.getResultHexLong());
+        assertTrue(bm.match(','));
+        assertFalse(bm.matchDec());
+        assertFalse(bm.matchHex());
+    }
+
+    @Test
+    public void shouldSkipCharactersAndStrings() {
+        ByteMatcher bm = new ByteMatcher(utf8("   key: value -- end"));
+        bm.skip(' ');
+        assertEquals(3, bm.getIndex());
+        bm.skipTo(':');
+        assertEquals("key", bm.getResult());
+        bm.skipFixed(1);
+        bm.skipAny(" \t");
+        assertEquals(8, bm.getIndex());
+        bm.skipTo("--");
+        assertEquals("value ", bm.getResult());
+        bm.skipTo("xx");
+        assertTrue(bm.isAtEnd());
+        bm.revert();
+        assertEquals(14, bm.getIndex());
+        bm.skipToEnd();
+        assertEquals("-- end", bm.getResult());
+    }
+
+    @Test
+    public void shouldDecodeResultAsUTF8() {
+        ByteMatcher bm = new ByteMatcher(utf8("name=Zoë 一;"));
+        bm.skipTo('=');
+        bm.skipFixed(1);
+        bm.skipTo(';');
+        assertEquals("Zoë 一", bm.getResult());
+        assertEquals(8, bm.getResultLength());
+    }
+
+    @Test
+    public void shouldNotMatchMultiByteSequenceAsASCII() {
+        ByteMatcher bm = new ByteMatcher(utf8("é"));
+        assertFalse(bm.matchSeq(TextMatcher::isDigit));
+        assertFalse(bm.match('e'));
+        assertEquals(0xC3, bm.getByte(0));
+    }
+
+    @Test
+    public void shouldMatchRegionOfArray() {
+        byte[] bytes = utf8("xx123yy");
+        ByteMatcher bm = new ByteMatcher(bytes, 2, 5);
+        assertEquals(2, bm.getIndex());
+        assertEquals(5, bm.getLength());
+        assertTrue(bm.matchDec());
+        assertEquals(123, bm.getResultInt());
+        assertTrue(bm.isAtEnd());
+        assertThrows(IndexOutOfBoundsException.class, () -> new ByteMatcher(bytes, 3, 8));
+        assertThrows(IndexOutOfBoundsException.class, () -> bm.reset(bytes, 3, 2));
+        bm.reset(bytes, 0, 7);
+        assertTrue(bm.match("xx"));
+    }
+
+    @Test
+    public void shouldMatchDirectByteBuffer() {
+        byte[] bytes = utf8("GET /index.html HTTP/1.1");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 4);
+        buffer.put(bytes);
+        buffer.flip();
+        buffer.position(4);
+        ByteMatcher bm = new ByteMatcher(buffer);
+        assertSame(buffer, bm.getBuffer());
+        assertEquals(4, bm.getIndex());
+        bm.skipTo(' ');
+        assertEquals("/index.html", bm.getResult());
+        assertTrue(bm.match(" HTTP/"));
+        assertTrue(bm.matchDec());
+        assertEquals(1, bm.getResultInt());
+        assertEquals(4, buffer.position());
+        assertEquals(bytes.length, buffer.limit());
+    }
+
+    @Test
+    public void shouldMatchHeapByteBufferSlice() {
+        ByteBuffer buffer = ByteBuffer.wrap(utf8("--é42--")).slice();
+        buffer.position(2);
+        buffer.limit(6);
+        ByteMatcher bm = new ByteMatcher(buffer);
+        assertTrue(bm.matchSeq(ch -> ch >= 0x80));
+        assertEquals("é", bm.getResult());
+        assertTrue(bm.matchDec());
+        assertEquals(42, bm.getResultInt());
+        assertTrue(bm.isAtEnd());
+    }
+
+    @Test
+    public void shouldMatchHeapByteBufferWithArrayOffset() {
+        byte[] bytes = utf8("xxid=77;yy");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, 6).slice();
+        ByteMatcher bm = new ByteMatcher(buffer);
+        assertSame(buffer, bm.getBuffer());
+        assertEquals(6, bm.getLength());
+        assertTrue(bm.match("id="));
+        assertTrue(bm.matchDec());
+        assertEquals(77, bm.getResultInt());
+        assertEquals("77", bm.getResult());
+        assertEquals(';', bm.getByte(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> bm.getByte(6));
+        bm.reset(bytes, 0, 2);
+        assertEquals(ByteBuffer.wrap(bytes), bm.getBuffer());
+        bm.skip('x');
+        assertTrue(bm.isAtEnd());
+    }
+
+    @Test
+    public void shouldRejectNonASCIITargets() {
+        ByteMatcher bm = new ByteMatcher(new byte[] { (byte)0xE9, (byte)0xC3, (byte)0xA9 });
+        assertThrows(IllegalArgumentException.class, () -> bm.match('\u00E9'));
+        assertThrows(IllegalArgumentException.class, () -> bm.match("\u00E9"));
+        assertThrows(IllegalArgumentException.class, () -> bm.matchAny("e\u00E9"));
+        assertThrows(IllegalArgumentException.class, () -> bm.skipAny("\u00E9"));
+        assertThrows(IllegalArgumentException.class, () -> bm.skip('\u00E9'));
+        assertThrows(IllegalArgumentException.class, () -> bm.skipTo('\u00C3'));
+        assertThrows(IllegalArgumentException.class, () -> bm.skipTo("x\u00E9"));
+        assertEquals(0, bm.getIndex());
+    }
+
+    @Test
+    public void shouldRejectNullData() {
+        assertThrows(NullPointerException.class, () -> new ByteMatcher((byte[])null));
+        assertThrows(NullPointerException.class, () -> new ByteMatcher((ByteBuffer)null));
+    }
+
+    @Test
+    public void shouldDetectNumberOverflow() {
+        ByteMatcher bm = new ByteMatcher(utf8("4294967297,2147483648,2147483649,9999999999,9223372036854775808,9223372036854775809," +
+                "18446744073709551617"));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, bm::getResultInt);
+        assertThrows(NumberFormatException.class, () -> bm.getResultInt(true));
+        assertEquals(4294967297L, bm.getResultLong());
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, bm::getResultInt);
+        assertEquals(Integer.MIN_VALUE, bm.getResultInt(true));
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, () -> bm.getResultInt(true));
+        assertEquals(2147483649L, bm.getResultLong());
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, bm::getResultInt);
+        assertEquals(9999999999L, bm.getResultLong());
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, bm::getResultLong);
+        assertEquals(Long.MIN_VALUE, bm.getResultLong(true));
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, () -> bm.getResultLong(true));
+        assertTrue(bm.match(','));
+        assertTrue(bm.matchDec());
+        assertThrows(NumberFormatException.class, bm::getResultLong);
+        assertThrows(NumberFormatException.class, () -> bm.getResultLong(true));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * @(#) CharClassTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.CharClass;
+import io.jstuff.text.CharPredicate;
+import io.jstuff.text.TextMatcher;
+
+public class CharClassTest {
+
+    @Test
+    public void shouldCreateCharClassFromCharacters() {
+        CharClass charClass = CharClass.of("aeioué一");
+        assertTrue(charClass.test('a'));
+        assertTrue(charClass.test('u'));
+        assertTrue(charClass.test('é'));
+        assertTrue(charClass.test('一'));
+        assertFalse(charClass.test('b'));
+        assertFalse(charClass.test('è'));
+        assertFalse(charClass.test('\0'));
+        assertFalse(charClass.test('￿'));
+    }
+
+    @Test
+    public void shouldCreateCharClassFromRange() {
+        CharClass charClass = CharClass.range('0', '9');
+        assertTrue(charClass.test('0'));
+        assertTrue(charClass.test('9'));
+        assertFalse(charClass.test('/'));
+        assertFalse(charClass.test(':'));
+        CharClass wide = CharClass.range('x', 'ā');
+        assertTrue(wide.test('x'));
+        assertTrue(wide.test('\u007F'));
+        assertTrue(wide.test('\u0080'));
+        assertTrue(wide.test('ā'));
+        assertFalse(wide.test('Ă'));
+        assertThrows(IllegalArgumentException.class, () -> CharClass.range('9', '0'));
+    }
+
+    @Test
+    public void shouldCreateCharClassFromPredicate() {
+        CharClass charClass = CharClass.of(Character::isLetter);
+        for (int ch = 0; ch < 0x10000; ch++)
+            assertEquals(Character.isLetter((char)ch), charClass.test((char)ch));
+    }
+
+    @Test
+    public void shouldNegateCharClass() {
+        CharClass charClass = CharClass.of("aé").negate();
+        assertFalse(charClass.test('a'));
+        assertFalse(charClass.test('é'));
+        assertTrue(charClass.test('b'));
+        assertTrue(charClass.test('\u0080'));
+        assertTrue(charClass.test('￿'));
+        assertEquals(CharClass.NONE, CharClass.ALL.negate());
+        assertEquals(CharClass.ALL, CharClass.NONE.negate());
+    }
+
+    @Test
+    public void shouldCombineCharClassesWithAndAndOr() {
+        CharClass letters = CharClass.of(Character::isLetter);
+        CharClass lowerCase = CharClass.of(Character::isLowerCase);
+        CharClass upperCase = CharClass.of(Character::isUpperCase);
+        CharClass lettersNotLower = letters.and(lowerCase.negate());
+        CharClass upperOrLower = upperCase.or(lowerCase);
+        for (int ch = 0; ch < 0x10000; ch++) {
+            char c = (char)ch;
+            assertEquals(Character.isLetter(c) && !Character.isLowerCase(c), lettersNotLower.test(c));
+            assertEquals(Character.isUpperCase(c) || Character.isLowerCase(c), upperOrLower.test(c));
+        }
+        assertEquals(CharClass.DIGITS, CharClass.HEX_DIGITS.and(CharClass.range('0', '9')));
+        assertNotEquals(CharClass.DIGITS, CharClass.HEX_DIGITS);
+    }
+
+    @Test
+    public void shouldReturnCharClassFromCombinationsWithCharClass() {
+        CharPredicate digits = CharClass.DIGITS;
+        assertTrue(digits.or(CharClass.of("+-")) instanceof CharClass);
+        assertTrue(digits.and(CharClass.range('0', '5')) instanceof CharClass);
+        assertFalse(digits.or(ch -> ch == '+') instanceof CharClass);
+        assertTrue(digits.or(ch -> ch == '+').test('+'));
+    }
+
+    @Test
+    public void shouldUseCharClassInMatchOperations() {
+        CharClass identStart = CharClass.range('a', 'z').or(CharClass.range('A', 'Z')).or(CharClass.of("_$"));
+        CharClass identPart = identStart.or(CharClass.DIGITS);
+        TextMatcher textMatcher = new TextMatcher("_abc123 x");
+        assertTrue(textMatcher.match(identStart) && textMatcher.matchContinue(identPart));
+        assertEquals("_abc123", textMatcher.getResult());
+        textMatcher.skip(CharClass.of(" \t"));
+        assertEquals(8, textMatcher.getIndex());
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * @(#) IncrementalMatcherTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.jstuff.text.IncrementalMatcher;
+import io.jstuff.text.MatchResult;
+import io.jstuff.text.TextMatcher;
+
+public class IncrementalMatcherTest {
+
+    private static void feed(IncrementalMatcher im, String s) {
+        im.feed(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void shouldRequestMoreInputForCharacter() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.match('a'));
+        feed(im, "ab");
+        assertEquals(MatchResult.NO_MATCH, im.match('b'));
+        assertEquals(MatchResult.MATCH, im.match('a'));
+        assertEquals(MatchResult.MATCH, im.match('b'));
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.match('c'));
+        assertFalse(im.isAtEnd());
+        im.endOfInput();
+        assertEquals(MatchResult.NO_MATCH, im.match('c'));
+        assertTrue(im.isAtEnd());
+        assertThrows(IllegalStateException.class, () -> feed(im, "x"));
+    }
+
+    @Test
+    public void shouldRejectNonASCIITargets() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        im.feed(new byte[] { (byte)0xE9, (byte)0xC3, (byte)0xA9 }, 0, 3);
+        assertThrows(IllegalArgumentException.class, () -> im.match('\u00E9'));
+        assertThrows(IllegalArgumentException.class, () -> im.match("\u00E9"));
+        assertThrows(IllegalArgumentException.class, () -> im.matchAny("\u00E9"));
+        assertThrows(IllegalArgumentException.class, () -> im.skip('\u00E9'));
+        assertThrows(IllegalArgumentException.class, () -> im.skipTo('\u00E9'));
+        assertThrows(IllegalArgumentException.class, () -> im.skipTo("\u00E9"));
+        assertEquals(0, im.getIndex());
+    }
+
+    @Test
+    public void shouldRequestMoreInputForPartialString() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        feed(im, "GET /ind");
+        assertEquals(MatchResult.NO_MATCH, im.match("PUT "));
+        assertEquals(MatchResult.MATCH, im.match("GET "));
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.match("/index.html"));
+        assertEquals(4, im.getIndex());
+        feed(im, "ex.html HTTP/1.1\r\n");
+        assertEquals(MatchResult.MATCH, im.match("/index.html"));
+        assertEquals("/index.html", im.getResult());
+    }
+
+    @Test
+    public void shouldRequestMoreInputForSequence() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        feed(im, "Content-Length: 12");
+        assertEquals(MatchResult.MATCH, im.match("Content-Length:"));
+        assertEquals(MatchResult.MATCH, im.skip(' '));
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.matchDec());
+        feed(im, "34\r\n");
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertEquals(1234, im.getResultInt());
+        assertEquals(1234L, im.getResultLong());
+        assertEquals(MatchResult.NO_MATCH, im.matchDec());
+        assertEquals(MatchResult.MATCH, im.match("\r\n"));
+        feed(im, "7f");
+        assertEquals(MatchResult.MATCH, im.matchHex(2));
+        assertEquals(0x7F, im.getResultHexInt());
+        assertEquals(0x7FL, im.getResultHexLong());
+        feed(im, "ff");
+        im.endOfInput();
+        assertEquals(MatchResult.MATCH, im.matchHex());
+        assertEquals(0xFF, im.getResultHexInt());
+    }
+
+    @Test
+    public void shouldSkipIncrementally() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        feed(im, "   ");
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skip(' '));
+        assertEquals(3, im.getIndex());
+        feed(im, "  key");
+        assertEquals(MatchResult.MATCH, im.skip(' '));
+        assertEquals(5, im.getIndex());
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skipTo(':'));
+        assertEquals(8, im.getIndex());
+        assertEquals("key", im.getResult());
+        feed(im, "name: value\r");
+        assertEquals(MatchResult.MATCH, im.skipTo(':'));
+        assertEquals("name", im.getResult());
+        assertEquals(MatchResult.MATCH, im.skipFixed(2));
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skipTo("\r\n"));
+        assertEquals("value", im.getResult());
+        feed(im, "\n");
+        assertEquals(MatchResult.MATCH, im.skipTo("\r\n"));
+        assertEquals(19, im.getIndex());
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skipFixed(3));
+        im.endOfInput();
+        assertEquals(MatchResult.NO_MATCH, im.skipTo("\r\n\r\n"));
+        assertEquals(MatchResult.MATCH, im.skip(TextMatcher::isDigit));
+    }
+
+    @Test
+    public void shouldResumeSkipToSequence() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        feed(im, "header\r");
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skipTo("\r\n\r\n"));
+        assertEquals(6, im.getIndex());
+        assertEquals("header", im.getResult());
+        feed(im, "\nmore\r\n");
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skipTo("\r\n\r\n"));
+        assertEquals(12, im.getIndex());
+        assertEquals("\r\nmore", im.getResult());
+        assertEquals(MatchResult.MATCH, im.skipTo('\r'));
+        assertEquals(12, im.getIndex());
+        feed(im, "\r\nabc");
+        assertEquals(MatchResult.MATCH, im.skipTo("\r\n\r\n"));
+        assertEquals(12, im.getIndex());
+        StringBuilder target = new StringBuilder("bcd");
+        assertEquals(MatchResult.NEED_MORE_INPUT, im.skipTo(target));
+        assertEquals(17, im.getIndex());
+        target.setLength(0);
+        target.append("cd");
+        feed(im, "d");
+        assertEquals(MatchResult.MATCH, im.skipTo(target));
+        assertEquals(18, im.getIndex());
+        im.endOfInput();
+        assertEquals(MatchResult.NO_MATCH, im.skipTo("dx"));
+        assertEquals(18, im.getIndex());
+    }
+
+    @Test
+    public void shouldNotRetainBytesSearchedBySkipTo() {
+        IncrementalMatcher im = new IncrementalMatcher(256);
+        byte[] chunk = new byte[200];
+        Arrays.fill(chunk, (byte)'x');
+        chunk[chunk.length - 1] = '\r';
+        for (int i = 0; i < 10000; i++) {
+            im.feed(chunk, 0, chunk.length);
+            assertEquals(MatchResult.NEED_MORE_INPUT, im.skipTo("\r\n\r\n"));
+        }
+        assertTrue(im.getBufferSize() <= 512);
+        assertTrue(im.getBufferOffset() > 10000 * 200 - 512);
+        feed(im, "\n\r\n");
+        assertEquals(MatchResult.MATCH, im.skipTo("\r\n\r\n"));
+        assertEquals(10000 * 200 - 1, im.getIndex());
+    }
+
+    @Test
+    public void shouldMatchOneByteAtATime() {
+        byte[] message = "id=42;name=Zoë;\n".getBytes(StandardCharsets.UTF_8);
+        IncrementalMatcher im = new IncrementalMatcher(4);
+        int fed = 0;
+        int state = 0;
+        int id = 0;
+        String name = null;
+        while (state < 5) {
+            MatchResult result;
+            switch (state) {
+                case 0: result = im.match("id="); break;
+                case 1: result = im.matchDec(); if (result == MatchResult.MATCH) id = im.getResultInt(); break;
+                case 2: result = im.match(";name="); break;
+                case 3: result = im.matchSeq(ch -> ch != ';'); if (result == MatchResult.MATCH) name = im.getResult(); break;
+                default: result = im.match(";\n"); break;
+            }
+            if (result == MatchResult.NO_MATCH)
+                throw new AssertionError("Unexpected NO_MATCH in state " + state);
+            if (result == MatchResult.MATCH)
+                state++;
+            else
+                im.feed(message, fed, ++fed);
+        }
+        assertEquals(42, id);
+        assertEquals("Zoë", name);
+        assertEquals(message.length, fed);
+    }
+
+    @Test
+    public void shouldDiscardConsumedInput() {
+        IncrementalMatcher im = new IncrementalMatcher(16);
+        for (int i = 0; i < 1000; i++) {
+            feed(im, "rec" + i + ';');
+            assertEquals(MatchResult.MATCH, im.match("rec"));
+            assertEquals(MatchResult.MATCH, im.matchDec());
+            assertEquals(i, im.getResultInt());
+            assertEquals(MatchResult.MATCH, im.match(';'));
+        }
+        assertEquals(16, im.getBufferSize());
+        assertTrue(im.getBufferOffset() > 5000);
+    }
+
+    @Test
+    public void shouldDetectNumberOverflow() {
+        IncrementalMatcher im = new IncrementalMatcher();
+        feed(im, "4294967297,2147483648,2147483649,9999999999,9223372036854775808,9223372036854775809," +
+                "18446744073709551617");
+        im.endOfInput();
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, im::getResultInt);
+        assertThrows(NumberFormatException.class, () -> im.getResultInt(true));
+        assertEquals(4294967297L, im.getResultLong());
+        assertEquals(MatchResult.MATCH, im.match(','));
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, im::getResultInt);
+        assertEquals(Integer.MIN_VALUE, im.getResultInt(true));
+        assertEquals(MatchResult.MATCH, im.match(','));
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, () -> im.getResultInt(true));
+        assertEquals(2147483649L, im.getResultLong());
+        assertEquals(MatchResult.MATCH, im.match(','));
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, im::getResultInt);
+        assertEquals(9999999999L, im.getResultLong());
+        assertEquals(MatchResult.MATCH, im.match(','));
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, im::getResultLong);
+        assertEquals(Long.MIN_VALUE, im.getResultLong(true));
+        assertEquals(MatchResult.MATCH, im.match(','));
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, () -> im.getResultLong(true));
+        assertEquals(MatchResult.MATCH, im.match(','));
+        assertEquals(MatchResult.MATCH, im.matchDec());
+        assertThrows(NumberFormatException.class, im::getResultLong);
+        assertThrows(NumberFormatException.class, () -> im.getResultLong(true));
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * @(#) KeywordSetTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import io.jstuff.text.KeywordSet;
+import io.jstuff.text.TextMatcher;
+
+public class KeywordSetTest {
+
+    @Test
+    public void shouldMatchLongestKeyword() {
+        KeywordSet keywords = new KeywordSet("in", "int", "interface", "if");
+        TextMatcher textMatcher = new TextMatcher("interface int in if");
+        assertEquals(2, textMatcher.matchOneOf(keywords));
+        assertEquals(0, textMatcher.getStart());
+        assertEquals(9, textMatcher.getIndex());
+        assertEquals(-1, textMatcher.matchOneOf(keywords));
+        assertEquals(9, textMatcher.getIndex());
+        textMatcher.skip(' ');
+        assertEquals(1, textMatcher.matchOneOf(keywords));
+        assertEquals("int", textMatcher.getResult());
+        textMatcher.skip(' ');
+        assertEquals(0, textMatcher.matchOneOf(keywords));
+        textMatcher.skip(' ');
+        assertEquals(3, textMatcher.matchOneOf(keywords));
+        assertEquals(-1, textMatcher.matchOneOf(keywords));
+    }
+
+    @Test
+    public void shouldNotMatchPartialKeyword() {
+        KeywordSet keywords = new KeywordSet("interface");
+        TextMatcher textMatcher = new TextMatcher("interf");
+        assertEquals(-1, textMatcher.matchOneOf(keywords));
+        assertEquals(0, textMatcher.getIndex());
+    }
+
+    @Test
+    public void shouldSkipToEarliestKeyword() {
+        KeywordSet keywords = new KeywordSet("bcd", "abcdef", "xyz");
+        TextMatcher textMatcher = new TextMatcher("--abcdef--xyz--bcd");
+        assertEquals(1, textMatcher.skipToAny(keywords));
+        assertEquals(0, textMatcher.getStart());
+        assertEquals(2, textMatcher.getIndex());
+        assertEquals("--", textMatcher.getResult());
+        assertEquals(1, textMatcher.matchOneOf(keywords));
+        assertEquals(2, textMatcher.skipToAny(keywords));
+        assertEquals(10, textMatcher.getIndex());
+        textMatcher.skipFixed(3);
+        assertEquals(0, textMatcher.skipToAny(keywords));
+        assertEquals(15, textMatcher.getIndex());
+        textMatcher.skipFixed(1);
+        assertEquals(-1, textMatcher.skipToAny(keywords));
+        assertEquals(16, textMatcher.getStart());
+        assertEquals(18, textMatcher.getIndex());
+    }
+
+    @Test
+    public void shouldHandleNonASCIIKeywords() {
+        KeywordSet keywords = new KeywordSet("café", "über", "ü");
+        TextMatcher textMatcher = new TextMatcher("un café über alles");
+        assertEquals(0, textMatcher.skipToAny(keywords));
+        assertEquals(3, textMatcher.getIndex());
+        assertEquals(0, textMatcher.matchOneOf(keywords));
+        assertEquals(1, textMatcher.skipToAny(keywords));
+        assertEquals(1, textMatcher.matchOneOf(keywords));
+        assertEquals(-1, textMatcher.skipToAny(keywords));
+    }
+
+    @Test
+    public void shouldAgreeWithSequentialSearch() {
+        Random random = new Random(2468);
+        for (int n = 0; n < 500; n++) {
+            String[] words = new String[1 + random.nextInt(8)];
+            for (int i = 0; i < words.length; i++) {
+                String word;
+                do {
+                    word = randomString(random, 1 + random.nextInt(5));
+                } while (contains(words, i, word));
+                words[i] = word;
+            }
+            KeywordSet keywords = new KeywordSet(words);
+            String text = randomString(random, random.nextInt(60));
+            int bestStart = -1;
+            int bestId = -1;
+            for (int i = 0; i < words.length; i++) {
+                int k = text.indexOf(words[i]);
+                if (k >= 0 && (bestId < 0 || k < bestStart ||
+                        k == bestStart && words[i].length() > words[bestId].length())) {
+                    bestStart = k;
+                    bestId = i;
+                }
+            }
+            TextMatcher textMatcher = new TextMatcher(text);
+            assertEquals(text, bestId, textMatcher.skipToAny(keywords));
+            assertEquals(bestId < 0 ? text.length() : bestStart, textMatcher.getIndex());
+        }
+    }
+
+    @Test
+    public void shouldReturnKeywords() {
+        KeywordSet keywords = new KeywordSet("alpha", "beta", "gamma");
+        assertEquals(3, keywords.getSize());
+        assertEquals("beta", keywords.getKeyword(1));
+        assertEquals(5, keywords.getMaxLength());
+    }
+
+    @Test
+    public void shouldRejectInvalidKeywords() {
+        assertThrows(IllegalArgumentException.class, () -> new KeywordSet("abc", ""));
+        assertThrows(IllegalArgumentException.class, () -> new KeywordSet("abc", "def", "abc"));
+        assertThrows(NullPointerException.class, () -> new KeywordSet("abc", null));
+    }
+
+    private static boolean contains(String[] words, int n, String word) {
+        for (int i = 0; i < n; i++)
+            if (words[i].equals(word))
+                return true;
+        return false;
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = random.nextInt(8) == 0 ? 'é' : (char)('a' + random.nextInt(3));
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * @(#) MappedFileMatcherTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.jstuff.text.MappedFileMatcher;
+import io.jstuff.text.TextMatcher;
+
+public class MappedFileMatcherTest {
+
+    private static Path createFile(String content) throws IOException {
+        Path path = Files.createTempFile("textmatcher", ".txt");
+        path.toFile().deleteOnExit();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Test
+    public void shouldMatchFileContents() throws IOException {
+        Path path = createFile("id=123,name=Zoë,span=7fff\n");
+        try (MappedFileMatcher mfm = new MappedFileMatcher(path)) {
+            assertEquals(27, mfm.getLength());
+            assertTrue(mfm.match("id="));
+            assertTrue(mfm.matchDec());
+            assertEquals(123, mfm.getResultInt());
+            assertTrue(mfm.match(",name="));
+            mfm.skipTo(',');
+            assertEquals("Zoë", mfm.getResult());
+            assertTrue(mfm.match(','));
+            mfm.skipTo("=");
+            assertEquals("span", mfm.getResult());
+            mfm.skipFixed(1);
+            assertTrue(mfm.matchHex());
+            assertEquals(0x7FFF, mfm.getResultHexInt());
+            assertEquals(0x7FFFL, mfm.getResultHexLong());
+            assertTrue(mfm.match('\n'));
+            assertTrue(mfm.isAtEnd());
+            assertFalse(mfm.match('\n'));
+        }
+    }
+
+    @Test
+    public void shouldMatchAcrossWindowBoundaries() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            sb.append("rec").append(1000000000000L + i).append(";name-").append(i).append('\n');
+        Path path = createFile(sb.toString());
+        try (MappedFileMatcher mfm = new MappedFileMatcher(path, 16)) {
+            assertEquals(16, mfm.getWindowSize());
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(mfm.match("rec"));
+                assertTrue(mfm.matchDec());
+                assertEquals(1000000000000L + i, mfm.getResultLong());
+                assertTrue(mfm.match(';'));
+                mfm.skipTo('\n');
+                assertEquals("name-" + i, mfm.getResult());
+                assertTrue(mfm.match('\n'));
+            }
+            assertTrue(mfm.isAtEnd());
+        }
+    }
+
+    @Test
+    public void shouldGetResultLongerThanWindow() throws IOException {
+        Path path = createFile("abcdefghijklmnopqrstuvwxyz;0123456789");
+        try (MappedFileMatcher mfm = new MappedFileMatcher(path, 4)) {
+            mfm.skipTo(';');
+            assertEquals(26, mfm.getResultLength());
+            assertEquals("abcdefghijklmnopqrstuvwxyz", mfm.getResult());
+            mfm.skipFixed(1);
+            mfm.skipToEnd();
+            assertEquals("0123456789", mfm.getResult());
+            assertEquals(123456789L, mfm.getResultLong());
+            mfm.revert();
+            assertTrue(mfm.matchSeq(3, TextMatcher::isDigit));
+            assertEquals("012", mfm.getResult());
+            assertEquals('a', mfm.getByte(0));
+            assertEquals('z', mfm.getByte(25));
+        }
+    }
+
+    @Test
+    public void shouldHandleEmptyFile() throws IOException {
+        Path path = createFile("");
+        try (MappedFileMatcher mfm = new MappedFileMatcher(path)) {
+            assertTrue(mfm.isAtEnd());
+            assertFalse(mfm.match('a'));
+            mfm.skipTo('x');
+            assertEquals(0, mfm.getIndex());
+            assertEquals("", mfm.getResult());
+            assertThrows(IndexOutOfBoundsException.class, () -> mfm.getByte(0));
+        }
+    }
+
+    @Test
+    public void shouldReportErrorsAfterClose() throws IOException {
+        Path path = createFile("abc");
+        MappedFileMatcher mfm = new MappedFileMatcher(path);
+        mfm.close();
+        assertThrows(UncheckedIOException.class, () -> mfm.match('a'));
+    }
+
+    @Test
+    public void shouldRejectInvalidArguments() throws IOException {
+        Path path = createFile("abc");
+        assertThrows(NullPointerException.class, () -> new MappedFileMatcher(null));
+        assertThrows(IllegalArgumentException.class, () -> new MappedFileMatcher(path, 0));
+        try (MappedFileMatcher mfm = new MappedFileMatcher(path)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> mfm.setIndex(4));
+            assertThrows(IndexOutOfBoundsException.class, () -> mfm.getLong(1, 5, false));
+            assertThrows(NumberFormatException.class, () -> mfm.getInt(0, 2, false));
+            assertThrows(IllegalArgumentException.class, () -> mfm.match('\u00E9'));
+            assertThrows(IllegalArgumentException.class, () -> mfm.matchAny("\u00E9"));
+            assertThrows(IllegalArgumentException.class, () -> mfm.skipTo("b\u00E9"));
+        }
+    }
+
+    @Test
+    public void shouldDetectNumberOverflow() throws IOException {
+        Path path = createFile("4294967297,2147483648,2147483649,9999999999,9223372036854775808,9223372036854775809," +
+                "18446744073709551617");
+        try (MappedFileMatcher mfm = new MappedFileMatcher(path)) {
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, mfm::getResultInt);
+            assertThrows(NumberFormatException.class, () -> mfm.getResultInt(true));
+            assertEquals(4294967297L, mfm.getResultLong());
+            assertTrue(mfm.match(','));
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, mfm::getResultInt);
+            assertEquals(Integer.MIN_VALUE, mfm.getResultInt(true));
+            assertTrue(mfm.match(','));
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, () -> mfm.getResultInt(true));
+            assertEquals(2147483649L, mfm.getResultLong());
+            assertTrue(mfm.match(','));
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, mfm::getResultInt);
+            assertEquals(9999999999L, mfm.getResultLong());
+            assertTrue(mfm.match(','));
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, mfm::getResultLong);
+            assertEquals(Long.MIN_VALUE, mfm.getResultLong(true));
+            assertTrue(mfm.match(','));
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, () -> mfm.getResultLong(true));
+            assertTrue(mfm.match(','));
+            assertTrue(mfm.matchDec());
+            assertThrows(NumberFormatException.class, mfm::getResultLong);
+            assertThrows(NumberFormatException.class, () -> mfm.getResultLong(true));
+        }
+    }
+
+}
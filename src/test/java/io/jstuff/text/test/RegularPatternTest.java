@@ -0,0 +1,163 @@
+/*
+ * @(#) RegularPatternTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.jstuff.text.CharClass;
+import io.jstuff.text.RegularPattern;
+import io.jstuff.text.TextMatcher;
+import io.jstuff.text.TextPattern;
+import static io.jstuff.text.TextPattern.capture;
+import static io.jstuff.text.TextPattern.choice;
+import static io.jstuff.text.TextPattern.dec;
+import static io.jstuff.text.TextPattern.of;
+import static io.jstuff.text.TextPattern.optional;
+import static io.jstuff.text.TextPattern.repeat;
+import static io.jstuff.text.TextPattern.sequence;
+import static io.jstuff.text.TextPattern.seq;
+
+public class RegularPatternTest {
+
+    @Test
+    public void shouldMatchSequence() {
+        RegularPattern pattern = new RegularPattern(sequence(dec(4, 4), of('-'), dec(2, 2), of('-'), dec(2, 2)));
+        TextMatcher textMatcher = new TextMatcher("on 2026-10-18.");
+        assertFalse(textMatcher.match(pattern));
+        assertEquals(0, textMatcher.getIndex());
+        textMatcher.setIndex(3);
+        assertTrue(textMatcher.match(pattern));
+        assertEquals(3, textMatcher.getStart());
+        assertEquals(13, textMatcher.getIndex());
+        assertEquals("2026-10-18", textMatcher.getResult());
+        textMatcher.setIndex(4);
+        assertFalse(textMatcher.match(pattern));
+        assertEquals(4, textMatcher.getIndex());
+    }
+
+    @Test
+    public void shouldMatchWhereTextPatternDoesNot() {
+        TextPattern textPattern = sequence(seq(CharClass.DIGITS), of('1'));
+        RegularPattern pattern = new RegularPattern(textPattern);
+        TextMatcher textMatcher = new TextMatcher("1231x");
+        assertFalse(textMatcher.match(textPattern));
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("1231", textMatcher.getResult());
+    }
+
+    @Test
+    public void shouldSelectLongestMatch() {
+        RegularPattern pattern = new RegularPattern(choice(of("ab"), of("abcd"), of("abc")));
+        TextMatcher textMatcher = new TextMatcher("abcde");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("abcd", textMatcher.getResult());
+        textMatcher = new TextMatcher("abcx");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("abc", textMatcher.getResult());
+        textMatcher = new TextMatcher("axx");
+        assertFalse(textMatcher.match(pattern));
+    }
+
+    @Test
+    public void shouldMatchEmptyText() {
+        RegularPattern pattern = new RegularPattern(optional(of('+')));
+        TextMatcher textMatcher = new TextMatcher("abc");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals(0, textMatcher.getStart());
+        assertEquals(0, textMatcher.getIndex());
+        textMatcher.setIndex(3);
+        assertTrue(textMatcher.match(pattern));
+        assertEquals(3, textMatcher.getIndex());
+    }
+
+    @Test
+    public void shouldMatchNonAsciiCharacters() {
+        CharClass greek = CharClass.range('α', 'ω');
+        RegularPattern pattern = new RegularPattern(sequence(seq(greek), optional(of('é')),
+                seq(0, 0, Character::isLetter)));
+        TextMatcher textMatcher = new TextMatcher("αβéüx一 ");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals(6, textMatcher.getIndex());
+        textMatcher = new TextMatcher("é");
+        assertFalse(textMatcher.match(pattern));
+    }
+
+    @Test
+    public void shouldMatchBoundedRepeat() {
+        RegularPattern pattern = new RegularPattern(repeat(3, 2, sequence(of('a'), seq(2, 0, CharClass.DIGITS))));
+        TextMatcher textMatcher = new TextMatcher("a1a22a333");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("a1a22a33", textMatcher.getResult());
+        textMatcher = new TextMatcher("a1b");
+        assertFalse(textMatcher.match(pattern));
+    }
+
+    @Test
+    public void shouldRejectInvalidPatterns() {
+        assertThrows(NullPointerException.class, () -> new RegularPattern(null));
+        assertThrows(IllegalArgumentException.class, () -> new RegularPattern(sequence(of('a'), capture(of('b')))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RegularPattern(seq(Integer.MAX_VALUE, 1, CharClass.of("ab"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RegularPattern(repeat(TextPattern.MAX_REPEAT, 0, repeat(100, 0, of("ab")))));
+    }
+
+    @Test
+    public void shouldMatchSameAsLongestRegexMatch() {
+        RegularPattern pattern = new RegularPattern(sequence(
+                repeat(choice(of("ab"), of('a'), seq(2, 1, CharClass.of("c")))),
+                optional(sequence(of('b'), dec(3, 0))), seq(0, 0, CharClass.of("ab"))));
+        Pattern regex = Pattern.compile("(?:ab|a|c{1,2})*(?:b[0-9]{0,3})?[ab]*");
+        Random random = new Random(13572468);
+        char[] alphabet = { 'a', 'b', 'c', '1', '2', ';' };
+        for (int n = 0; n < 10000; n++) {
+            char[] chars = new char[random.nextInt(12)];
+            for (int k = 0; k < chars.length; k++)
+                chars[k] = alphabet[random.nextInt(alphabet.length)];
+            String text = new String(chars);
+            int expected = -1;
+            Matcher matcher = regex.matcher(text);
+            for (int end = text.length(); end >= 0; end--) {
+                if (matcher.region(0, end).matches()) {
+                    expected = end;
+                    break;
+                }
+            }
+            TextMatcher textMatcher = new TextMatcher(text);
+            assertEquals(text, expected >= 0, textMatcher.match(pattern));
+            assertEquals(text, Math.max(expected, 0), textMatcher.getIndex());
+        }
+    }
+
+}
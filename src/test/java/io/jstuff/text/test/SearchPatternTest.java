@@ -0,0 +1,124 @@
+/*
+ * @(#) SearchPatternTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import io.jstuff.text.SearchPattern;
+import io.jstuff.text.TextMatcher;
+
+public class SearchPatternTest {
+
+    @Test
+    public void shouldFindShortTarget() {
+        SearchPattern pattern = new SearchPattern("*/");
+        assertEquals(5, pattern.find("/*****/"));
+        assertEquals(5, pattern.find("/*****/", 5, 7));
+        assertEquals(-1, pattern.find("/*****/", 5, 6));
+        assertEquals(-1, pattern.find("/*****"));
+        assertEquals(2, pattern.getLength());
+        assertEquals("*/", pattern.getTarget());
+    }
+
+    @Test
+    public void shouldFindSingleCharacterAndEmptyTarget() {
+        assertEquals(3, new SearchPattern("d").find("abcdef"));
+        assertEquals(-1, new SearchPattern("x").find("abcdef"));
+        assertEquals(2, new SearchPattern("").find("abcdef", 2, 6));
+    }
+
+    @Test
+    public void shouldFindLongTargetInRepetitiveText() {
+        String target = "----------------------------------------x";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            sb.append('-');
+        sb.append('x');
+        assertEquals(1000 - 40, new SearchPattern(target).find(sb));
+        assertEquals(-1, new SearchPattern(target).find(sb, 0, 1000));
+    }
+
+    @Test
+    public void shouldAgreeWithStringIndexOf() {
+        Random random = new Random(12345);
+        for (int n = 0; n < 2000; n++) {
+            String text = randomString(random, random.nextInt(200), 3);
+            String target = randomString(random, 1 + random.nextInt(40), 3);
+            int from = random.nextInt(text.length() + 1);
+            assertEquals(text + " / " + target, text.indexOf(target, from),
+                    new SearchPattern(target).find(text, from, text.length()));
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithStringIndexOfForPeriodicTargets() {
+        Random random = new Random(54321);
+        for (int n = 0; n < 2000; n++) {
+            String unit = randomString(random, 1 + random.nextInt(4), 2);
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < 16 + random.nextInt(24))
+                sb.append(unit);
+            String target = sb.toString();
+            String text = randomString(random, random.nextInt(10), 2) + target + target.substring(1) +
+                    randomString(random, random.nextInt(10), 2) + target;
+            assertEquals(text.indexOf(target), new SearchPattern(target).find(text));
+        }
+    }
+
+    @Test
+    public void shouldSkipToPattern() {
+        SearchPattern pattern = new SearchPattern("*/");
+        TextMatcher textMatcher = new TextMatcher("/*****/");
+        assertTrue(textMatcher.match("/*"));
+        textMatcher.skipTo(pattern);
+        assertEquals(2, textMatcher.getStart());
+        assertEquals(5, textMatcher.getIndex());
+        assertEquals("***", textMatcher.getResult());
+        assertTrue(textMatcher.match(pattern.getTarget()));
+        textMatcher.skipTo(pattern);
+        assertEquals(7, textMatcher.getStart());
+        assertTrue(textMatcher.isAtEnd());
+    }
+
+    @SuppressWarnings("DataFlowIssue")
+    @Test
+    public void shouldComplainWhenTargetIsNull() {
+        assertThrows(NullPointerException.class, () -> new SearchPattern(null));
+    }
+
+    private static String randomString(Random random, int length, int alphabet) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = (char)('a' + random.nextInt(alphabet));
+        return new String(chars);
+    }
+
+}
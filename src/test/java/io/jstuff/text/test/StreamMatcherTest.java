@@ -0,0 +1,225 @@
+/*
+ * @(#) StreamMatcherTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import io.jstuff.text.StreamMatcher;
+import io.jstuff.text.TextMatcher;
+
+public class StreamMatcherTest {
+
+    @Test
+    public void shouldMatchFromReader() throws IOException {
+        try (StreamMatcher sm = new StreamMatcher(new StringReader("id=123,name=Fred,span=-7fff;end"))) {
+            assertTrue(sm.match("id="));
+            assertTrue(sm.matchDec());
+            assertEquals(123, sm.getResultInt());
+            assertEquals(123L, sm.getResultLong());
+            assertTrue(sm.match(','));
+            sm.skipTo('=');
+            assertEquals("name", sm.getResult());
+            assertTrue(sm.match('='));
+            assertTrue(sm.matchSeq(Character::isLetter));
+            assertEquals("Fred", sm.getResult());
+            assertTrue(sm.matchAny(",;"));
+            sm.skipTo("=-");
+            assertEquals("span", sm.getResult());
+            sm.skipFixed(2);
+            assertTrue(sm.matchHex());
+            assertEquals(0x7FFF, sm.getResultHexInt());
+            assertEquals(0x7FFFL, sm.getResultHexLong());
+            assertFalse(sm.match("; end"));
+            assertTrue(sm.match(";"));
+            sm.skipToEnd();
+            assertEquals("end", sm.getResult());
+            assertTrue(sm.isAtEnd());
+            assertFalse(sm.match('x'));
+        }
+    }
+
+    @Test
+    public void shouldRefillAndCompactBuffer() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            sb.append("rec:").append(i).append(",name-").append(i).append('\n');
+        StreamMatcher sm = new StreamMatcher(new ChunkedReader(sb.toString(), 3), 16);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(sm.match("rec:"));
+            assertTrue(sm.matchDec());
+            assertEquals(i, sm.getResultInt());
+            assertTrue(sm.match(','));
+            sm.skipTo('\n');
+            assertEquals("name-" + i, sm.getResult());
+            assertTrue(sm.match('\n'));
+        }
+        assertTrue(sm.isAtEnd());
+        assertEquals(16, sm.getBufferSize());
+    }
+
+    @Test
+    public void shouldGrowBufferForLongToken() {
+        String token = "abcdefghijklmnopqrstuvwxyz0123456789";
+        StreamMatcher sm = new StreamMatcher(new ChunkedReader("[" + token + "]", 5), 8);
+        assertTrue(sm.match('['));
+        sm.skipTo("]");
+        assertEquals(token, sm.getResult());
+        assertEquals(36, sm.getResultLength());
+        assertTrue(sm.getBufferSize() >= 37);
+        assertTrue(sm.match(']'));
+        assertTrue(sm.isAtEnd());
+    }
+
+    @Test
+    public void shouldRevertAndContinue() {
+        StreamMatcher sm = new StreamMatcher(new ChunkedReader("abc123def", 2), 4);
+        assertTrue(sm.matchSeq(Character::isLetter));
+        assertTrue(sm.matchContinue(TextMatcher::isDigit));
+        assertEquals("abc123", sm.getResult());
+        assertFalse(sm.matchContinue(0, 1, TextMatcher::isDigit));
+        assertEquals(0, sm.getIndex());
+        sm.skip(Character::isLetter);
+        assertEquals(3, sm.getIndex());
+        sm.skipAny("0123");
+        assertEquals("123", sm.getResult());
+        sm.revert();
+        assertEquals(3, sm.getIndex());
+        assertEquals('1', sm.getResultChar());
+    }
+
+    @Test
+    public void shouldNotAllowIndexBeforeRetainedData() {
+        StreamMatcher sm = new StreamMatcher(new ChunkedReader("0123456789abcdefghij", 4), 4);
+        sm.skipFixed(12);
+        assertTrue(sm.match("cd"));
+        assertTrue(sm.match("efghij"));
+        assertEquals(12, sm.getBufferOffset());
+        assertThrows(IndexOutOfBoundsException.class, () -> sm.setIndex(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> sm.setIndex(21));
+        assertThrows(IndexOutOfBoundsException.class, () -> sm.skipFixed(100));
+        sm.setIndex(20);
+        assertTrue(sm.isAtEnd());
+    }
+
+    @Test
+    public void shouldMatchUTF8FromChannel() {
+        byte[] bytes = "name=Zoë 一\n".getBytes(StandardCharsets.UTF_8);
+        StreamMatcher sm = new StreamMatcher(Channels.newChannel(new ByteArrayInputStream(bytes)));
+        assertTrue(sm.match("name="));
+        sm.skipTo('\n');
+        assertEquals("Zoë 一", sm.getResult());
+    }
+
+    @Test
+    public void shouldReportReadErrors() {
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("Read error");
+            }
+            @Override
+            public void close() {}
+        };
+        StreamMatcher sm = new StreamMatcher(reader);
+        assertThrows(UncheckedIOException.class, () -> sm.match('a'));
+        assertThrows(NullPointerException.class, () -> new StreamMatcher((Reader)null));
+        assertThrows(IllegalArgumentException.class, () -> new StreamMatcher(reader, 0));
+    }
+
+    public static class ChunkedReader extends Reader {
+
+        private final String text;
+        private final int chunkSize;
+        private int index;
+
+        public ChunkedReader(String text, int chunkSize) {
+            this.text = text;
+            this.chunkSize = chunkSize;
+            index = 0;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (index >= text.length())
+                return -1;
+            int n = Math.min(Math.min(len, chunkSize), text.length() - index);
+            text.getChars(index, index + n, cbuf, off);
+            index += n;
+            return n;
+        }
+
+        @Override
+        public void close() {}
+
+    }
+
+    @Test
+    public void shouldDetectNumberOverflow() throws IOException {
+        try (StreamMatcher sm = new StreamMatcher(new StringReader("4294967297,2147483648,2147483649,9999999999,9223372036854775808,9223372036854775809," +
+                    "18446744073709551617"))) {
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, sm::getResultInt);
+            assertThrows(NumberFormatException.class, () -> sm.getResultInt(true));
+            assertEquals(4294967297L, sm.getResultLong());
+            assertTrue(sm.match(','));
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, sm::getResultInt);
+            assertEquals(Integer.MIN_VALUE, sm.getResultInt(true));
+            assertTrue(sm.match(','));
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, () -> sm.getResultInt(true));
+            assertEquals(2147483649L, sm.getResultLong());
+            assertTrue(sm.match(','));
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, sm::getResultInt);
+            assertEquals(9999999999L, sm.getResultLong());
+            assertTrue(sm.match(','));
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, sm::getResultLong);
+            assertEquals(Long.MIN_VALUE, sm.getResultLong(true));
+            assertTrue(sm.match(','));
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, () -> sm.getResultLong(true));
+            assertTrue(sm.match(','));
+            assertTrue(sm.matchDec());
+            assertThrows(NumberFormatException.class, sm::getResultLong);
+            assertThrows(NumberFormatException.class, () -> sm.getResultLong(true));
+        }
+    }
+
+}
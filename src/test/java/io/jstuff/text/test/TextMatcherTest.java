@@ -26,13 +26,26 @@
 package io.jstuff.text.test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import io.jstuff.text.NumberResult;
 import io.jstuff.text.TextMatcher;
 
 public class TextMatcherTest {
@@ -53,6 +66,166 @@ public class TextMatcherTest {
         assertThrows(NullPointerException.class, () -> new TextMatcher(null));
     }
 
+    @Test
+    public void shouldResetToNewText() {
+        TextMatcher textMatcher = new TextMatcher("abc");
+        assertTrue(textMatcher.match("ab"));
+        textMatcher.reset("xyz123");
+        assertEquals("xyz123", textMatcher.getText());
+        assertEquals(6, textMatcher.getLength());
+        assertEquals(0, textMatcher.getStart());
+        assertEquals(0, textMatcher.getIndex());
+        assertTrue(textMatcher.match("xyz"));
+        assertTrue(textMatcher.matchDec());
+        assertEquals(123, textMatcher.getResultInt());
+        assertTrue(textMatcher.isAtEnd());
+        assertThrows(NullPointerException.class, () -> textMatcher.reset(null));
+    }
+
+    @Test
+    public void shouldResetToRegionOfText() {
+        TextMatcher textMatcher = new TextMatcher("");
+        textMatcher.reset("id=1234,name=abc\n", 3, 7);
+        assertEquals(3, textMatcher.getStart());
+        assertEquals(3, textMatcher.getIndex());
+        assertEquals(7, textMatcher.getLength());
+        assertTrue(textMatcher.matchDec());
+        assertEquals("1234", textMatcher.getResult());
+        assertTrue(textMatcher.isAtEnd());
+        assertFalse(textMatcher.match(','));
+        textMatcher.setIndex(3);
+        textMatcher.skipTo(',');
+        assertEquals(7, textMatcher.getIndex());
+        textMatcher.setIndex(3);
+        textMatcher.skipTo("4,");
+        assertEquals(7, textMatcher.getIndex());
+        textMatcher.setIndex(3);
+        textMatcher.skipTo("34");
+        assertEquals(5, textMatcher.getIndex());
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.setIndex(8));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.reset("abc", 2, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.reset("abc", 2, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.reset("abc", -1, 1));
+    }
+
+    @Test
+    public void shouldLimitSearchesToRegionOfString() {
+        String text = "a,b\nc;d\ne,f\n";
+        TextMatcher textMatcher = new TextMatcher(text);
+        textMatcher.reset(text, 4, 8);
+        textMatcher.skipTo(',');
+        assertEquals(8, textMatcher.getIndex());
+        assertEquals("c;d\n", textMatcher.getResult());
+        textMatcher.setIndex(4);
+        textMatcher.skipTo("e,");
+        assertEquals(8, textMatcher.getIndex());
+        textMatcher.setIndex(4);
+        textMatcher.skipTo(";d");
+        assertEquals(5, textMatcher.getIndex());
+        assertEquals(3, textMatcher.getLineCount());
+        assertEquals(3, textMatcher.getLine(8));
+        textMatcher.reset(text, 4, 7);
+        assertEquals(2, textMatcher.getLineCount());
+        textMatcher.skipTo('\n');
+        assertEquals(7, textMatcher.getIndex());
+    }
+
+    @Test
+    public void shouldMatchCharSequenceText() {
+        TextMatcher textMatcher = new TextMatcher(new StringBuilder("abc=123;"));
+        assertEquals(8, textMatcher.getLength());
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals("abc", textMatcher.getResult());
+        assertEquals("abc", textMatcher.getResultCharSeq().toString());
+        textMatcher.skipTo(';');
+        assertEquals("=123", textMatcher.getResult());
+        assertEquals("abc=123;", textMatcher.getText());
+        assertThrows(StringIndexOutOfBoundsException.class, () -> textMatcher.getString(3, 9));
+    }
+
+    @Test
+    public void shouldMatchCharArrayText() {
+        char[] chars = "xxid=1234;yy".toCharArray();
+        TextMatcher textMatcher = new TextMatcher(chars, 2, 10);
+        assertEquals(2, textMatcher.getIndex());
+        assertEquals(10, textMatcher.getLength());
+        assertTrue(textMatcher.match("id="));
+        assertTrue(textMatcher.matchDec());
+        assertEquals(1234, textMatcher.getResultInt());
+        assertEquals("1234", textMatcher.getResult());
+        textMatcher.skipTo('y');
+        assertTrue(textMatcher.isAtEnd());
+        assertEquals(";", textMatcher.getResult());
+        assertEquals('x', textMatcher.getChar(0));
+        textMatcher.reset(chars, 0, 4);
+        textMatcher.skip('x');
+        assertEquals("xx", textMatcher.getResult());
+        assertThrows(IndexOutOfBoundsException.class, () -> new TextMatcher(chars, 2, 13));
+        assertThrows(NullPointerException.class, () -> new TextMatcher(null, 0, 0));
+    }
+
+    @Test
+    public void shouldMatchCharBufferText() {
+        CharBuffer buffer = CharBuffer.wrap("__abc def".toCharArray());
+        buffer.position(2);
+        TextMatcher textMatcher = new TextMatcher(buffer);
+        assertEquals(7, textMatcher.getLength());
+        assertTrue(textMatcher.match("abc"));
+        textMatcher.skip(' ');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals("def", textMatcher.getResult());
+        TextMatcher readOnly = new TextMatcher(CharBuffer.wrap("abc def"));
+        readOnly.skipTo(' ');
+        assertEquals("abc", readOnly.getResult());
+    }
+
+    @Test
+    public void shouldReuseArrayViewOnReset() {
+        char[] chars1 = "abc=1;".toCharArray();
+        char[] chars2 = "xy=22;".toCharArray();
+        TextMatcher textMatcher = new TextMatcher(chars1, 0, 6);
+        CharSequence view = textMatcher.getTextSequence();
+        assertEquals("abc=1;", view.toString());
+        textMatcher.reset(chars2, 0, 6);
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals("xy", textMatcher.getResultCharSeq().toString());
+        assertSame(view, textMatcher.getTextSequence());
+        assertEquals("xy=22;", view.toString());
+        textMatcher.reset("pq=3;");
+        assertEquals("pq=3;", textMatcher.getTextSequence());
+        textMatcher.reset(chars1, 4, 5);
+        assertSame(view, textMatcher.getTextSequence());
+        assertEquals("abc=1;", view.toString());
+        assertTrue(textMatcher.matchDec());
+        assertEquals("1", textMatcher.getResultInterned());
+    }
+
+    @Test
+    public void shouldResetToDifferentTypesOfText() {
+        TextMatcher textMatcher = new TextMatcher("id=12;");
+        char[] chars = "__id=345;".toCharArray();
+        textMatcher.reset(chars, 2, 9);
+        assertTrue(textMatcher.match("id="));
+        assertTrue(textMatcher.matchDec());
+        assertEquals(345, textMatcher.getResultInt());
+        assertEquals("345", textMatcher.getResultCharSeq().toString());
+        assertEquals("__id=345;", textMatcher.getTextSequence().toString());
+        CharBuffer buffer = CharBuffer.wrap(chars, 5, 3);
+        textMatcher.reset(buffer);
+        assertEquals(3, textMatcher.getLength());
+        assertTrue(textMatcher.matchDec());
+        assertEquals(345, textMatcher.getResultInt());
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.getInt(0, 4));
+        textMatcher.reset(new StringBuilder("id=6789;"));
+        textMatcher.skipTo('=');
+        textMatcher.skip('=');
+        assertTrue(textMatcher.matchDec());
+        assertEquals(6789, textMatcher.getResultInt());
+        textMatcher.reset("id=12;");
+        textMatcher.skipTo(';');
+        assertEquals("id=12", textMatcher.getResult());
+    }
+
     @Test
     public void shouldCorrectlyReturnAtEnd() {
         TextMatcher textMatcher1 = new TextMatcher("{}");
@@ -170,6 +343,25 @@ public class TextMatcherTest {
         assertFalse(textMatcher.isAtEnd());
     }
 
+    @Test
+    public void shouldSkipCharactersByValueInEachTypeOfText() {
+        String text = "x-----y";
+        TextMatcher textMatcher = new TextMatcher(text);
+        textMatcher.reset(text, 1, 4);
+        textMatcher.skip('-');
+        assertEquals(4, textMatcher.getIndex());
+        textMatcher.reset(text.toCharArray(), 1, 7);
+        textMatcher.skip('-');
+        assertEquals(6, textMatcher.getIndex());
+        assertEquals("-----", textMatcher.getResult());
+        textMatcher.reset(new StringBuilder(text), 0, 7);
+        textMatcher.skip('-');
+        assertEquals(0, textMatcher.getIndex());
+        textMatcher.setIndex(1);
+        textMatcher.skip('-');
+        assertEquals(6, textMatcher.getIndex());
+    }
+
     @Test
     public void shouldSkipToCharacter() {
         TextMatcher textMatcher = new TextMatcher("//   \n");
@@ -207,6 +399,22 @@ public class TextMatcherTest {
         assertEquals(6, textMatcher.getIndex());
     }
 
+    @Test
+    public void shouldSkipToCharSequence() {
+        TextMatcher textMatcher = new TextMatcher("/*****/");
+        assertTrue(textMatcher.match("/*"));
+        textMatcher.skipTo(new StringBuilder("*/"));
+        assertEquals(2, textMatcher.getStart());
+        assertEquals(5, textMatcher.getIndex());
+        textMatcher.setIndex(3);
+        textMatcher.skipTo(new StringBuilder("**"));
+        assertEquals(3, textMatcher.getIndex());
+        textMatcher.setIndex(5);
+        textMatcher.skipTo(new StringBuilder("/*"));
+        assertEquals(5, textMatcher.getStart());
+        assertTrue(textMatcher.isAtEnd());
+    }
+
     @Test
     public void shouldSkipCharactersByPredicate() {
         TextMatcher textMatcher1 = new TextMatcher("   {}");
@@ -445,4 +653,708 @@ public class TextMatcherTest {
         assertEquals(3, textMatcher.getIndex());
     }
 
+    @Test
+    public void shouldTryGetIntWithoutException() {
+        NumberResult result = new NumberResult();
+        TextMatcher textMatcher = new TextMatcher("123,2147483647,2147483648,9999999999,12x4,");
+        assertTrue(textMatcher.matchDec());
+        assertTrue(textMatcher.tryGetResultInt(result));
+        assertEquals(NumberResult.Status.VALID, result.getStatus());
+        assertEquals(123, result.getInt());
+        assertTrue(textMatcher.tryGetResultInt(true, result));
+        assertEquals(-123, result.getInt());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDec());
+        assertTrue(textMatcher.tryGetResultInt(result));
+        assertEquals(Integer.MAX_VALUE, result.getInt());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDec());
+        assertFalse(textMatcher.tryGetResultInt(result));
+        assertEquals(NumberResult.Status.OVERFLOW, result.getStatus());
+        assertTrue(textMatcher.tryGetResultInt(true, result));
+        assertEquals(Integer.MIN_VALUE, result.getInt());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDec());
+        assertFalse(textMatcher.tryGetResultInt(result));
+        assertEquals(NumberResult.Status.OVERFLOW, result.getStatus());
+        assertFalse(textMatcher.tryGetInt(37, 41, false, result));
+        assertEquals(NumberResult.Status.INVALID, result.getStatus());
+        assertFalse(result.isValid());
+        assertFalse(textMatcher.tryGetInt(5, 5, false, result));
+        assertEquals(NumberResult.Status.INVALID, result.getStatus());
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.tryGetInt(42, 50, false, result));
+    }
+
+    @Test
+    public void shouldTryGetLongWithoutException() {
+        NumberResult result = new NumberResult();
+        TextMatcher textMatcher = new TextMatcher("9223372036854775807,9223372036854775808,-0,99999999999999999999");
+        assertTrue(textMatcher.matchDec());
+        assertTrue(textMatcher.tryGetResultLong(result));
+        assertEquals(Long.MAX_VALUE, result.getLong());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDec());
+        assertFalse(textMatcher.tryGetResultLong(result));
+        assertEquals(NumberResult.Status.OVERFLOW, result.getStatus());
+        assertTrue(textMatcher.tryGetResultLong(true, result));
+        assertEquals(Long.MIN_VALUE, result.getLong());
+        assertTrue(textMatcher.match(",-") && textMatcher.matchDec());
+        assertTrue(textMatcher.tryGetResultLong(true, result));
+        assertEquals(0, result.getLong());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDec());
+        assertFalse(textMatcher.tryGetResultLong(true, result));
+        assertEquals(NumberResult.Status.OVERFLOW, result.getStatus());
+        assertFalse(textMatcher.tryGetLong(0, 20, false, result));
+        assertEquals(NumberResult.Status.INVALID, result.getStatus());
+    }
+
+    @Test
+    public void shouldTryGetHexWithoutException() {
+        NumberResult result = new NumberResult();
+        TextMatcher textMatcher = new TextMatcher("ffffffff,0100000000,7fffffffffffffff,1ffffffffffffffff,fg");
+        assertTrue(textMatcher.matchHex());
+        assertTrue(textMatcher.tryGetResultHexInt(result));
+        assertEquals(-1, result.getInt());
+        assertTrue(textMatcher.match(',') && textMatcher.matchHex());
+        assertFalse(textMatcher.tryGetResultHexInt(result));
+        assertEquals(NumberResult.Status.OVERFLOW, result.getStatus());
+        assertTrue(textMatcher.tryGetResultHexLong(result));
+        assertEquals(0x100000000L, result.getLong());
+        assertTrue(textMatcher.tryGetHexInt(10, 18, result));
+        assertEquals(0x10000000, result.getInt());
+        assertTrue(textMatcher.match(',') && textMatcher.matchHex());
+        assertTrue(textMatcher.tryGetResultHexLong(result));
+        assertEquals(Long.MAX_VALUE, result.getLong());
+        assertTrue(textMatcher.match(',') && textMatcher.matchHex());
+        assertFalse(textMatcher.tryGetResultHexLong(result));
+        assertEquals(NumberResult.Status.OVERFLOW, result.getStatus());
+        assertFalse(textMatcher.tryGetHexLong(55, 57, result));
+        assertEquals(NumberResult.Status.INVALID, result.getStatus());
+    }
+
+    @Test
+    public void shouldConvertLongDigitSequences() {
+        TextMatcher textMatcher = new TextMatcher("1234567890123456789");
+        for (int i = 1; i <= 19; i++) {
+            long expected = Long.parseLong("1234567890123456789".substring(0, i));
+            assertEquals(expected, textMatcher.getLong(0, i));
+            assertEquals(-expected, textMatcher.getLong(0, i, true));
+            if (i <= 9) {
+                assertEquals((int)expected, textMatcher.getInt(0, i));
+                assertEquals((int)-expected, textMatcher.getInt(0, i, true));
+            }
+        }
+        textMatcher = new TextMatcher("0000000000000000000000001700000000000");
+        assertEquals(1700000000000L, textMatcher.getLong(0, textMatcher.getLength()));
+    }
+
+    @Test
+    public void shouldDetectOverflowInLongDigitSequences() {
+        assertEquals(Integer.MAX_VALUE, new TextMatcher("2147483647").getInt(0, 10));
+        assertEquals(Integer.MIN_VALUE, new TextMatcher("2147483648").getInt(0, 10, true));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("2147483648").getInt(0, 10));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("2147483649").getInt(0, 10, true));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("9999999999").getInt(0, 10));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("12345678901").getInt(0, 11));
+        assertEquals(Long.MAX_VALUE, new TextMatcher("9223372036854775807").getLong(0, 19));
+        assertEquals(Long.MIN_VALUE, new TextMatcher("9223372036854775808").getLong(0, 19, true));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("9223372036854775808").getLong(0, 19));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("9223372036854775809").getLong(0, 19, true));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("20000000000000000000").getLong(0, 20));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("99999999999999999999").getLong(0, 20, true));
+    }
+
+    @Test
+    public void shouldRejectInvalidCharactersInLongDigitSequences() {
+        for (int i = 0; i < 16; i++) {
+            StringBuilder sb = new StringBuilder("1234567812345678");
+            sb.setCharAt(i, 'x');
+            TextMatcher textMatcher = new TextMatcher(sb);
+            assertThrows(NumberFormatException.class, () -> textMatcher.getLong(0, 16));
+            sb.setCharAt(i, '\u0663'); // Arabic-Indic digit three
+            assertThrows(NumberFormatException.class, () -> textMatcher.getLong(0, 16));
+            sb.setCharAt(i, '/');
+            assertThrows(NumberFormatException.class, () -> textMatcher.getLong(0, 16));
+            sb.setCharAt(i, ':');
+            assertThrows(NumberFormatException.class, () -> textMatcher.getLong(0, 16));
+        }
+    }
+
+    @Test
+    public void shouldMatchIntWithSign() {
+        TextMatcher textMatcher = new TextMatcher("123,-2147483648,+42,2147483648,-,x,1234567");
+        assertTrue(textMatcher.matchInt());
+        assertEquals(123, textMatcher.getMatchedInt());
+        assertEquals("123", textMatcher.getResult());
+        assertTrue(textMatcher.match(','));
+        assertTrue(textMatcher.matchInt());
+        assertEquals(Integer.MIN_VALUE, textMatcher.getMatchedInt());
+        assertEquals("-2147483648", textMatcher.getResult());
+        assertEquals(4, textMatcher.getStart());
+        assertTrue(textMatcher.match(','));
+        assertTrue(textMatcher.matchInt());
+        assertEquals(42, textMatcher.getMatchedInt());
+        assertTrue(textMatcher.match(','));
+        assertFalse(textMatcher.matchInt());
+        assertEquals(20, textMatcher.getIndex());
+        textMatcher.skipTo(',');
+        assertTrue(textMatcher.match(','));
+        assertFalse(textMatcher.matchInt());
+        assertTrue(textMatcher.match("-,"));
+        assertFalse(textMatcher.matchInt());
+        assertTrue(textMatcher.match("x,"));
+        assertTrue(textMatcher.matchInt(4));
+        assertEquals(1234, textMatcher.getMatchedInt());
+        assertTrue(textMatcher.matchInt(4));
+        assertEquals(567, textMatcher.getMatchedInt());
+        assertTrue(textMatcher.isAtEnd());
+        assertFalse(textMatcher.matchInt());
+    }
+
+    @Test
+    public void shouldMatchLongWithSign() {
+        TextMatcher textMatcher = new TextMatcher("1700000000000 -9223372036854775808 9223372036854775807 9223372036854775808");
+        assertTrue(textMatcher.matchLong());
+        assertEquals(1700000000000L, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.match(' '));
+        assertTrue(textMatcher.matchLong(19));
+        assertEquals(Long.MIN_VALUE, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.match(' '));
+        assertTrue(textMatcher.matchLong());
+        assertEquals(Long.MAX_VALUE, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.match(' '));
+        assertFalse(textMatcher.matchLong());
+        assertEquals(55, textMatcher.getIndex());
+    }
+
+    @Test
+    public void shouldMatchDecimal() {
+        TextMatcher textMatcher = new TextMatcher("12.5,-0.001,+3e10,1.5E-3,7.,2e,x");
+        assertTrue(textMatcher.matchDecimal());
+        assertEquals("12.5", textMatcher.getResult());
+        assertEquals(12.5, textMatcher.getResultDouble(), 0.0);
+        assertEquals(new BigDecimal("12.5"), textMatcher.getResultBigDecimal());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDecimal());
+        assertEquals(-0.001, textMatcher.getResultDouble(), 0.0);
+        assertEquals(new BigDecimal("-0.001"), textMatcher.getResultBigDecimal());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDecimal());
+        assertEquals(3e10, textMatcher.getResultDouble(), 0.0);
+        assertEquals(new BigDecimal("3e10"), textMatcher.getResultBigDecimal());
+        assertTrue(textMatcher.match(',') && textMatcher.matchDecimal());
+        assertEquals(1.5e-3, textMatcher.getResultDouble(), 0.0);
+        assertTrue(textMatcher.match(',') && textMatcher.matchDecimal());
+        assertEquals("7", textMatcher.getResult());
+        assertTrue(textMatcher.match(".,") && textMatcher.matchDecimal());
+        assertEquals("2", textMatcher.getResult());
+        assertTrue(textMatcher.match("e,"));
+        assertFalse(textMatcher.matchDecimal());
+        assertThrows(NumberFormatException.class, () -> textMatcher.getDouble(0, 5));
+        assertThrows(NumberFormatException.class, () -> textMatcher.getBigDecimal(26, 28));
+    }
+
+    @Test
+    public void shouldConvertDoubleEdgeCases() {
+        String[] cases = { "0", "-0", "0.0", "-0.0e10", "1", "9007199254740993", "123456789012345678901234567890",
+                "1e22", "1e23", "1.7976931348623157e308", "1.7976931348623159e308", "2e308", "4.9e-324", "2.4e-324",
+                "2.5e-324", "2.2250738585072014e-308", "2.2250738585072011e-308", "1e-400", "0.1", "0.30000000000000004",
+                "9007199254740992.5", "9007199254740993.0000000000001", "7.2057594037927933e16", "3.14159265358979323846",
+                "1.00000000000000011102230246251565404236316680908203125",
+                "1.00000000000000011102230246251565404236316680908203124",
+                "1.00000000000000011102230246251565404236316680908203126",
+                "0.000000000000000000000000000000000000000000001", "1e0000000000000000000000010" };
+        for (String text : cases) {
+            TextMatcher textMatcher = new TextMatcher(text);
+            assertTrue(text, textMatcher.matchDecimal());
+            assertTrue(text, textMatcher.isAtEnd());
+            assertEquals(text, Double.doubleToRawLongBits(Double.parseDouble(text)),
+                    Double.doubleToRawLongBits(textMatcher.getResultDouble()));
+            assertEquals(text, new BigDecimal(text), textMatcher.getResultBigDecimal());
+        }
+    }
+
+    @Test
+    public void shouldConvertRandomDoublesCorrectly() {
+        Random random = new Random(27182818);
+        StringBuilder sb = new StringBuilder();
+        for (int n = 0; n < 100000; n++) {
+            sb.setLength(0);
+            if (n % 3 == 0)
+                sb.append(Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE));
+            else {
+                if (random.nextBoolean())
+                    sb.append('-');
+                int digits = 1 + random.nextInt(n % 3 == 1 ? 17 : 25);
+                for (int i = 0; i < digits; i++)
+                    sb.append((char)('0' + random.nextInt(10)));
+                if (random.nextBoolean())
+                    sb.insert(sb.length() - random.nextInt(digits), '.');
+                if (sb.charAt(sb.length() - 1) == '.')
+                    sb.append('0');
+                sb.append('e').append(random.nextInt(700) - 350);
+            }
+            String text = sb.toString();
+            if (text.contains("Infinity") || text.contains("NaN"))
+                continue;
+            TextMatcher textMatcher = new TextMatcher(text);
+            assertTrue(text, textMatcher.matchDecimal());
+            assertTrue(text, textMatcher.isAtEnd());
+            assertEquals(text, Double.doubleToRawLongBits(Double.parseDouble(text)),
+                    Double.doubleToRawLongBits(textMatcher.getResultDouble()));
+            if (n % 10 == 0)
+                assertEquals(text, new BigDecimal(text), textMatcher.getResultBigDecimal());
+        }
+    }
+
+    @Test
+    public void shouldMatchHexIntAndHexLong() {
+        TextMatcher textMatcher = new TextMatcher("4bf92f3577b34da6a3ce929d0e0e4736,00f067aa0ba902b7,FFFFFFFF,1ffffffff");
+        assertFalse(textMatcher.matchHexLong());
+        assertEquals(0, textMatcher.getIndex());
+        assertTrue(textMatcher.matchHexLong(16));
+        assertEquals(0x4bf92f3577b34da6L, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.matchHexLong(16));
+        assertEquals(0xa3ce929d0e0e4736L, textMatcher.getMatchedLong());
+        assertEquals("a3ce929d0e0e4736", textMatcher.getResult());
+        assertTrue(textMatcher.match(','));
+        assertTrue(textMatcher.matchHexLong());
+        assertEquals(0x00f067aa0ba902b7L, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.match(','));
+        assertTrue(textMatcher.matchHexInt());
+        assertEquals(-1, textMatcher.getMatchedInt());
+        assertEquals(0xFFFFFFFFL, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.match(','));
+        assertFalse(textMatcher.matchHexInt());
+        assertTrue(textMatcher.matchHexInt(3));
+        assertEquals(0x1ff, textMatcher.getMatchedInt());
+        assertTrue(textMatcher.matchHexLong());
+        assertEquals(0xffffffL, textMatcher.getMatchedLong());
+        assertTrue(textMatcher.isAtEnd());
+        assertFalse(textMatcher.matchHexInt());
+    }
+
+    @Test
+    public void shouldStopMatchHexAtAnyNonHexCharacter() {
+        char[] nonHex = { 'g', 'G', '@', '`', '/', ':', '\u0010', '\u0019', ' ', '\u0666', '\uff11' };
+        for (int i = 0; i < 12; i++) {
+            for (char ch : nonHex) {
+                StringBuilder sb = new StringBuilder("0123456789abcDEF");
+                sb.setCharAt(i, ch);
+                TextMatcher textMatcher = new TextMatcher(sb);
+                if (i == 0)
+                    assertFalse(textMatcher.matchHexLong());
+                else {
+                    assertTrue(textMatcher.matchHexLong());
+                    assertEquals(i, textMatcher.getIndex());
+                    assertEquals(Long.parseLong(sb.substring(0, i), 16), textMatcher.getMatchedLong());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchRandomHexLongs() {
+        Random random = new Random(31415926);
+        for (int n = 0; n < 10000; n++) {
+            String hex = Long.toHexString(random.nextLong() >>> random.nextInt(64));
+            if (random.nextBoolean())
+                hex = hex.toUpperCase();
+            TextMatcher textMatcher = new TextMatcher("0000" + hex + '-');
+            assertTrue(textMatcher.matchHexLong());
+            assertEquals(hex, Long.parseUnsignedLong(hex, 16), textMatcher.getMatchedLong());
+            assertTrue(textMatcher.match('-'));
+        }
+    }
+
+    @Test
+    public void shouldMatchUUID() {
+        TextMatcher textMatcher = new TextMatcher("id=123e4567-e89b-12d3-a456-426614174000;");
+        textMatcher.setIndex(3);
+        assertTrue(textMatcher.matchUUID());
+        assertEquals(3, textMatcher.getStart());
+        assertEquals(39, textMatcher.getIndex());
+        assertEquals(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"), textMatcher.getResultUUID());
+        long[] out = new long[2];
+        textMatcher.getResultHex128(out);
+        assertEquals(0x123e4567e89b12d3L, out[0]);
+        assertEquals(0xa456426614174000L, out[1]);
+        assertTrue(textMatcher.match(';'));
+    }
+
+    @Test
+    public void shouldMatchUUIDInUpperCase() {
+        TextMatcher textMatcher = new TextMatcher("FFFFFFFF-FFFF-FFFF-ABCD-EF0123456789");
+        assertTrue(textMatcher.matchUUID());
+        assertEquals(new UUID(-1L, 0xABCDEF0123456789L), textMatcher.getResultUUID());
+    }
+
+    @Test
+    public void shouldNotMatchInvalidUUID() {
+        String valid = "123e4567-e89b-12d3-a456-426614174000";
+        for (int i = 0; i < valid.length(); i++) {
+            for (char ch : new char[] { 'g', 'G', '-', '/', ':', '@', '`', ' ', '\u00E9', '\u0130' }) {
+                if (ch == '-' && valid.charAt(i) == '-')
+                    continue;
+                String text = valid.substring(0, i) + ch + valid.substring(i + 1);
+                TextMatcher textMatcher = new TextMatcher(text);
+                assertFalse(text, textMatcher.matchUUID());
+                assertEquals(0, textMatcher.getIndex());
+                assertThrows(NumberFormatException.class, () -> textMatcher.getUUID(0, 36));
+            }
+        }
+        TextMatcher textMatcher = new TextMatcher(valid.substring(0, 35));
+        assertFalse(textMatcher.matchUUID());
+        assertThrows(NumberFormatException.class, () -> textMatcher.getUUID(0, 35));
+    }
+
+    @Test
+    public void shouldMatchRandomUUIDs() {
+        Random random = new Random(27182818);
+        for (int n = 0; n < 10000; n++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            String string = random.nextBoolean() ? uuid.toString() : uuid.toString().toUpperCase();
+            TextMatcher textMatcher = new TextMatcher(string);
+            assertTrue(string, textMatcher.matchUUID());
+            assertEquals(uuid, textMatcher.getResultUUID());
+        }
+    }
+
+    @Test
+    public void shouldGetHex128() {
+        TextMatcher textMatcher = new TextMatcher("x0123456789abcdefFEDCBA9876543210x");
+        textMatcher.setIndex(1);
+        assertTrue(textMatcher.matchHex());
+        long[] out = new long[2];
+        textMatcher.getResultHex128(out);
+        assertEquals(0x0123456789abcdefL, out[0]);
+        assertEquals(0xFEDCBA9876543210L, out[1]);
+        textMatcher.getHex128(1, 18, out);
+        assertEquals(0L, out[0]);
+        assertEquals(0x123456789abcdefFL, out[1]);
+        textMatcher.getHex128(1, 20, out);
+        assertEquals(0x012L, out[0]);
+        assertEquals(0x3456789abcdefFEDL, out[1]);
+        textMatcher.getHex128(1, 2, out);
+        assertEquals(0L, out[0]);
+        assertEquals(0L, out[1]);
+    }
+
+    @Test
+    public void shouldFailGetHex128WithInvalidValue() {
+        TextMatcher textMatcher = new TextMatcher("0123456789abcdef0123456789abcdef0");
+        long[] out = new long[2];
+        assertThrows(NumberFormatException.class, () -> textMatcher.getHex128(0, 33, out));
+        assertThrows(NumberFormatException.class, () -> textMatcher.getHex128(0, 0, out));
+        assertThrows(NumberFormatException.class, () -> new TextMatcher("12x4").getHex128(0, 4, out));
+        assertThrows(NullPointerException.class, () -> textMatcher.getHex128(0, 32, null));
+    }
+
+    @Test
+    public void shouldMatchIsoDateTime() {
+        TextMatcher textMatcher = new TextMatcher("ts=2026-10-18T12:34:56.789Z;");
+        textMatcher.setIndex(3);
+        assertTrue(textMatcher.matchIsoDateTime());
+        assertEquals(3, textMatcher.getStart());
+        assertEquals(27, textMatcher.getIndex());
+        assertEquals(Instant.parse("2026-10-18T12:34:56.789Z").toEpochMilli(), textMatcher.getResultEpochMillis());
+        assertEquals(1792326896789000000L, textMatcher.getResultEpochNanos());
+        assertTrue(textMatcher.match(';'));
+    }
+
+    @Test
+    public void shouldMatchIsoDateTimeWithOffset() {
+        TextMatcher textMatcher = new TextMatcher("1970-01-01t10:00:00+10:00 1969-12-31T23:59:59.999999999z");
+        assertTrue(textMatcher.matchIsoDateTime());
+        assertEquals(0L, textMatcher.getResultEpochMillis());
+        assertEquals(0L, textMatcher.getResultEpochNanos());
+        assertTrue(textMatcher.match(' '));
+        assertTrue(textMatcher.matchIsoDateTime());
+        assertEquals(-1L, textMatcher.getResultEpochMillis());
+        assertEquals(-1L, textMatcher.getResultEpochNanos());
+        assertTrue(textMatcher.isAtEnd());
+    }
+
+    @Test
+    public void shouldGetEpochMillisForMatchedAndOtherRanges() {
+        TextMatcher textMatcher = new TextMatcher("2026-10-18T12:34:56Z 2000-01-01T00:00:00Z");
+        long first = Instant.parse("2026-10-18T12:34:56Z").toEpochMilli();
+        long second = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
+        assertTrue(textMatcher.matchIsoDateTime());
+        assertEquals(second, textMatcher.getEpochMillis(21, 41));
+        assertEquals(first, textMatcher.getResultEpochMillis());
+        assertEquals(first * 1000000, textMatcher.getResultEpochNanos());
+        assertThrows(NumberFormatException.class, () -> textMatcher.getEpochMillis(1, 21));
+        assertEquals(first, textMatcher.getResultEpochMillis());
+        assertTrue(textMatcher.match(' '));
+        assertTrue(textMatcher.matchIsoDateTime());
+        assertEquals(second, textMatcher.getResultEpochMillis());
+        textMatcher.reset("1970-01-01T00:00:01Z 1970-01-01T00:00:02Z");
+        textMatcher.setIndex(41);
+        textMatcher.setStart(21);
+        assertEquals(2000L, textMatcher.getResultEpochMillis());
+    }
+
+    @Test
+    public void shouldNotMatchInvalidIsoDateTime() {
+        String[] invalid = { "2026-10-18T12:34:56", "2026-10-18T12:34Z", "2026-10-18 12:34:56Z", "2026-13-18T12:34:56Z",
+                "2026-00-18T12:34:56Z", "2026-02-29T12:34:56Z", "1900-02-29T12:34:56Z", "2026-04-31T12:34:56Z",
+                "2026-10-18T24:00:00Z", "2026-10-18T12:60:00Z", "2026-10-18T12:34:60Z", "2026-10-18T12:34:56.Z",
+                "2026-10-18T12:34:56.1234567890Z", "2026-10-18T12:34:56+1000", "2026-10-18T12:34:56+18:01",
+                "2026-10-18T12:34:56+10:60", "2026-10-18T12:34:56+10:0", "2026/10/18T12:34:56Z", "226-10-18T12:34:56Z",
+                "2026-10-18T12:34:56X" };
+        for (String text : invalid) {
+            TextMatcher textMatcher = new TextMatcher(text);
+            assertFalse(text, textMatcher.matchIsoDateTime());
+            assertEquals(0, textMatcher.getIndex());
+            assertThrows(NumberFormatException.class, () -> textMatcher.getEpochMillis(0, text.length()));
+        }
+        TextMatcher textMatcher = new TextMatcher("2000-02-29T12:34:56-18:00");
+        assertTrue(textMatcher.matchIsoDateTime());
+    }
+
+    @Test
+    public void shouldFailEpochNanosOutOfRange() {
+        TextMatcher textMatcher = new TextMatcher("2263-01-01T00:00:00Z");
+        assertTrue(textMatcher.matchIsoDateTime());
+        assertEquals(Instant.parse("2263-01-01T00:00:00Z").toEpochMilli(), textMatcher.getResultEpochMillis());
+        assertThrows(ArithmeticException.class, textMatcher::getResultEpochNanos);
+    }
+
+    @Test
+    public void shouldMatchRandomIsoDateTimes() {
+        Random random = new Random(16180339);
+        for (int n = 0; n < 10000; n++) {
+            long seconds = random.nextLong() % 253402300799L;
+            int nanos = random.nextInt(4) == 0 ? 0 : random.nextInt(1000000000);
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(18 * 60 * 2 + 1) - 18 * 60) * 60);
+            Instant instant = Instant.ofEpochSecond(seconds, nanos);
+            OffsetDateTime dateTime = instant.atOffset(offset);
+            if (dateTime.getYear() < 0 || dateTime.getYear() > 9999)
+                continue;
+            String string = dateTime.toString();
+            if (dateTime.getSecond() == 0 && nanos == 0)
+                string = string.substring(0, 16) + ":00" + string.substring(16);
+            TextMatcher textMatcher = new TextMatcher(string);
+            assertTrue(string, textMatcher.matchIsoDateTime());
+            assertTrue(textMatcher.isAtEnd());
+            assertEquals(string, instant.toEpochMilli(), textMatcher.getResultEpochMillis());
+            if (seconds > -9223372036L && seconds < 9223372036L)
+                assertEquals(string, seconds * 1000000000L + nanos, textMatcher.getResultEpochNanos());
+        }
+    }
+
+    @Test
+    public void shouldRePointCharSeq() {
+        TextMatcher textMatcher = new TextMatcher("alpha=1,beta=2");
+        TextMatcher.CharSeq charSeq = new TextMatcher.CharSeq();
+        assertEquals(0, charSeq.length());
+        assertEquals("".hashCode(), charSeq.hashCode());
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertSame(charSeq, textMatcher.getResultCharSeq(charSeq));
+        assertEquals("alpha", charSeq.toString());
+        assertEquals("alpha".hashCode(), charSeq.hashCode());
+        textMatcher.skipTo(',');
+        textMatcher.skip(',');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        textMatcher.getResultCharSeq(charSeq);
+        assertEquals("beta", charSeq.toString());
+        assertEquals("beta".hashCode(), charSeq.hashCode());
+        assertSame(charSeq, textMatcher.getCharSeq(6, 7, charSeq));
+        assertEquals("1", charSeq.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.getCharSeq(6, 15, charSeq));
+    }
+
+    @Test
+    public void shouldCompareCharSeq() {
+        TextMatcher textMatcher = new TextMatcher("xabcx abc");
+        TextMatcher.CharSeq charSeq1 = textMatcher.getCharSeq(1, 4, new TextMatcher.CharSeq());
+        TextMatcher.CharSeq charSeq2 = textMatcher.getCharSeq(6, 9, new TextMatcher.CharSeq());
+        assertEquals(charSeq1, charSeq2);
+        assertEquals(charSeq1.hashCode(), charSeq2.hashCode());
+        assertEquals(new TextMatcher.CharSeq("abc"), charSeq1);
+        assertTrue(charSeq1.contentEquals("abc"));
+        assertTrue(charSeq1.contentEquals(new StringBuilder("abc")));
+        assertFalse(charSeq1.contentEquals("abd"));
+        assertFalse(charSeq1.contentEquals("ab"));
+        assertFalse(charSeq1.contentEquals(null));
+        assertFalse(charSeq1.equals("abc"));
+        assertNotEquals(charSeq1, textMatcher.getCharSeq(0, 3, new TextMatcher.CharSeq()));
+    }
+
+    @Test
+    public void shouldLookUpMapUsingRePointedCharSeq() {
+        Map<TextMatcher.CharSeq, Integer> map = new HashMap<>();
+        map.put(new TextMatcher.CharSeq("alpha"), 1);
+        map.put(new TextMatcher.CharSeq("beta"), 2);
+        TextMatcher textMatcher = new TextMatcher("beta,alpha,gamma");
+        TextMatcher.CharSeq key = new TextMatcher.CharSeq();
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals(Integer.valueOf(2), map.get(textMatcher.getResultCharSeq(key)));
+        textMatcher.skip(',');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals(Integer.valueOf(1), map.get(textMatcher.getResultCharSeq(key)));
+        textMatcher.skip(',');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertNull(map.get(textMatcher.getResultCharSeq(key)));
+    }
+
+    @Test
+    public void shouldGetResultInterned() {
+        TextMatcher textMatcher = new TextMatcher("status=ACTIVE,status=ACTIVE");
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        String first = textMatcher.getResultInterned();
+        assertEquals("status", first);
+        textMatcher.reset(new StringBuilder("status"));
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertSame(first, textMatcher.getResultInterned());
+        textMatcher.reset(new char[] { 'A', 'C', 'T', 'I', 'V', 'E' }, 0, 6);
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        String active = textMatcher.getResultInterned();
+        assertEquals("ACTIVE", active);
+        textMatcher.reset("status=ACTIVE,status=ACTIVE");
+        textMatcher.setIndex(21);
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertSame(active, textMatcher.getResultInterned());
+    }
+
+    @Test
+    public void shouldGetResultInternedForLongOrCollidingResults() {
+        String text = "abcdefghijklmnopqrstuvwxyz0123456789 Aa BB";
+        TextMatcher textMatcher = new TextMatcher(text);
+        assertTrue(textMatcher.matchSeq(Character::isLetterOrDigit));
+        assertEquals(text.substring(0, 36), textMatcher.getResultInterned());
+        textMatcher.skip(' ');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals("Aa", textMatcher.getResultInterned());
+        textMatcher.skip(' ');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals("BB", textMatcher.getResultInterned());
+        textMatcher.setIndex(37);
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertEquals("Aa", textMatcher.getResultInterned());
+        textMatcher.setIndex(37);
+        assertTrue(textMatcher.matchSeq(0, Character::isLetter));
+        textMatcher.setStart(textMatcher.getIndex());
+        assertEquals("", textMatcher.getResultInterned());
+    }
+
+    @Test
+    public void shouldComputeResultHashDuringMatch() {
+        TextMatcher textMatcher = new TextMatcher("status=ACTIVE;count=12");
+        assertTrue(textMatcher.matchSeqHashed(Character::isLetter));
+        assertEquals("status", textMatcher.getResult());
+        assertEquals("status".hashCode(), textMatcher.getResultHash());
+        assertEquals(TextMatcher.hash64("status"), textMatcher.getResultHash64());
+        assertTrue(textMatcher.match('='));
+        assertEquals("=".hashCode(), textMatcher.getResultHash());
+        assertEquals(TextMatcher.hash64("="), textMatcher.getResultHash64());
+        assertFalse(textMatcher.matchSeqHashed(Character::isDigit));
+        assertTrue(textMatcher.matchSeqHashed(2, 1, Character::isLetter));
+        assertEquals("AC", textMatcher.getResult());
+        assertTrue(textMatcher.matchContinueHashed(Character::isLetter));
+        assertEquals("ACTIVE", textMatcher.getResult());
+        assertEquals("ACTIVE".hashCode(), textMatcher.getResultHash());
+        assertEquals(TextMatcher.hash64("ACTIVE"), textMatcher.getResultHash64());
+        textMatcher.skip(';');
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertTrue(textMatcher.matchContinueHashed(1, 1, ch -> ch == '='));
+        assertEquals("count=", textMatcher.getResult());
+        assertEquals("count=".hashCode(), textMatcher.getResultHash());
+        assertFalse(textMatcher.matchContinueHashed(0, 1, Character::isLetter));
+        assertEquals(14, textMatcher.getIndex());
+        assertEquals(0, textMatcher.getResultHash());
+        assertEquals(TextMatcher.hash64(""), textMatcher.getResultHash64());
+        assertEquals(0xCBF29CE484222325L, TextMatcher.hash64(""));
+    }
+
+    @Test
+    public void shouldUseResultHashForLookups() {
+        Map<TextMatcher.CharSeq, Integer> map = new HashMap<>();
+        map.put(new TextMatcher.CharSeq("alpha"), 1);
+        map.put(new TextMatcher.CharSeq("beta"), 2);
+        TextMatcher textMatcher = new TextMatcher("beta,alpha,gamma");
+        TextMatcher.CharSeq key = new TextMatcher.CharSeq();
+        assertTrue(textMatcher.matchSeqHashed(Character::isLetter));
+        assertEquals("beta".hashCode(), textMatcher.getResultCharSeq(key).hashCode());
+        assertEquals(Integer.valueOf(2), map.get(key));
+        textMatcher.skip(',');
+        assertTrue(textMatcher.matchSeqHashed(Character::isLetter));
+        assertEquals(Integer.valueOf(1), map.get(textMatcher.getResultCharSeq(key)));
+        String alpha = textMatcher.getResultInterned();
+        assertEquals("alpha", alpha);
+        textMatcher.setIndex(5);
+        assertTrue(textMatcher.matchSeq(Character::isLetter));
+        assertSame(alpha, textMatcher.getResultInterned());
+        textMatcher.skip(',');
+        assertTrue(textMatcher.matchSeqHashed(Character::isLetter));
+        assertNull(map.get(textMatcher.getResultCharSeq(key)));
+        textMatcher.reset(new StringBuilder("beta"));
+        textMatcher.setStart(0);
+        textMatcher.setIndex(4);
+        assertEquals("beta".hashCode(), textMatcher.getResultHash());
+        assertEquals(Integer.valueOf(2), map.get(textMatcher.getResultCharSeq(key)));
+    }
+
+    @Test
+    public void shouldGetLineAndColumn() {
+        TextMatcher textMatcher = new TextMatcher("first\nsecond\r\n\nfourth");
+        assertEquals(4, textMatcher.getLineCount());
+        assertEquals(1, textMatcher.getLine(0));
+        assertEquals(1, textMatcher.getColumn(0));
+        assertEquals(1, textMatcher.getLine(5));
+        assertEquals(6, textMatcher.getColumn(5));
+        assertEquals(2, textMatcher.getLine(6));
+        assertEquals(1, textMatcher.getColumn(6));
+        assertEquals(2, textMatcher.getLine(13));
+        assertEquals(8, textMatcher.getColumn(13));
+        assertEquals(3, textMatcher.getLine(14));
+        assertEquals(1, textMatcher.getColumn(14));
+        assertEquals(4, textMatcher.getLine(21));
+        assertEquals(7, textMatcher.getColumn(21));
+        assertEquals(0, textMatcher.getLineStart(1));
+        assertEquals(6, textMatcher.getLineStart(2));
+        assertEquals(14, textMatcher.getLineStart(3));
+        assertEquals(15, textMatcher.getLineStart(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.getLine(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.getColumn(22));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.getLineStart(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> textMatcher.getLineStart(5));
+    }
+
+    @Test
+    public void shouldRebuildLineIndexOnReset() {
+        TextMatcher textMatcher = new TextMatcher("abc");
+        assertEquals(1, textMatcher.getLineCount());
+        assertEquals(1, textMatcher.getLine(3));
+        assertEquals(4, textMatcher.getColumn(3));
+        textMatcher.reset("a\nb\nc\n");
+        assertEquals(4, textMatcher.getLineCount());
+        assertEquals(4, textMatcher.getLine(6));
+        assertEquals(1, textMatcher.getColumn(6));
+        char[] chars = "x\ny\nz\n".toCharArray();
+        textMatcher.reset(chars, 2, 4);
+        assertEquals(3, textMatcher.getLineCount());
+        assertEquals(2, textMatcher.getLine(3));
+        assertEquals(2, textMatcher.getColumn(3));
+        assertEquals(3, textMatcher.getLine(4));
+    }
+
+    @Test
+    public void shouldGetLineSameAsScanningText() {
+        Random random = new Random(97531);
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < 5000; k++)
+            sb.append(random.nextInt(20) == 0 ? '\n' : 'a');
+        String text = sb.toString();
+        TextMatcher textMatcher = new TextMatcher(text);
+        int line = 1;
+        int column = 1;
+        for (int i = 0; i <= text.length(); i++) {
+            assertEquals(line, textMatcher.getLine(i));
+            assertEquals(column, textMatcher.getColumn(i));
+            if (i < text.length() && text.charAt(i) == '\n') {
+                line++;
+                column = 1;
+            }
+            else
+                column++;
+        }
+        assertEquals(line, textMatcher.getLineCount());
+    }
+
 }
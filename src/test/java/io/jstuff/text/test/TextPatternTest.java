@@ -0,0 +1,329 @@
+/*
+ * @(#) TextPatternTest.java
+ *
+ * TextMatcher  Text matching functions
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.jstuff.text.test;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.jstuff.text.CharClass;
+import io.jstuff.text.TextMatcher;
+import io.jstuff.text.TextPattern;
+import static io.jstuff.text.TextPattern.capture;
+import static io.jstuff.text.TextPattern.choice;
+import static io.jstuff.text.TextPattern.dec;
+import static io.jstuff.text.TextPattern.hex;
+import static io.jstuff.text.TextPattern.of;
+import static io.jstuff.text.TextPattern.optional;
+import static io.jstuff.text.TextPattern.repeat;
+import static io.jstuff.text.TextPattern.sequence;
+import static io.jstuff.text.TextPattern.seq;
+
+public class TextPatternTest {
+
+    private static final TextPattern date = sequence(capture(dec(4, 4)), of('-'), capture(dec(2, 2)), of('-'),
+            capture(dec(2, 2)));
+
+    @Test
+    public void shouldMatchSequence() {
+        TextMatcher textMatcher = new TextMatcher("on 2026-10-18.");
+        textMatcher.setIndex(3);
+        int[] captures = new int[6];
+        assertEquals(3, date.getCaptureCount());
+        assertTrue(textMatcher.match(date, captures));
+        assertEquals(3, textMatcher.getStart());
+        assertEquals(13, textMatcher.getIndex());
+        assertArrayEquals(new int[] { 3, 7, 8, 10, 11, 13 }, captures);
+        assertEquals(2026, textMatcher.getInt(captures[0], captures[1]));
+        assertTrue(textMatcher.match('.'));
+    }
+
+    @Test
+    public void shouldNotMatchIncompleteSequence() {
+        TextMatcher textMatcher = new TextMatcher("2026-10-1x");
+        assertFalse(textMatcher.match(date));
+        assertEquals(0, textMatcher.getIndex());
+        assertEquals(0, textMatcher.getStart());
+    }
+
+    @Test
+    public void shouldMatchLiteralStrings() {
+        TextPattern pattern = sequence(of("id"), of('='), sequence(of("ab"), of('c')), dec());
+        TextMatcher textMatcher = new TextMatcher("id=abc123;id=abd123");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("id=abc123", textMatcher.getResult());
+        textMatcher.skip(';');
+        assertFalse(textMatcher.match(pattern));
+        assertFalse(new TextMatcher("id=ab").match(pattern));
+    }
+
+    @Test
+    public void shouldMatchFirstSuccessfulChoice() {
+        TextPattern pattern = choice(of("true"), of("t"), of("false"));
+        TextMatcher textMatcher = new TextMatcher("true");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("true", textMatcher.getResult());
+        textMatcher = new TextMatcher("tx");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("t", textMatcher.getResult());
+        textMatcher = new TextMatcher("false");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals("false", textMatcher.getResult());
+        assertFalse(new TextMatcher("fals").match(pattern));
+    }
+
+    @Test
+    public void shouldMatchOptionalAndRepeat() {
+        TextPattern number = sequence(optional(of('-')), dec(), optional(sequence(of('.'), dec())));
+        TextMatcher textMatcher = new TextMatcher("-12.5,7,3.,x");
+        assertTrue(textMatcher.match(number));
+        assertEquals("-12.5", textMatcher.getResult());
+        textMatcher.skip(',');
+        assertTrue(textMatcher.match(number));
+        assertEquals("7", textMatcher.getResult());
+        textMatcher.skip(',');
+        assertTrue(textMatcher.match(number));
+        assertEquals("3", textMatcher.getResult());
+        assertTrue(textMatcher.match(sequence(of('.'), of(','))));
+        assertFalse(textMatcher.match(number));
+        TextPattern list = sequence(dec(), repeat(sequence(of(','), dec())));
+        textMatcher = new TextMatcher("1,22,333,x");
+        assertTrue(textMatcher.match(list));
+        assertEquals("1,22,333", textMatcher.getResult());
+    }
+
+    @Test
+    public void shouldMatchCountedRepeat() {
+        TextPattern pattern = repeat(3, 2, of("ab"));
+        assertFalse(new TextMatcher("abx").match(pattern));
+        TextMatcher textMatcher = new TextMatcher("ababx");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals(4, textMatcher.getIndex());
+        textMatcher = new TextMatcher("abababab");
+        assertTrue(textMatcher.match(pattern));
+        assertEquals(6, textMatcher.getIndex());
+        textMatcher = new TextMatcher("aaaaa");
+        assertTrue(textMatcher.match(repeat(4, 2, of('a'))));
+        assertEquals(4, textMatcher.getIndex());
+        assertFalse(new TextMatcher("ab").match(repeat(0, 2, of(CharClass.of("a")))));
+    }
+
+    @Test
+    public void shouldNotGiveBackCharactersFromRepeat() {
+        TextPattern pattern = sequence(seq(CharClass.DIGITS), of('1'));
+        assertFalse(new TextMatcher("1231").match(pattern));
+    }
+
+    @Test
+    public void shouldReuseStackAcrossPatternsOfDifferentDepths() {
+        TextPattern shallow = choice(of("ab"), of('a'));
+        TextPattern deep = sequence(repeat(3, 0, sequence(optional(of('x')), of('a'))), choice(of("ab"), of('b')));
+        TextMatcher textMatcher = new TextMatcher("aab;aaab;ab");
+        assertTrue(textMatcher.match(shallow));
+        assertEquals("a", textMatcher.getResult());
+        assertTrue(textMatcher.match(deep));
+        assertEquals("ab", textMatcher.getResult());
+        assertTrue(textMatcher.match(';'));
+        assertTrue(textMatcher.match(deep));
+        assertEquals("aaab", textMatcher.getResult());
+        assertTrue(textMatcher.match(';'));
+        assertTrue(textMatcher.match(shallow));
+        assertEquals("ab", textMatcher.getResult());
+        assertTrue(textMatcher.isAtEnd());
+    }
+
+    @Test
+    public void shouldResetCapturesInFailedAlternatives() {
+        TextPattern pattern = choice(sequence(capture(dec()), of('x')), sequence(capture(hex()), of('y')));
+        int[] captures = new int[4];
+        TextMatcher textMatcher = new TextMatcher("12y");
+        assertTrue(textMatcher.match(pattern, captures));
+        assertArrayEquals(new int[] { -1, -1, 0, 2 }, captures);
+        textMatcher = new TextMatcher("12x");
+        assertTrue(textMatcher.match(pattern, captures));
+        assertArrayEquals(new int[] { 0, 2, -1, -1 }, captures);
+    }
+
+    @Test
+    public void shouldRecordLastRepetitionOfCapture() {
+        TextPattern pattern = repeat(sequence(capture(seq(Character::isLetter)), optional(of(','))));
+        int[] captures = new int[2];
+        TextMatcher textMatcher = new TextMatcher("abc,de,f;");
+        assertTrue(textMatcher.match(pattern, captures));
+        assertEquals(8, textMatcher.getIndex());
+        assertArrayEquals(new int[] { 7, 8 }, captures);
+        textMatcher = new TextMatcher(";");
+        assertTrue(textMatcher.match(pattern, captures));
+        assertArrayEquals(new int[] { -1, -1 }, captures);
+    }
+
+    @Test
+    public void shouldNumberNestedCaptures() {
+        TextPattern pattern = capture(sequence(capture(of('a')), repeat(2, 2, capture(of('b'))), capture(of('c'))));
+        assertEquals(4, pattern.getCaptureCount());
+        int[] captures = new int[8];
+        assertTrue(new TextMatcher("abbc").match(pattern, captures));
+        assertArrayEquals(new int[] { 0, 4, 0, 1, 2, 3, 3, 4 }, captures);
+        assertThrows(IllegalArgumentException.class, () -> new TextMatcher("abbc").match(pattern, new int[7]));
+    }
+
+    @Test
+    public void shouldRejectInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> repeat(optional(of('a'))));
+        assertThrows(IllegalArgumentException.class, () -> repeat(of("")));
+        assertThrows(IllegalArgumentException.class, () -> repeat(2, 3, of('a')));
+        assertThrows(IllegalArgumentException.class, () -> seq(-1, 0, CharClass.DIGITS));
+        assertThrows(IllegalArgumentException.class, TextPattern::choice);
+        assertThrows(NullPointerException.class, () -> sequence(of('a'), null));
+        assertThrows(NullPointerException.class, () -> of((CharSequence)null));
+    }
+
+    @Test
+    public void shouldLimitRepetitionCounts() {
+        assertThrows(IllegalArgumentException.class, () -> repeat(Integer.MAX_VALUE, 0, of("ab")));
+        assertThrows(IllegalArgumentException.class, () -> repeat(TextPattern.MAX_REPEAT + 1, 1, of("ab")));
+        TextPattern inner = repeat(TextPattern.MAX_REPEAT, 0, of("ab"));
+        assertThrows(IllegalArgumentException.class, () -> repeat(TextPattern.MAX_REPEAT, 0, repeat(100, 0, inner)));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1001; i++)
+            sb.append("ab");
+        TextMatcher textMatcher = new TextMatcher(sb);
+        assertTrue(textMatcher.match(inner));
+        assertEquals(2000, textMatcher.getIndex());
+        TextPattern generated = inner.withGeneratedCode();
+        assertFalse(generated.isGenerated());
+    }
+
+    @Test
+    public void shouldMatchSequenceWithLargeMaximum() {
+        TextPattern pattern = seq(Integer.MAX_VALUE, 1, CharClass.of("ab"));
+        TextPattern generated = pattern.withGeneratedCode();
+        for (TextPattern p : new TextPattern[] { pattern, generated }) {
+            TextMatcher textMatcher = new TextMatcher("xab");
+            textMatcher.setIndex(1);
+            assertTrue(textMatcher.match(p));
+            assertEquals(3, textMatcher.getIndex());
+        }
+    }
+
+    @Test
+    public void shouldAgreeWithPossessiveRegex() {
+        TextPattern pattern = sequence(repeat(choice(of("ab"), of('a'), seq(2, 1, CharClass.of("c")))),
+                optional(capture(sequence(of('b'), dec(3, 0)))), of(';'));
+        TextPattern generated = pattern.withGeneratedCode();
+        Pattern regex = Pattern.compile("(?:ab|a|c{1,2})*+(?:(b[0-9]{0,3}+))?+;");
+        Random random = new Random(24681357);
+        String alphabet = "abc1;";
+        int[] captures = new int[2];
+        for (int n = 0; n < 10000; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int k = random.nextInt(12); k > 0; k--)
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String text = sb.toString();
+            Matcher matcher = regex.matcher(text);
+            boolean matched = matcher.lookingAt();
+            for (TextPattern p : new TextPattern[] { pattern, generated }) {
+                TextMatcher textMatcher = new TextMatcher(text);
+                assertEquals(text, matched, textMatcher.match(p, captures));
+                if (matched) {
+                    assertEquals(text, matcher.end(), textMatcher.getIndex());
+                    assertEquals(text, matcher.start(1), captures[0]);
+                    assertEquals(text, matcher.end(1), captures[1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldUseGeneratedCodeWhereAvailable() {
+        TextPattern generated = date.withGeneratedCode();
+        assertFalse(date.isGenerated());
+        assertEquals(isHiddenClassAvailable(), generated.isGenerated());
+        assertSame(generated, generated.withGeneratedCode());
+        assertEquals(3, generated.getCaptureCount());
+        int[] captures = new int[6];
+        TextMatcher textMatcher = new TextMatcher("on 2026-10-18.");
+        textMatcher.setIndex(3);
+        assertTrue(textMatcher.match(generated, captures));
+        assertEquals(13, textMatcher.getIndex());
+        assertArrayEquals(new int[] { 3, 7, 8, 10, 11, 13 }, captures);
+        assertFalse(new TextMatcher("2026-10-1x").match(generated));
+        assertThrows(IllegalArgumentException.class, () -> new TextMatcher("2026-10-18").match(generated, new int[5]));
+    }
+
+    @Test
+    public void shouldMatchSamePatternsWithGeneratedCode() {
+        CharClass other = CharClass.of("\u00E9\u4E2D").or(CharClass.range('x', 'z'));
+        TextPattern[] patterns = {
+            sequence(of("id"), of('='), sequence(of("ab"), of('c')), dec()),
+            choice(of("true"), of("t"), of("false")),
+            sequence(optional(of('-')), dec(), optional(sequence(of('.'), dec()))),
+            sequence(dec(), repeat(sequence(of(','), capture(dec())))),
+            repeat(3, 2, capture(of("ab"))),
+            repeat(4, 2, of('a')),
+            sequence(seq(3, 0, other), of('\uFFFE'), of(Character::isLetter), hex(4, 2)),
+            capture(sequence(capture(of('a')), repeat(2, 2, capture(of('b'))), capture(of('c')))),
+            choice(sequence(capture(dec()), of('x')), sequence(capture(hex()), of('y'))),
+        };
+        String[] texts = { "id=abc123;", "id=abd", "true", "tx", "false", "fals", "-12.5", "7,", "3.x", "1,22,333,x",
+                "ababab", "abx", "aaaaa", "x\u00E9\u4E2Dz\uFFFEq1f", "\u4E2D\uFFFE\u00E91234", "abbc", "12y", "12x", "" };
+        for (TextPattern pattern : patterns) {
+            TextPattern generated = pattern.withGeneratedCode();
+            assertEquals(isHiddenClassAvailable(), generated.isGenerated());
+            int[] expected = new int[pattern.getCaptureCount() * 2];
+            int[] captures = new int[pattern.getCaptureCount() * 2];
+            for (String text : texts) {
+                TextMatcher textMatcher1 = new TextMatcher(text);
+                TextMatcher textMatcher2 = new TextMatcher(text);
+                boolean matched = textMatcher1.match(pattern, expected);
+                assertEquals(text, matched, textMatcher2.match(generated, captures));
+                if (matched) {
+                    assertEquals(text, textMatcher1.getIndex(), textMatcher2.getIndex());
+                    assertArrayEquals(text, expected, captures);
+                }
+            }
+        }
+    }
+
+    private static boolean isHiddenClassAvailable() {
+        try {
+            Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            return true;
+        }
+        catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}